@@ -0,0 +1,81 @@
+package com.airbnb.epoxy;
+
+import android.support.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Describes which attributes of a model changed since the model that was previously bound to the
+ * same view. When payloads are enabled with {@link EpoxyAdapter#setDiffPayloadsEnabled(boolean)},
+ * and a model computes its changes in {@link EpoxyModel#getChangedAttributes(EpoxyModel)}, an
+ * instance of this is included in the payloads passed to {@link EpoxyModel#bind(Object, List)} so
+ * that only the views for the changed attributes need to be updated.
+ * <p>
+ * Attributes are identified by bit flags, such as the {@code ATTRIBUTE_} constants in generated
+ * models.
+ */
+public final class AttributeChanges {
+  /** Returned from {@link EpoxyModel#getChangedAttributes(EpoxyModel)} if changes are unknown. */
+  public static final long ALL_ATTRIBUTES = -1L;
+
+  private final long changedAttributes;
+
+  AttributeChanges(long changedAttributes) {
+    this.changedAttributes = changedAttributes;
+  }
+
+  /**
+   * Returns the attribute changes in the given payloads, or null if the payloads don't have any, in
+   * which case the model should be fully bound.
+   */
+  @Nullable
+  public static AttributeChanges from(List<Object> payloads) {
+    for (int i = 0; i < payloads.size(); i++) {
+      Object payload = payloads.get(i);
+      if (payload instanceof AttributeChanges) {
+        return (AttributeChanges) payload;
+      }
+    }
+
+    return null;
+  }
+
+  /** Returns the bit flags of all attributes that changed. */
+  public long getChangedAttributes() {
+    return changedAttributes;
+  }
+
+  /** Returns true if any of the given attributes changed. */
+  public boolean hasChanged(long attributes) {
+    return (changedAttributes & attributes) != 0;
+  }
+
+  /** Returns true if any of the given attributes changed, and no other attributes did. */
+  public boolean hasOnlyChanged(long attributes) {
+    return changedAttributes != 0 && (changedAttributes & ~attributes) == 0;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof AttributeChanges)) {
+      return false;
+    }
+
+    return changedAttributes == ((AttributeChanges) o).changedAttributes;
+  }
+
+  @Override
+  public int hashCode() {
+    return (int) (changedAttributes ^ (changedAttributes >>> 32));
+  }
+
+  @Override
+  public String toString() {
+    return "AttributeChanges{"
+        + "changedAttributes=" + Long.toBinaryString(changedAttributes)
+        + '}';
+  }
+}
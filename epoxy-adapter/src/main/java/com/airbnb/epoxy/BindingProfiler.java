@@ -0,0 +1,97 @@
+package com.airbnb.epoxy;
+
+import android.support.annotation.LayoutRes;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records how long an adapter spends creating, binding and unbinding views, and saving and
+ * restoring their state, grouped by model class and layout. This helps attribute scroll jank to the
+ * model types responsible for it. Set it on an adapter with {@link
+ * EpoxyAdapter#setBindingProfiler(BindingProfiler)} and read the results with {@link
+ * #getSnapshot()}, such as to log them or send them to a metrics service.
+ * <p>
+ * Timings are recorded on the main thread, and this should only be accessed from there.
+ */
+public final class BindingProfiler {
+  /**
+   * Most model classes use a single layout, so the timings for each layout of a class are kept in a
+   * short list instead of needing a key object for each lookup.
+   */
+  private final Map<Class<?>, List<ModelTimings>> timingsByClass = new HashMap<>();
+  private final List<ModelTimings> allTimings = new ArrayList<>();
+
+  /** Returns a copy of the timings recorded so far, one for each model class and layout. */
+  public List<ModelTimings> getSnapshot() {
+    List<ModelTimings> snapshot = new ArrayList<>(allTimings.size());
+    for (int i = 0; i < allTimings.size(); i++) {
+      snapshot.add(allTimings.get(i).copy());
+    }
+    return snapshot;
+  }
+
+  /** Clears all recorded timings. */
+  public void reset() {
+    timingsByClass.clear();
+    allTimings.clear();
+  }
+
+  void recordInflate(@Nullable Class<?> modelClass, @LayoutRes int layout, long nanos) {
+    ModelTimings timings = getTimings(modelClass, layout);
+    timings.inflateCount++;
+    timings.inflateNanos += nanos;
+  }
+
+  void recordBind(EpoxyModel<?> model, long nanos) {
+    ModelTimings timings = getTimings(model);
+    timings.bindCount++;
+    timings.bindNanos += nanos;
+    timings.maxBindNanos = Math.max(timings.maxBindNanos, nanos);
+  }
+
+  void recordSaveState(EpoxyModel<?> model, long nanos) {
+    ModelTimings timings = getTimings(model);
+    timings.saveStateCount++;
+    timings.saveStateNanos += nanos;
+  }
+
+  void recordRestoreState(EpoxyModel<?> model, long nanos) {
+    ModelTimings timings = getTimings(model);
+    timings.restoreStateCount++;
+    timings.restoreStateNanos += nanos;
+  }
+
+  void recordUnbind(EpoxyModel<?> model, long nanos) {
+    ModelTimings timings = getTimings(model);
+    timings.unbindCount++;
+    timings.unbindNanos += nanos;
+  }
+
+  private ModelTimings getTimings(EpoxyModel<?> model) {
+    return getTimings(model.getClass(), model.getLayout());
+  }
+
+  private ModelTimings getTimings(@Nullable Class<?> modelClass, @LayoutRes int layout) {
+    List<ModelTimings> timingsForClass = timingsByClass.get(modelClass);
+    if (timingsForClass == null) {
+      timingsForClass = new ArrayList<>(1);
+      timingsByClass.put(modelClass, timingsForClass);
+    }
+
+    for (int i = 0; i < timingsForClass.size(); i++) {
+      ModelTimings timings = timingsForClass.get(i);
+      if (timings.matches(modelClass, layout)) {
+        return timings;
+      }
+    }
+
+    ModelTimings timings = new ModelTimings(modelClass, layout);
+    timingsForClass.add(timings);
+    allTimings.add(timings);
+    return timings;
+  }
+}
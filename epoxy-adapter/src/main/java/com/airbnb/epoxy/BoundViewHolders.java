@@ -2,7 +2,6 @@
 package com.airbnb.epoxy;
 
 import android.support.annotation.Nullable;
-import android.support.v4.util.LongSparseArray;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -10,7 +9,7 @@ import java.util.NoSuchElementException;
 /** Helper class for keeping track of {@link EpoxyViewHolder}s that are currently bound. */
 @SuppressWarnings("WeakerAccess")
 public class BoundViewHolders implements Iterable<EpoxyViewHolder> {
-  private final LongSparseArray<EpoxyViewHolder> holders = new LongSparseArray<>();
+  private final LongObjectHashMap<EpoxyViewHolder> holders = new LongObjectHashMap<>();
 
   @Nullable
   public EpoxyViewHolder get(EpoxyViewHolder holder) {
@@ -0,0 +1,207 @@
+package com.airbnb.epoxy;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.Parcelable.ClassLoaderCreator;
+import android.os.Parcelable.Creator;
+import android.support.annotation.Nullable;
+
+import com.airbnb.epoxy.ViewHolderState.ViewState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A smaller parcel encoding for {@link ViewHolderState}. The default encoding writes each view
+ * state with {@link Parcel#writeParcelable(Parcelable, int)}, which writes the full class name of
+ * every state and of every view's saved state inside it, and pads every int to four bytes.
+ * <p>
+ * This encoding starts with {@link #MARKER}, which can't be the count that the default encoding
+ * starts with, so that the reader can tell the two apart. Next is a byte array of variable length
+ * integers: the number of states, then for each one its zigzag encoded model id and number of
+ * views, and for each view its id and a reference to the class of its saved state. Then the
+ * parcel has each view's saved state in order, preceded by its class name the first time that
+ * class is used. Empty view states aren't written.
+ */
+final class CompactViewStateFormat {
+  /** Negative, so it can't be mistaken for the number of states in the default encoding. */
+  static final int MARKER = 0xEC0FFEE0;
+  /** The class reference written for a null saved state. */
+  private static final int NULL_CLASS = 0;
+
+  private CompactViewStateFormat() {
+  }
+
+  /** Writes the given state and all newer ones. */
+  static void write(@Nullable ViewState firstState, Parcel dest, int flags) {
+    VarIntWriter header = new VarIntWriter();
+    List<Class<?>> classes = new ArrayList<>();
+
+    int count = 0;
+    for (ViewState state = firstState; state != null; state = state.newerState) {
+      if (state.size() > 0) {
+        count++;
+      }
+    }
+    header.writeInt(count);
+
+    for (ViewState state = firstState; state != null; state = state.newerState) {
+      int viewCount = state.size();
+      if (viewCount == 0) {
+        continue;
+      }
+
+      header.writeLong(state.id);
+      header.writeInt(viewCount);
+      for (int i = 0; i < viewCount; i++) {
+        header.writeInt(state.keyAt(i));
+        header.writeInt(getClassReference(state.valueAt(i), classes));
+      }
+    }
+
+    dest.writeInt(MARKER);
+    dest.writeByteArray(header.toByteArray());
+
+    // Class references are assigned in the same order as above, so a class name is written right
+    // before the first value that uses it
+    int writtenClassCount = 0;
+    for (ViewState state = firstState; state != null; state = state.newerState) {
+      for (int i = 0; i < state.size(); i++) {
+        Parcelable value = state.valueAt(i);
+        if (value == null) {
+          continue;
+        }
+
+        if (classes.indexOf(value.getClass()) == writtenClassCount) {
+          dest.writeString(value.getClass().getName());
+          writtenClassCount++;
+        }
+        value.writeToParcel(dest, flags);
+      }
+    }
+  }
+
+  /** Returns a reference that is 1 more than the index of the value's class, adding it if new. */
+  private static int getClassReference(@Nullable Parcelable value, List<Class<?>> classes) {
+    if (value == null) {
+      return NULL_CLASS;
+    }
+
+    int index = classes.indexOf(value.getClass());
+    if (index == -1) {
+      index = classes.size();
+      classes.add(value.getClass());
+    }
+    return index + 1;
+  }
+
+  /** Reads a state written by {@link #write}, after its {@link #MARKER} has been read. */
+  static ViewHolderState read(Parcel source, ViewHolderState state) {
+    ClassLoader loader = ViewHolderState.class.getClassLoader();
+    VarIntReader header = new VarIntReader(source.createByteArray());
+    List<Creator<?>> creators = new ArrayList<>();
+
+    int count = header.readInt();
+    for (int i = 0; i < count; i++) {
+      long id = header.readLong();
+      int viewCount = header.readInt();
+      ViewState viewState = new ViewState();
+
+      for (int j = 0; j < viewCount; j++) {
+        int viewId = header.readInt();
+        int classReference = header.readInt();
+
+        Parcelable value = null;
+        if (classReference != NULL_CLASS) {
+          if (classReference > creators.size()) {
+            creators.add(getCreator(source.readString(), loader));
+          }
+          value = createFromParcel(creators.get(classReference - 1), source, loader);
+        }
+        viewState.put(viewId, value);
+      }
+
+      state.put(id, viewState);
+    }
+
+    return state;
+  }
+
+  private static Creator<?> getCreator(String className, ClassLoader loader) {
+    try {
+      Class<?> parcelableClass = Class.forName(className, false, loader);
+      return (Creator<?>) parcelableClass.getField("CREATOR").get(null);
+    } catch (ClassNotFoundException | NoSuchFieldException | IllegalAccessException e) {
+      throw new IllegalStateException("Unable to read saved view state of class " + className, e);
+    }
+  }
+
+  private static Parcelable createFromParcel(Creator<?> creator, Parcel source,
+      ClassLoader loader) {
+    if (creator instanceof ClassLoaderCreator) {
+      return (Parcelable) ((ClassLoaderCreator<?>) creator).createFromParcel(source, loader);
+    }
+    return (Parcelable) creator.createFromParcel(source);
+  }
+
+  private static class VarIntWriter {
+    private byte[] bytes = new byte[64];
+    private int size;
+
+    void writeInt(int value) {
+      writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    /** Zigzag encodes the value, so that small negative ids stay small. */
+    void writeLong(long value) {
+      writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void writeVarLong(long value) {
+      if (size + 10 > bytes.length) {
+        bytes = Arrays.copyOf(bytes, bytes.length * 2);
+      }
+
+      while ((value & ~0x7FL) != 0) {
+        bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes[size++] = (byte) value;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(bytes, size);
+    }
+  }
+
+  private static class VarIntReader {
+    private final byte[] bytes;
+    private int position;
+
+    VarIntReader(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    int readInt() {
+      return (int) readVarLong();
+    }
+
+    long readLong() {
+      long value = readVarLong();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readVarLong() {
+      long value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = bytes[position++];
+        value |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return value;
+    }
+  }
+}
@@ -1,44 +1,131 @@
 
 package com.airbnb.epoxy;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.Nullable;
 import android.support.v7.widget.RecyclerView;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static com.airbnb.epoxy.ModelStateList.NO_INDEX;
 
 /**
  * Helper to track changes in the models list.
  */
 class DiffHelper {
-  private ArrayList<ModelState> oldStateList = new ArrayList<>();
-  // Using a HashMap instead of a LongSparseArray to
-  // have faster look up times at the expense of memory
-  private Map<Long, ModelState> oldStateMap = new HashMap<>();
-  private ArrayList<ModelState> currentStateList = new ArrayList<>();
-  private Map<Long, ModelState> currentStateMap = new HashMap<>();
+  /**
+   * Compares models that kept their state's model with {@link EpoxyModel#changedSince(EpoxyModel,
+   * int, int)}, so that models which {@link EpoxyModel#diffsByContent()} are compared by content.
+   */
+  static final ModelStateDiffer.ItemComparator MODEL_COMPARATOR =
+      new ModelStateDiffer.ItemComparator() {
+        @Override
+        public boolean hasChanged(@Nullable Object previousItem, int previousHashCode,
+            Object item, int hashCode) {
+          return ((EpoxyModel<?>) item)
+              .changedSince((EpoxyModel<?>) previousItem, previousHashCode, hashCode);
+        }
+      };
+
+  // The two lists are swapped for each diff and reused, so that a diff doesn't need to allocate new
+  // state for every model
+  private ModelStateList oldStateList = new ModelStateList();
+  private ModelStateList currentStateList = new ModelStateList();
+  /** Reused for each synchronous diff. Async diffs each need their own. */
+  private final UpdateOpHelper updateOpHelper = new UpdateOpHelper();
   private final EpoxyAdapter adapter;
   private final DifferModelListObserver modelListObserver = new DifferModelListObserver();
   /**
-   * Set to true if an end user notifies adapter changes. We track this because our {@link
-   * #modelListObserver} already tracks structural changes and we shouldn't double notify those
-   * changes if the user already manually notified them. This generally shouldn't happen for normal
-   * usage of the adapter, somebody would have to do something like notify an item insertion and
-   * then notify models changed. We expect them to always just notify models changed. We could
-   * automate this by updating the observer to remove operations from its list when it hears they
-   * were notified, but that does not seem worth the effort for this small case.
+   * Set to true if an end user notifies adapter changes that our {@link #modelListObserver} can't
+   * account for. The observer already tracks structural changes and we shouldn't double notify
+   * those changes if the user already manually notified them. When a notified change is exactly the
+   * one the observer recorded, such as adding a model and then notifying its insertion, it is
+   * removed from the record instead. Otherwise we don't know what is left to notify, and a full
+   * diff is needed.
    */
   private boolean notifiedOfStructuralChanges;
+  /**
+   * If set, diffs are computed on this executor instead of the thread calling {@link
+   * #notifyModelChanges()}. The resulting operations are always dispatched on the main thread.
+   */
+  @Nullable private final Executor diffExecutor;
+  @Nullable private final Handler mainThreadHandler;
+  /**
+   * Incremented for each async diff that is started. A diff result is only dispatched if no newer
+   * diff was started while it was being computed, otherwise it is stale and is dropped.
+   */
+  private volatile int asyncDiffGeneration;
+  /** If set, moves are found with this instead of the default move detection. */
+  @Nullable private MinimalMoveCollector minimalMoveCollector;
+  /** If set, changed items are notified with {@link DiffPayload#INSTANCE} as their payload. */
+  private boolean diffPayloadsEnabled;
+  /** If set, a {@link DiffResult} is collected for each diff and passed to this. */
+  @Nullable private DiffListener diffListener;
+  /** The number of diffs that took each {@link DiffResult.Path}, indexed by path. */
+  private final int[] pathCounts = new int[DiffResult.PATH_COUNT];
+  /**
+   * For each position in the models list, the index in {@link #currentStateList} of the model there
+   * before the recorded changes, or {@link ModelStateList#NO_INDEX} if it was inserted. This is
+   * reused between diffs.
+   */
+  private int[] previousIndices = new int[0];
+  /**
+   * Models whose change was notified during a transaction, which are notified as changed once the
+   * next diff is dispatched, whether or not their hash code changed. Each has its payload at the
+   * same index of {@link #recordedChangePayloads}.
+   */
+  private final List<EpoxyModel<?>> recordedChangeModels = new ArrayList<>();
+  private final List<Object> recordedChangePayloads = new ArrayList<>();
 
   DiffHelper(EpoxyAdapter adapter) {
+    this(adapter, null);
+  }
+
+  DiffHelper(EpoxyAdapter adapter, @Nullable Executor diffExecutor) {
     this.adapter = adapter;
+    this.diffExecutor = diffExecutor;
+    this.mainThreadHandler = diffExecutor != null ? new Handler(Looper.getMainLooper()) : null;
     adapter.registerAdapterDataObserver(observer);
     ((ModelList) adapter.models).setObserver(modelListObserver);
   }
 
+  /**
+   * Creates a helper that records the changes made to an adapter during a transaction when diffing
+   * isn't enabled. The adapter may already have models, so their current state is recorded to diff
+   * against. The helper must be detached once the transaction is committed.
+   */
+  static DiffHelper forTransaction(EpoxyAdapter adapter) {
+    DiffHelper diffHelper = new DiffHelper(adapter);
+    buildStates(adapter.models, diffHelper.currentStateList);
+    return diffHelper;
+  }
+
+  /** Stops tracking changes to the adapter. */
+  void detach() {
+    adapter.unregisterAdapterDataObserver(observer);
+    ((ModelList) adapter.models).setObserver(null);
+  }
+
+  void setMinimalMovesEnabled(boolean enabled) {
+    minimalMoveCollector = enabled ? new MinimalMoveCollector() : null;
+  }
+
+  void setDiffPayloadsEnabled(boolean enabled) {
+    diffPayloadsEnabled = enabled;
+  }
+
+  void setDiffListener(@Nullable DiffListener diffListener) {
+    this.diffListener = diffListener;
+  }
+
+  int getPathCount(@DiffResult.Path int path) {
+    return pathCounts[path];
+  }
+
   private final RecyclerView.AdapterDataObserver observer = new RecyclerView.AdapterDataObserver() {
     @Override
     public void onChanged() {
@@ -48,8 +135,13 @@ class DiffHelper {
 
     @Override
     public void onItemRangeChanged(int positionStart, int itemCount) {
+      assertNotAsync();
       for (int i = positionStart; i < positionStart + itemCount; i++) {
-        currentStateList.get(i).hashCode = adapter.models.get(i).hashCode();
+        // The change was notified explicitly, so it may be one the model didn't track
+        EpoxyModel<?> model = adapter.models.get(i);
+        model.markModified();
+        currentStateList.hashCodes[i] = model.hashCodeForDiff();
+        currentStateList.items[i] = model;
       }
     }
 
@@ -60,26 +152,15 @@ class DiffHelper {
         return;
       }
 
-      notifiedOfStructuralChanges = true;
-
-      if (itemCount == 1 || positionStart == currentStateList.size()) {
-        for (int i = positionStart; i < positionStart + itemCount; i++) {
-          currentStateList.add(i, createStateForPosition(i));
-        }
-      } else {
-        // Add in a batch since multiple insertions to the middle of the list are slow
-        List<ModelState> newModels = new ArrayList<>(itemCount);
-        for (int i = positionStart; i < positionStart + itemCount; i++) {
-          newModels.add(createStateForPosition(i));
-        }
-
-        currentStateList.addAll(positionStart, newModels);
+      assertNotAsync();
+      if (!modelListObserver.consumeInsertion(positionStart, itemCount)) {
+        notifiedOfStructuralChanges = true;
       }
 
-      // Update positions of affected items
-      int size = currentStateList.size();
-      for (int i = positionStart + itemCount; i < size; i++) {
-        currentStateList.get(i).position += itemCount;
+      // Shifts the positions of affected items
+      currentStateList.insertRange(positionStart, itemCount);
+      for (int i = positionStart; i < positionStart + itemCount; i++) {
+        setStateForPosition(adapter.models, i, currentStateList);
       }
     }
 
@@ -90,20 +171,13 @@ class DiffHelper {
         return;
       }
 
-      notifiedOfStructuralChanges = true;
-
-      List<ModelState> modelsToRemove =
-          currentStateList.subList(positionStart, positionStart + itemCount);
-      for (ModelState model : modelsToRemove) {
-        currentStateMap.remove(model.id);
+      assertNotAsync();
+      if (!modelListObserver.consumeRemoval(positionStart, itemCount)) {
+        notifiedOfStructuralChanges = true;
       }
-      modelsToRemove.clear();
 
-      // Update positions of affected items
-      int size = currentStateList.size();
-      for (int i = positionStart; i < size; i++) {
-        currentStateList.get(i).position -= itemCount;
-      }
+      // Shifts the positions of affected items
+      currentStateList.removeRange(positionStart, itemCount);
     }
 
     @Override
@@ -113,92 +187,332 @@ class DiffHelper {
         return;
       }
 
-      if (itemCount != 1) {
-        throw new IllegalArgumentException("Moving more than 1 item at a time is not "
-            + "supported. Number of items moved: " + itemCount);
+      if (itemCount == 0) {
+        // no-op
+        return;
       }
 
-      notifiedOfStructuralChanges = true;
+      assertNotAsync();
+      if (!modelListObserver.consumeMove(fromPosition, toPosition, itemCount)) {
+        notifiedOfStructuralChanges = true;
+      }
 
-      ModelState model = currentStateList.remove(fromPosition);
-      model.position = toPosition;
-      currentStateList.add(toPosition, model);
+      // Shifts the positions of affected items
+      currentStateList.moveRange(fromPosition, toPosition, itemCount);
+    }
+  };
 
-      if (fromPosition < toPosition) {
-        // shift the affected items left
-        for (int i = fromPosition; i < toPosition; i++) {
-          currentStateList.get(i).position--;
-        }
-      } else {
-        // shift the affected items right
-        for (int i = toPosition + 1; i <= fromPosition; i++) {
-          currentStateList.get(i).position++;
-        }
+  /**
+   * Records that the model changed, so that it is notified as changed with the given payload after
+   * the next diff. The model may have changed in a way its hash code doesn't reflect, so this
+   * doesn't rely on the diff to find the change.
+   */
+  void recordChange(EpoxyModel<?> model, @Nullable Object payload) {
+    model.markModified();
+    recordedChangeModels.add(model);
+    recordedChangePayloads.add(payload);
+  }
+
+  /**
+   * Notifies each recorded change of a model that is still in the given models, which must be the
+   * models the adapter now shows.
+   */
+  private void notifyRecordedChanges(List<EpoxyModel<?>> changedModels, List<Object> payloads,
+      ModelList models) {
+    for (int i = 0; i < changedModels.size(); i++) {
+      int position = models.indexOfModel(changedModels.get(i));
+      if (position != -1) {
+        adapter.notifyItemChanged(position, payloads.get(i));
       }
     }
-  };
+  }
+
+  /**
+   * With async diffing the adapter only reflects a model list once its diff has been dispatched, so
+   * changes notified outside of the differ can't be reconciled with the diff that may be running.
+   */
+  private void assertNotAsync() {
+    if (diffExecutor != null) {
+      throw new UnsupportedOperationException("Async diffing is enabled. You should use "
+          + "notifyModelsChanged instead of notifying item changes directly");
+    }
+  }
 
   /**
    * Set the current list of models. The diff callbacks will be notified of the changes between the
    * current list and the last list that was set.
    */
   void notifyModelChanges() {
-    UpdateOpHelper updateOpHelper = new UpdateOpHelper();
+    if (diffExecutor != null) {
+      notifyModelChangesAsync();
+      return;
+    }
 
+    // Results are only collected if somebody is listening, so that diffs aren't slowed down
+    // otherwise
+    DiffResult diffResult = diffListener != null ? new DiffResult() : null;
+    long startNanos = diffResult != null ? System.nanoTime() : 0;
+
+    @DiffResult.Path int path;
     if (modelListObserver.hasNoChanges()) {
+      path = DiffResult.PATH_HASHES_ONLY;
       updateHashes(updateOpHelper);
-    } else if (!notifiedOfStructuralChanges
-        && (modelListObserver.hasOnlyInsertions() || modelListObserver.hasOnlyRemovals())) {
-      // If the list only had insertions OR removals then nothing could have moved, and the observer
-      // has an accurate record of the removals/insertions. We can use it to update the state list,
-      // and then just need to check for item updates. If the user already notified some of these
-      // changes then we don't know what is left to notify and don't want to duplicate the notify
-      // calls so we do a full diff instead.
-
-      // We don't suspend our own observer for this because they will update the models list
-      // for us to reflect the insertions or removals
-      notifyChanges(modelListObserver);
+      if (diffResult != null) {
+        diffResult.recordStage(DiffResult.STAGE_CHANGES, startNanos);
+      }
+    } else if (!notifiedOfStructuralChanges && findPreviousIndices()) {
+      // The observer has an accurate record of the removals/insertions, and no model was taken out
+      // and put back in, so nothing moved. We can use the record to update the state list, and then
+      // just need to check for item updates. Changes the user already notified were taken out of
+      // the record, unless they didn't match it, in which case we don't know what is left to
+      // notify and don't want to duplicate the notify calls so we do a full diff instead.
+      path = modelListObserver.hasOnlyInsertions() || modelListObserver.hasOnlyRemovals()
+          ? DiffResult.PATH_RECORDED_CHANGES : DiffResult.PATH_RECORDED_INSERTIONS_AND_REMOVALS;
+      long recordStartNanos = startNanos;
+      if (diffResult != null) {
+        diffResult.countOperations(modelListObserver);
+        recordStartNanos = diffResult.recordStage(DiffResult.STAGE_PREPARE_STATE, startNanos);
+      }
+
+      applyRecordedChanges();
+      long hashesStartNanos = recordStartNanos;
+      if (diffResult != null) {
+        int stage = modelListObserver.hasInsertions()
+            ? DiffResult.STAGE_INSERTIONS : DiffResult.STAGE_REMOVALS;
+        hashesStartNanos = diffResult.recordStage(stage, recordStartNanos);
+      }
+
       updateHashes(updateOpHelper);
+      if (diffResult != null) {
+        diffResult.recordStage(DiffResult.STAGE_CHANGES, hashesStartNanos);
+      }
     } else {
       // We need to run a full diff to figure out what changed
-      buildDiff(updateOpHelper);
+      path = DiffResult.PATH_FULL_DIFF;
+      buildDiff(updateOpHelper, diffResult);
+    }
+
+    pathCounts[path]++;
+    if (diffResult != null) {
+      diffResult.path = path;
+      diffResult.countOperations(updateOpHelper);
     }
 
     // Send out the proper notify calls for the diff. We remove our
     // observer first so that we don't react to our own notify calls
     adapter.unregisterAdapterDataObserver(observer);
     notifyChanges(updateOpHelper);
+    notifyRecordedChanges(recordedChangeModels, recordedChangePayloads, (ModelList) adapter.models);
     adapter.registerAdapterDataObserver(observer);
 
+    recordedChangeModels.clear();
+    recordedChangePayloads.clear();
+    updateOpHelper.reset();
     modelListObserver.reset();
     notifiedOfStructuralChanges = false;
+
+    if (diffResult != null) {
+      dispatchDiffResult(diffResult, startNanos);
+    }
+  }
+
+  private void dispatchDiffResult(DiffResult diffResult, long startNanos) {
+    diffResult.modelCount = currentStateList.size;
+    diffResult.totalNanos = System.nanoTime() - startNanos;
+    // The listener may have been removed while an async diff was running
+    if (diffListener != null) {
+      diffListener.onDiffCompleted(diffResult);
+    }
+  }
+
+  /**
+   * Diffs the current models on {@link #diffExecutor}. Models are mutable and may be changed on the
+   * main thread while the diff runs, so their ids and hashes are captured here and the background
+   * thread only works with those snapshots. The exception is models that {@link
+   * EpoxyModel#diffsByContent()}, which are compared with the models they replace on the background
+   * thread, so they must be left unchanged until the diff is dispatched. The adapter keeps showing
+   * the previous models until the result is dispatched on the main thread, and if another diff was
+   * started in the meantime this result is stale and is dropped instead.
+   */
+  private void notifyModelChangesAsync() {
+    final int generation = ++asyncDiffGeneration;
+    final DiffResult diffResult = diffListener != null ? new DiffResult() : null;
+    final long startNanos = diffResult != null ? System.nanoTime() : 0;
+    pathCounts[DiffResult.PATH_FULL_DIFF]++;
+
+    final ModelList newModels = new ModelList(adapter.models);
+    // Recorded changes are kept until a diff is dispatched, in case this diff becomes stale
+    final List<EpoxyModel<?>> changedModels = new ArrayList<>(recordedChangeModels);
+    final List<Object> changePayloads = new ArrayList<>(recordedChangePayloads);
+    final ModelStateList oldStates = currentStateList.copy();
+    final ModelStateList newStates = new ModelStateList(newModels.size());
+    buildStates(newModels, newStates);
+    if (diffResult != null) {
+      diffResult.path = DiffResult.PATH_FULL_DIFF;
+      diffResult.recordStage(DiffResult.STAGE_PREPARE_STATE, startNanos);
+    }
+    // The move collector's arrays can't be shared by diffs running at the same time
+    final MinimalMoveCollector moveCollector =
+        minimalMoveCollector != null ? new MinimalMoveCollector() : null;
+
+    // Every async diff is a full diff, so the record of list changes isn't needed
+    modelListObserver.reset();
+
+    diffExecutor.execute(new Runnable() {
+      @Override
+      public void run() {
+        if (generation != asyncDiffGeneration) {
+          return;
+        }
+
+        final UpdateOpHelper updateOpHelper = new UpdateOpHelper();
+        ModelStateDiffer.computeDiff(oldStates, newStates, updateOpHelper, moveCollector,
+            diffResult, MODEL_COMPARATOR);
+
+        mainThreadHandler.post(new Runnable() {
+          @Override
+          public void run() {
+            dispatchAsyncDiff(generation, newModels, newStates, updateOpHelper, changedModels,
+                changePayloads, diffResult, startNanos);
+          }
+        });
+      }
+    });
+  }
+
+  private void dispatchAsyncDiff(int generation, ModelList newModels, ModelStateList newStates,
+      UpdateOpHelper updateOpHelper, List<EpoxyModel<?>> changedModels, List<Object> changePayloads,
+      @Nullable DiffResult diffResult, long startNanos) {
+    if (generation != asyncDiffGeneration) {
+      // A newer diff was started while this one was running
+      return;
+    }
+
+    currentStateList = newStates;
+    adapter.setDisplayedModels(newModels);
+
+    adapter.unregisterAdapterDataObserver(observer);
+    notifyChanges(updateOpHelper);
+    notifyRecordedChanges(changedModels, changePayloads, newModels);
+    adapter.registerAdapterDataObserver(observer);
+
+    // Changes are only ever appended, so the ones this diff notified are still at the start
+    recordedChangeModels.subList(0, changedModels.size()).clear();
+    recordedChangePayloads.subList(0, changePayloads.size()).clear();
+
+    if (diffResult != null) {
+      diffResult.countOperations(updateOpHelper);
+      dispatchDiffResult(diffResult, startNanos);
+    }
+  }
+
+  /**
+   * Replays the insertions and removals recorded by {@link #modelListObserver} to find where each
+   * model in the models list was before them, filling in {@link #previousIndices}.
+   *
+   * @return False if an inserted model has the id of a model that was in the list at the last diff.
+   * That model was either moved or replaced with a model of the same id, which must be notified as
+   * a move or a change, so a full diff is needed.
+   */
+  private boolean findPreviousIndices() {
+    int size = currentStateList.size;
+    int capacity = size + modelListObserver.getNumInsertions();
+    if (previousIndices.length < capacity) {
+      previousIndices = new int[capacity];
+    }
+    for (int i = 0; i < size; i++) {
+      previousIndices[i] = i;
+    }
+
+    List<UpdateOp> opList = modelListObserver.opList;
+    for (int i = 0; i < opList.size(); i++) {
+      UpdateOp op = opList.get(i);
+      int start = op.positionStart;
+      int count = op.itemCount;
+      if (op.type == UpdateOp.ADD) {
+        System.arraycopy(previousIndices, start, previousIndices, start + count, size - start);
+        Arrays.fill(previousIndices, start, start + count, NO_INDEX);
+        size += count;
+      } else {
+        System.arraycopy(previousIndices, start + count, previousIndices, start,
+            size - start - count);
+        size -= count;
+      }
+    }
+
+    if (size != adapter.models.size()) {
+      throw new IllegalStateException("State list does not match current models");
+    }
+
+    for (int i = 0; i < size; i++) {
+      if (previousIndices[i] == NO_INDEX
+          && currentStateList.indexOf(adapter.models.get(i).id()) != NO_INDEX) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Notifies the recorded insertions and removals in the order they were made, and builds the new
+   * state list in a single pass. The remaining models keep their previous state, so that {@link
+   * #updateHashes(UpdateOpHelper)} can find which of them changed.
+   */
+  private void applyRecordedChanges() {
+    adapter.unregisterAdapterDataObserver(observer);
+    notifyChanges(modelListObserver);
+    adapter.registerAdapterDataObserver(observer);
+
+    // The old list is spare until the next full diff, so the new states are built there
+    ModelStateList previousStateList = currentStateList;
+    currentStateList = oldStateList;
+    oldStateList = previousStateList;
+
+    int modelCount = adapter.models.size();
+    currentStateList.clear();
+    currentStateList.insertRange(0, modelCount);
+    for (int i = 0; i < modelCount; i++) {
+      int previousIndex = previousIndices[i];
+      if (previousIndex == NO_INDEX) {
+        setStateForPosition(adapter.models, i, currentStateList);
+      } else {
+        currentStateList.set(i, previousStateList.ids[previousIndex],
+            previousStateList.hashCodes[previousIndex], previousStateList.items[previousIndex]);
+      }
+    }
   }
 
   /**
    * This updates our state list with the current model hashes and collects any update
-   * notifications. Used only when the state list is already up to date with the adapter models.
+   * notifications. Used only when the state list is already up to date with the adapter models,
+   * although a model may have been replaced by another model with the same id.
    */
   private void updateHashes(UpdateOpHelper updateOpHelper) {
     int modelCount = adapter.models.size();
 
-    if (modelCount != currentStateList.size()) {
+    if (modelCount != currentStateList.size) {
       throw new IllegalStateException("State list does not match current models");
     }
 
     for (int i = 0; i < modelCount; i++) {
       EpoxyModel<?> model = adapter.models.get(i);
-      ModelState state = currentStateList.get(i);
-      int newHash = model.hashCode();
+      int newHash = model.hashCodeForDiff();
 
-      if (state.hashCode != newHash) {
+      EpoxyModel<?> previousModel = (EpoxyModel<?>) currentStateList.items[i];
+      if (model.changedSince(previousModel, currentStateList.hashCodes[i], newHash)) {
         updateOpHelper.update(i);
-        state.hashCode = newHash;
       }
+      currentStateList.hashCodes[i] = newHash;
+      currentStateList.items[i] = model;
     }
   }
 
   private void notifyChanges(UpdateOpHelper opHelper) {
-    for (UpdateOp op : opHelper.opList) {
+    List<UpdateOp> opList = opHelper.opList;
+    // Iterate by index to avoid allocating an iterator
+    for (int i = 0; i < opList.size(); i++) {
+      UpdateOp op = opList.get(i);
       switch (op.type) {
         case UpdateOp.ADD:
           adapter.notifyItemRangeInserted(op.positionStart, op.itemCount);
@@ -210,7 +524,11 @@ class DiffHelper {
           adapter.notifyItemRangeRemoved(op.positionStart, op.itemCount);
           break;
         case UpdateOp.UPDATE:
-          adapter.notifyItemRangeChanged(op.positionStart, op.itemCount);
+          if (diffPayloadsEnabled) {
+            adapter.notifyItemRangeChanged(op.positionStart, op.itemCount, DiffPayload.INSTANCE);
+          } else {
+            adapter.notifyItemRangeChanged(op.positionStart, op.itemCount);
+          }
           break;
         default:
           throw new IllegalArgumentException("Unknown type: " + op.type);
@@ -222,262 +540,53 @@ class DiffHelper {
    * Create a list of operations that define the difference between {@link #oldStateList} and {@link
    * #currentStateList}.
    */
-  private UpdateOpHelper buildDiff(UpdateOpHelper updateOpHelper) {
+  private UpdateOpHelper buildDiff(UpdateOpHelper updateOpHelper,
+      @Nullable DiffResult diffResult) {
+    long startNanos = diffResult != null ? System.nanoTime() : 0;
     prepareStateForDiff();
-
-    // The general approach is to first search for removals, then additions, and lastly changes.
-    // Focusing on one type of operation at a time makes it easy to coalesce batch changes.
-    // When we identify an operation and add it to the
-    // result list we update the positions of items in the oldStateList to reflect
-    // the change, this way subsequent operations will use the correct, updated positions.
-    collectRemovals(updateOpHelper);
-
-    // Only need to check for insertions if new list is bigger
-    boolean hasInsertions =
-        oldStateList.size() - updateOpHelper.getNumRemovals() != currentStateList.size();
-    if (hasInsertions) {
-      collectInsertions(updateOpHelper);
+    if (diffResult != null) {
+      diffResult.recordStage(DiffResult.STAGE_PREPARE_STATE, startNanos);
     }
 
-    collectMoves(updateOpHelper);
-    collectChanges(updateOpHelper);
-
-    return updateOpHelper;
+    return ModelStateDiffer.computeDiff(oldStateList, currentStateList, updateOpHelper,
+        minimalMoveCollector, diffResult, MODEL_COMPARATOR);
   }
 
   private void prepareStateForDiff() {
-    // We use a list of the models as well as a map by their id,
-    // so we can easily find them by both position and id
-
-    oldStateList.clear();
-    oldStateMap.clear();
-
     // Swap the two lists so that we have a copy of the current state to calculate the next diff
-    ArrayList<ModelState> tempList = oldStateList;
+    ModelStateList tempList = oldStateList;
     oldStateList = currentStateList;
     currentStateList = tempList;
 
-    Map<Long, ModelState> tempMap = oldStateMap;
-    oldStateMap = currentStateMap;
-    currentStateMap = tempMap;
-
     // Remove all pairings in the old states so we can tell which of them were removed. The items
     // that still exist in the new list will be paired when we build the current list state below
-    for (ModelState modelState : oldStateList) {
-      modelState.pair = null;
-    }
+    oldStateList.resetPairs();
 
-    int modelCount = adapter.models.size();
-    currentStateList.ensureCapacity(modelCount);
+    currentStateList.clear();
+    buildStates(adapter.models, currentStateList);
+  }
+
+  /** Fills the given empty state list with the state of each model. */
+  private static void buildStates(List<EpoxyModel<?>> models, ModelStateList states) {
+    int modelCount = models.size();
+    states.insertRange(0, modelCount);
 
     for (int i = 0; i < modelCount; i++) {
-      currentStateList.add(createStateForPosition(i));
+      setStateForPosition(models, i, states);
     }
   }
 
-  private ModelState createStateForPosition(int position) {
-    EpoxyModel<?> model = adapter.models.get(position);
+  private static void setStateForPosition(List<EpoxyModel<?>> models, int position,
+      ModelStateList states) {
+    EpoxyModel<?> model = models.get(position);
     model.addedToAdapter = true;
-    ModelState state = ModelState.build(model, position);
 
-    ModelState previousValue = currentStateMap.put(state.id, state);
-    if (previousValue != null) {
-      int previousPosition = previousValue.position;
-      EpoxyModel<?> previousModel = adapter.models.get(previousPosition);
+    int previousPosition = states.set(position, model.id(), model.hashCodeForDiff(), model);
+    if (previousPosition != NO_INDEX) {
+      EpoxyModel<?> previousModel = models.get(previousPosition);
       throw new IllegalStateException("Two models have the same ID. ID's must be unique!"
           + " Model at position " + position + ": " + model
           + " Model at position " + previousPosition + ": " + previousModel);
     }
-
-    return state;
-  }
-
-  /**
-   * Find all removal operations and add them to the result list. The general strategy here is to
-   * walk through the {@link #oldStateList} and check for items that don't exist in the new list.
-   * Walking through it in order makes it easy to batch adjacent removals.
-   */
-  private void collectRemovals(UpdateOpHelper helper) {
-    for (ModelState state : oldStateList) {
-      // Update the position of the item to take into account previous removals,
-      // so that future operations will reference the correct position
-      state.position -= helper.getNumRemovals();
-
-      // This is our first time going through the list, so we
-      // look up the item with the matching id in the new
-      // list and hold a reference to it so that we can access it quickly in the future
-      state.pair = currentStateMap.get(state.id);
-      if (state.pair != null) {
-        state.pair.pair = state;
-        continue;
-      }
-
-      helper.remove(state.position);
-    }
-  }
-
-  /**
-   * Find all insertion operations and add them to the result list. The general strategy here is to
-   * walk through the {@link #currentStateList} and check for items that don't exist in the old
-   * list. Walking through it in order makes it easy to batch adjacent insertions.
-   */
-  private void collectInsertions(UpdateOpHelper helper) {
-    Iterator<ModelState> oldItemIterator = oldStateList.iterator();
-
-    for (ModelState itemToInsert : currentStateList) {
-      if (itemToInsert.pair != null) {
-        // Update the position of the next item in the old list to take any insertions into account
-        ModelState nextOldItem = getNextItemWithPair(oldItemIterator);
-        if (nextOldItem != null) {
-          nextOldItem.position += helper.getNumInsertions();
-        }
-        continue;
-      }
-
-      helper.add(itemToInsert.position);
-    }
-  }
-
-  /**
-   * Check if any items have had their values changed, batching if possible.
-   */
-  private void collectChanges(UpdateOpHelper helper) {
-    for (ModelState newItem : currentStateList) {
-      if (newItem.pair == null) {
-        continue;
-      }
-
-      if (newItem.pair.hashCode != newItem.hashCode) {
-        helper.update(newItem.position);
-      }
-    }
-  }
-
-  /**
-   * Check which items have had a position changed. Recyclerview does not support batching these.
-   */
-  private void collectMoves(UpdateOpHelper helper) {
-    // This walks through both the new and old list simultaneous and checks for position changes.
-    Iterator<ModelState> oldItemIterator = oldStateList.iterator();
-    ModelState nextOldItem = null;
-
-    for (ModelState newItem : currentStateList) {
-      if (newItem.pair == null) {
-        // This item was inserted. However, insertions are done at the item's final position, and
-        // aren't smart about inserting at a different position to take future moves into account.
-        // As the old state list is updated to reflect moves, it needs to also consider insertions
-        // affected by those moves in order for the final change set to be correct
-        if (helper.moves.isEmpty()) {
-          // There have been no moves, so the item is still at it's correct position
-          continue;
-        } else {
-          // There have been moves, so the old list needs to take this inserted item
-          // into account. The old list doesn't have this item inserted into it
-          // (for optimization purposes), but we can create a pair for this item to
-          // track its position in the old list and move it back to its final position if necessary
-          newItem.pairWithSelf();
-        }
-      }
-
-      // We could iterate through only the new list and move each
-      // item that is out of place, however in cases such as moving the first item
-      // to the end, that strategy would do many moves to move all
-      // items up one instead of doing one move to move the first item to the end.
-      // To avoid this we compare the old item to the new item at
-      // each index and move the one that is farthest from its correct position.
-      // We only move on from a new item once its pair is placed in
-      // the correct spot. Since we move from start to end, all new items we've
-      // already iterated through are guaranteed to have their pair
-      // be already in the right spot, which won't be affected by future MOVEs.
-      if (nextOldItem == null) {
-        nextOldItem = getNextItemWithPair(oldItemIterator);
-
-        // We've already iterated through all old items and moved each
-        // item once. However, subsequent moves may have shifted an item out of
-        // its correct space once it was already moved. We finish
-        // iterating through all the new items to ensure everything is still correct
-        if (nextOldItem == null) {
-          nextOldItem = newItem.pair;
-        }
-      }
-
-      while (nextOldItem != null) {
-        // Make sure the positions are updated to the latest
-        // move operations before we calculate the next move
-        updateItemPosition(newItem.pair, helper.moves);
-        updateItemPosition(nextOldItem, helper.moves);
-
-        // The item is the same and its already in the correct place
-        if (newItem.id == nextOldItem.id && newItem.position == nextOldItem.position) {
-          nextOldItem = null;
-          break;
-        }
-
-        int newItemDistance = newItem.pair.position - newItem.position;
-        int oldItemDistance = nextOldItem.pair.position - nextOldItem.position;
-
-        // Both items are already in the correct position
-        if (newItemDistance == 0 && oldItemDistance == 0) {
-          nextOldItem = null;
-          break;
-        }
-
-        if (oldItemDistance > newItemDistance) {
-          helper.move(nextOldItem.position, nextOldItem.pair.position);
-
-          nextOldItem.position = nextOldItem.pair.position;
-          nextOldItem.lastMoveOp = helper.getNumMoves();
-
-          nextOldItem = getNextItemWithPair(oldItemIterator);
-        } else {
-          helper.move(newItem.pair.position, newItem.position);
-
-          newItem.pair.position = newItem.position;
-          newItem.pair.lastMoveOp = helper.getNumMoves();
-          break;
-        }
-      }
-    }
-  }
-
-  /**
-   * Apply the movement operations to the given item to update its position. Only applies the
-   * operations that have not been applied yet, and stores how many operations have been applied so
-   * we know which ones to apply next time.
-   */
-  private void updateItemPosition(ModelState item, List<UpdateOp> moveOps) {
-    int size = moveOps.size();
-
-    for (int i = item.lastMoveOp; i < size; i++) {
-      UpdateOp moveOp = moveOps.get(i);
-      int fromPosition = moveOp.positionStart;
-      int toPosition = moveOp.itemCount;
-
-      if (item.position > fromPosition && item.position <= toPosition) {
-        item.position--;
-      } else if (item.position < fromPosition && item.position >= toPosition) {
-        item.position++;
-      }
-    }
-
-    item.lastMoveOp = size;
-  }
-
-  /**
-   * Gets the next item in the list that has a pair, meaning it wasn't inserted or removed.
-   */
-  @Nullable
-  private ModelState getNextItemWithPair(Iterator<ModelState> iterator) {
-    ModelState nextItem = null;
-    while (nextItem == null && iterator.hasNext()) {
-      nextItem = iterator.next();
-
-      if (nextItem.pair == null) {
-        // Skip this one and go on to the next
-        nextItem = null;
-      }
-    }
-
-    return nextItem;
   }
 }
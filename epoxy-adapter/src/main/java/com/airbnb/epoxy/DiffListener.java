@@ -0,0 +1,12 @@
+package com.airbnb.epoxy;
+
+/**
+ * Receives a {@link DiffResult} for each diff run by {@link EpoxyAdapter#notifyModelsChanged()},
+ * such as to log slow diffs or feed them into a metrics pipeline. This is called on the main thread
+ * after the diff's changes have been notified.
+ *
+ * @see EpoxyAdapter#setDiffListener(DiffListener)
+ */
+public interface DiffListener {
+  void onDiffCompleted(DiffResult result);
+}
@@ -0,0 +1,19 @@
+package com.airbnb.epoxy;
+
+/**
+ * The payload notified by {@link DiffHelper} for changed items when diff payloads are enabled. It
+ * tells {@link EpoxyViewHolder} that the holder is being rebound after a diff, so the new model can
+ * be compared to the previously bound one to find which attributes changed. It never reaches the
+ * model itself; it is replaced by an {@link AttributeChanges} or removed before binding.
+ */
+final class DiffPayload {
+  static final DiffPayload INSTANCE = new DiffPayload();
+
+  private DiffPayload() {
+  }
+
+  @Override
+  public String toString() {
+    return "DiffPayload";
+  }
+}
@@ -0,0 +1,160 @@
+package com.airbnb.epoxy;
+
+import android.support.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Describes how a single call to {@link EpoxyAdapter#notifyModelsChanged()} was handled: which path
+ * the differ took, how long each stage of the diff took, and how many item change operations were
+ * notified. A new instance is created for each diff, and only if a {@link DiffListener} is set.
+ */
+public final class DiffResult {
+  @IntDef({
+      PATH_HASHES_ONLY, PATH_RECORDED_CHANGES, PATH_FULL_DIFF,
+      PATH_RECORDED_INSERTIONS_AND_REMOVALS
+  })
+  @Retention(RetentionPolicy.SOURCE)
+  public @interface Path {
+  }
+
+  /**
+   * No models were added to or removed from the models list, so only the hash codes of the models
+   * were compared to find changed items.
+   */
+  public static final int PATH_HASHES_ONLY = 0;
+  /**
+   * Models were only added to, or only removed from, the models list, so the changes recorded by
+   * the list were notified directly and then the hash codes were compared to find changed items.
+   */
+  public static final int PATH_RECORDED_CHANGES = 1;
+  /** The old and new models were fully diffed to find removals, insertions, moves and changes. */
+  public static final int PATH_FULL_DIFF = 2;
+  /**
+   * Models were both added to and removed from the models list, but none of the added models was
+   * in the list before, so nothing moved. The changes recorded by the list were notified directly
+   * in the order they were made, and then the hash codes were compared to find changed items.
+   */
+  public static final int PATH_RECORDED_INSERTIONS_AND_REMOVALS = 3;
+  static final int PATH_COUNT = 4;
+
+  static final int STAGE_PREPARE_STATE = 0;
+  static final int STAGE_REMOVALS = 1;
+  static final int STAGE_INSERTIONS = 2;
+  static final int STAGE_MOVES = 3;
+  static final int STAGE_CHANGES = 4;
+  private static final int STAGE_COUNT = 5;
+
+  @Path int path;
+  int modelCount;
+  final long[] stageNanos = new long[STAGE_COUNT];
+  long totalNanos;
+  int insertionOperationCount;
+  int removalOperationCount;
+  int moveOperationCount;
+  int updateOperationCount;
+
+  DiffResult() {
+  }
+
+  /**
+   * Adds the time since the given start time to the given stage.
+   *
+   * @return The current time, to be used as the start of the next stage.
+   */
+  long recordStage(int stage, long startNanos) {
+    long now = System.nanoTime();
+    stageNanos[stage] += now - startNanos;
+    return now;
+  }
+
+  /** Counts the operations collected by the given helper, which are about to be notified. */
+  void countOperations(UpdateOpHelper updateOpHelper) {
+    insertionOperationCount += updateOpHelper.getNumInsertionBatches();
+    removalOperationCount += updateOpHelper.getNumRemovalBatches();
+    moveOperationCount += updateOpHelper.getNumMoves();
+    updateOperationCount += updateOpHelper.getNumUpdateBatches();
+  }
+
+  @Path
+  public int getPath() {
+    return path;
+  }
+
+  /** The number of models in the adapter after the diff. */
+  public int getModelCount() {
+    return modelCount;
+  }
+
+  /** Time spent capturing the id and hash code of each model before diffing them. */
+  public long getPrepareStateNanos() {
+    return stageNanos[STAGE_PREPARE_STATE];
+  }
+
+  /** Time spent finding removed items. */
+  public long getRemovalsNanos() {
+    return stageNanos[STAGE_REMOVALS];
+  }
+
+  /** Time spent finding inserted items. */
+  public long getInsertionsNanos() {
+    return stageNanos[STAGE_INSERTIONS];
+  }
+
+  /** Time spent finding moved items. */
+  public long getMovesNanos() {
+    return stageNanos[STAGE_MOVES];
+  }
+
+  /** Time spent finding changed items, including computing model hash codes when needed. */
+  public long getChangesNanos() {
+    return stageNanos[STAGE_CHANGES];
+  }
+
+  /**
+   * The time from the start of the diff until all of its changes were notified to the adapter. For
+   * async diffs this includes the time waiting for the diff executor and the main thread.
+   */
+  public long getTotalNanos() {
+    return totalNanos;
+  }
+
+  /** The number of item range insertions notified. */
+  public int getInsertionOperationCount() {
+    return insertionOperationCount;
+  }
+
+  /** The number of item range removals notified. */
+  public int getRemovalOperationCount() {
+    return removalOperationCount;
+  }
+
+  /** The number of item moves notified. */
+  public int getMoveOperationCount() {
+    return moveOperationCount;
+  }
+
+  /** The number of item range changes notified. */
+  public int getUpdateOperationCount() {
+    return updateOperationCount;
+  }
+
+  @Override
+  public String toString() {
+    return "DiffResult{"
+        + "path=" + path
+        + ", modelCount=" + modelCount
+        + ", prepareStateNanos=" + getPrepareStateNanos()
+        + ", removalsNanos=" + getRemovalsNanos()
+        + ", insertionsNanos=" + getInsertionsNanos()
+        + ", movesNanos=" + getMovesNanos()
+        + ", changesNanos=" + getChangesNanos()
+        + ", totalNanos=" + totalNanos
+        + ", insertionOperationCount=" + insertionOperationCount
+        + ", removalOperationCount=" + removalOperationCount
+        + ", moveOperationCount=" + moveOperationCount
+        + ", updateOperationCount=" + updateOperationCount
+        + '}';
+  }
+}
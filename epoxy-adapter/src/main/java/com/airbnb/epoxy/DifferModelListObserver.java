@@ -8,9 +8,10 @@ import com.airbnb.epoxy.ModelList.ModelListObserver;
  * computations when not necessary and allowing us to take some shortcuts.
  * <p>
  * This isn't a silver bullet, as users could clear the list and add back the same objects resulting
- * in no net change, but this would record a batch removal and batch insert. Thus when we record
- * both removals and insertions we still need to run a full diff. However, if the list doesn't
- * change, or only changes due to insertions or removals, we can skip doing a full diff.
+ * in no net change, but this would record a batch removal and batch insert. Thus when an inserted
+ * model was already in the list we still need to run a full diff to find the moves. However, if the
+ * list doesn't change, or only changes due to insertions of new models and removals, we can skip
+ * doing a full diff.
  */
 class DifferModelListObserver extends UpdateOpHelper implements ModelListObserver {
 
@@ -24,6 +25,64 @@ class DifferModelListObserver extends UpdateOpHelper implements ModelListObserve
     remove(positionStart, itemCount);
   }
 
+  /**
+   * Called when the adapter was notified of an insertion outside of the differ. If that insertion
+   * is the only change recorded then it was already notified, and it is removed from the record. If
+   * nothing is recorded, such as when the adapter paused the record while changing the models
+   * itself, then the record is still accurate for the changes that come after it.
+   *
+   * @return True if the record is still accurate, false if it can no longer be trusted.
+   */
+  boolean consumeInsertion(int positionStart, int itemCount) {
+    return consumeOnlyOp(UpdateOp.ADD, positionStart, itemCount);
+  }
+
+  /** Like {@link #consumeInsertion(int, int)}, for a removal notified outside of the differ. */
+  boolean consumeRemoval(int positionStart, int itemCount) {
+    return consumeOnlyOp(UpdateOp.REMOVE, positionStart, itemCount);
+  }
+
+  /**
+   * Like {@link #consumeInsertion(int, int)}, for a move notified outside of the differ. The models
+   * list doesn't have moves, so a move is recorded as the removal of the items followed by their
+   * insertion at the new position.
+   */
+  boolean consumeMove(int fromPosition, int toPosition, int itemCount) {
+    if (opList.isEmpty()) {
+      return true;
+    }
+
+    if (opList.size() != 2
+        || !opMatches(opList.get(0), UpdateOp.REMOVE, fromPosition, itemCount)
+        || !opMatches(opList.get(1), UpdateOp.ADD, toPosition, itemCount)) {
+      return false;
+    }
+
+    removeLastOp();
+    removeLastOp();
+    return true;
+  }
+
+  private boolean consumeOnlyOp(@UpdateOp.Type int type, int positionStart, int itemCount) {
+    // Notified positions are relative to the list the adapter last knew about, so they only line
+    // up with the record if nothing else changed since then
+    if (opList.isEmpty()) {
+      return true;
+    }
+
+    if (opList.size() != 1 || !opMatches(opList.get(0), type, positionStart, itemCount)) {
+      return false;
+    }
+
+    removeLastOp();
+    return true;
+  }
+
+  private static boolean opMatches(UpdateOp op, @UpdateOp.Type int type, int positionStart,
+      int itemCount) {
+    return op.type == type && op.positionStart == positionStart && op.itemCount == itemCount;
+  }
+
   boolean hasNoChanges() {
     return !hasInsertions() && !hasRemovals();
   }
@@ -12,6 +12,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Allows you to easily combine different view types in the same adapter, and handles view holder
@@ -31,6 +32,12 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
    * are responsible for notifying data changes whenever this list is changed.
    */
   protected final List<EpoxyModel<?>> models = new ModelList();
+  /**
+   * The models that the RecyclerView is currently showing. This is the same list as {@link
+   * #models}, except when async diffing is enabled. In that case it is a snapshot of the models
+   * that is only replaced once the diff for a newer snapshot has been dispatched.
+   */
+  private List<EpoxyModel<?>> displayedModels = models;
   private int spanCount = 1;
   private final HiddenEpoxyModel hiddenModel = new HiddenEpoxyModel();
   /**
@@ -39,7 +46,40 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
    */
   private final BoundViewHolders boundViewHolders = new BoundViewHolders();
   private ViewHolderState viewHolderState = new ViewHolderState();
+  /**
+   * Tells the model with the id of a dropped view state. Only the displayed models are looked up,
+   * so a model that was removed since its state was saved isn't told.
+   */
+  private final ViewHolderState.OnStateDroppedListener viewStateDroppedListener =
+      new ViewHolderState.OnStateDroppedListener() {
+        @Override
+        public void onStateDropped(long id) {
+          EpoxyModel<?> model = getDisplayedModelById(id);
+          if (model != null) {
+            model.onSavedViewStateDropped();
+          }
+        }
+      };
+  private int maxSavedViewStates = Integer.MAX_VALUE;
+  private int maxSavedViewStateBytes;
+  private boolean compactSavedViewStateEnabled;
   private DiffHelper diffHelper;
+  /** True between {@link #beginTransaction()} and {@link #commitTransaction()}. */
+  private boolean transactionInProgress;
+  /**
+   * Records the changes made in a transaction if diffing isn't enabled. It only exists for the
+   * duration of the transaction.
+   */
+  @Nullable private DiffHelper transactionDiffHelper;
+  @Nullable private BindingProfiler bindingProfiler;
+  /**
+   * The model whose view type was last looked up while profiling. RecyclerView looks up the view
+   * type of a position right before creating a view holder for it, so this tells us which model
+   * class a new view is for.
+   */
+  @Nullable private EpoxyModel<?> lastModelForViewType;
+  /** The pool of the RecyclerView this is attached to, if it sizes itself for our models. */
+  @Nullable private EpoxyRecycledViewPool sizedViewPool;
 
   private final SpanSizeLookup spanSizeLookup = new SpanSizeLookup() {
 
@@ -74,10 +114,120 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
    * @see #notifyModelsChanged()
    */
   protected void enableDiffing() {
+    assertCanEnableDiffing();
+    diffHelper = new DiffHelper(this);
+  }
+
+  /**
+   * Like {@link #enableDiffing()}, but the diff for each {@link #notifyModelsChanged()} call is
+   * computed on the given executor so that large model lists don't block the main thread. Model ids
+   * and hashes are still snapshotted on the calling thread, and the resulting item changes are
+   * always notified on the main thread.
+   * <p>
+   * The adapter continues to show the previous models until a diff completes. If {@link
+   * #notifyModelsChanged()} is called again before a diff finishes then that diff's result is
+   * discarded in favor of the newer one. Since the adapter contents lag behind {@link #models},
+   * all changes must be notified with {@link #notifyModelsChanged()}; manual notify calls,
+   * including the model helper methods such as {@link #addModel(EpoxyModel)}, are not allowed.
+   * <p>
+   * Models that {@link EpoxyModel#diffsByContent()} are compared with the models they replace on
+   * the executor. Those models, and the ones they replace, must not be changed until the diff has
+   * been dispatched.
+   *
+   * @param diffExecutor The executor to run diffs on, such as a single background thread.
+   * @see #notifyModelsChanged()
+   */
+  protected void enableAsyncDiffing(Executor diffExecutor) {
+    assertCanEnableDiffing();
+    displayedModels = new ModelList();
+    diffHelper = new DiffHelper(this, diffExecutor);
+  }
+
+  /**
+   * Sets whether item moves are found with a longest increasing subsequence when diffing. This
+   * notifies the fewest possible moves, and takes O(n log n) time no matter how many items moved.
+   * The default move detection can take quadratic time when many items move, such as when the
+   * models are shuffled, but is faster when only a few items move. Diffing must be enabled first.
+   *
+   * @see #enableDiffing()
+   */
+  protected void setMinimalMovesEnabled(boolean enabled) {
+    if (diffHelper == null) {
+      throw new IllegalStateException("You must enable diffing first");
+    }
+
+    diffHelper.setMinimalMovesEnabled(enabled);
+  }
+
+  /**
+   * Sets whether models changed in a diff are rebound with a payload. The view holder then compares
+   * the new model to the model previously bound to it with {@link
+   * EpoxyModel#getChangedAttributes(EpoxyModel)}, and passes the result to {@link
+   * EpoxyModel#bind(Object, List)} as an {@link AttributeChanges} so that only the changed views
+   * need to be updated. Models that can't determine their changes are fully bound as usual.
+   * <p>
+   * Notifying a payload also lets RecyclerView reuse the existing view holder for the change
+   * instead of running a change animation between two views. Diffing must be enabled first.
+   *
+   * @see #enableDiffing()
+   */
+  protected void setDiffPayloadsEnabled(boolean enabled) {
+    if (diffHelper == null) {
+      throw new IllegalStateException("You must enable diffing first");
+    }
+
+    diffHelper.setDiffPayloadsEnabled(enabled);
+  }
+
+  /**
+   * Sets a listener to receive a {@link DiffResult} for each {@link #notifyModelsChanged()} call,
+   * describing which path the differ took, how long each stage took, and how many item changes were
+   * notified. Results are only collected while a listener is set, so this has no cost otherwise.
+   * Diffing must be enabled first.
+   *
+   * @see #enableDiffing()
+   */
+  protected void setDiffListener(@Nullable DiffListener diffListener) {
+    if (diffHelper == null) {
+      throw new IllegalStateException("You must enable diffing first");
+    }
+
+    diffHelper.setDiffListener(diffListener);
+  }
+
+  /**
+   * Returns how many {@link #notifyModelsChanged()} calls took the given {@link DiffResult.Path}
+   * since diffing was enabled. Unlike {@link #setDiffListener(DiffListener)} this is always
+   * counted, so it can be checked at any time to see how often a full diff was needed. Diffing must
+   * be enabled first.
+   */
+  protected int getDiffPathCount(@DiffResult.Path int path) {
+    if (diffHelper == null) {
+      throw new IllegalStateException("You must enable diffing first");
+    }
+
+    return diffHelper.getPathCount(path);
+  }
+
+  /**
+   * Sets a profiler to record how long view holders take to be created, bound and unbound, and how
+   * long their view state takes to be saved and restored, grouped by model class and layout. Set
+   * this to null to stop profiling, in which case there is no overhead.
+   */
+  protected void setBindingProfiler(@Nullable BindingProfiler bindingProfiler) {
+    this.bindingProfiler = bindingProfiler;
+    lastModelForViewType = null;
+  }
+
+  private void assertCanEnableDiffing() {
     if (diffHelper != null) {
       throw new IllegalStateException("Diffing was already enabled");
     }
 
+    if (transactionInProgress) {
+      throw new IllegalStateException("Diffing can't be enabled during a transaction");
+    }
+
     if (!models.isEmpty()) {
       throw new IllegalStateException("You must enable diffing before modifying models");
     }
@@ -85,21 +235,21 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
     if (!hasStableIds()) {
       throw new IllegalStateException("You must have stable ids to use diffing");
     }
-
-    diffHelper = new DiffHelper(this);
   }
 
   /**
    * Intelligently notify item changes by comparing the current {@link #models} list against the
    * previous so you don't have to micromanage notification calls yourself. This may be
    * prohibitively slow for large model lists (in the hundreds), in which case consider doing
-   * notification calls yourself. If you use this, all your view models must implement {@link
+   * notification calls yourself, or computing diffs in the background with {@link
+   * #enableAsyncDiffing(Executor)}. If you use this, all your view models must implement {@link
    * EpoxyModel#hashCode()} to completely identify their state, so that changes to a model's content
    * can be detected. Before using this you must enable it with {@link #enableDiffing()}, since
    * keeping track of the model state adds extra computation time to all other data change
    * notifications.
    *
    * @see #enableDiffing()
+   * @see #enableAsyncDiffing(Executor)
    */
 
   protected void notifyModelsChanged() {
@@ -108,11 +258,77 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
     }
 
     diffHelper.notifyModelChanges();
+    updateViewPoolSize();
+  }
+
+  /**
+   * Starts recording changes to the models, so that they are notified all at once by {@link
+   * #commitTransaction()} instead of as they happen. Until then, the helper methods that change
+   * {@link #models}, such as {@link #addModel(EpoxyModel)}, {@link #removeModel(EpoxyModel)} and
+   * {@link #showModels(Iterable, boolean)}, don't notify the RecyclerView, and {@link #models} may
+   * also be changed directly.
+   * <p>
+   * This works whether or not diffing is enabled. Either way, model ids must be unique so that
+   * the changes can be found when the transaction is committed. The transaction should be committed
+   * before control returns to the main looper, since the RecyclerView may lay out in between and
+   * expects the adapter's items to match what was notified.
+   */
+  protected void beginTransaction() {
+    if (transactionInProgress) {
+      throw new IllegalStateException("A transaction is already in progress");
+    }
+
+    if (diffHelper == null) {
+      transactionDiffHelper = DiffHelper.forTransaction(this);
+    }
+    transactionInProgress = true;
+  }
+
+  /**
+   * Notifies all changes made to the models since {@link #beginTransaction()}. The changes are
+   * found with the differ and notified as one coalesced set of item changes. Models passed to
+   * {@link #notifyModelChanged(EpoxyModel, Object)} during the transaction are then notified as
+   * changed with their payload, even if their hash code didn't change.
+   */
+  protected void commitTransaction() {
+    if (!transactionInProgress) {
+      throw new IllegalStateException("No transaction is in progress");
+    }
+
+    transactionInProgress = false;
+    if (transactionDiffHelper != null) {
+      transactionDiffHelper.notifyModelChanges();
+      transactionDiffHelper.detach();
+      transactionDiffHelper = null;
+    } else {
+      diffHelper.notifyModelChanges();
+    }
+    updateViewPoolSize();
+  }
+
+  @CallSuper
+  @Override
+  public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+    RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+    sizedViewPool = pool instanceof EpoxyRecycledViewPool ? (EpoxyRecycledViewPool) pool : null;
+    updateViewPoolSize();
+  }
+
+  @CallSuper
+  @Override
+  public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+    sizedViewPool = null;
+  }
+
+  private void updateViewPoolSize() {
+    if (sizedViewPool != null) {
+      sizedViewPool.sizeFor(getLayoutHistogram());
+    }
   }
 
   @Override
   public int getItemCount() {
-    return models.size();
+    return displayedModels.size();
   }
 
   public boolean isEmpty() {
@@ -121,7 +337,19 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
 
   @Override
   public EpoxyViewHolder onCreateViewHolder(ViewGroup parent, int layoutRes) {
-    return new EpoxyViewHolder(parent, layoutRes);
+    if (bindingProfiler == null) {
+      return new EpoxyViewHolder(parent, layoutRes);
+    }
+
+    long startNanos = System.nanoTime();
+    EpoxyViewHolder holder = new EpoxyViewHolder(parent, layoutRes);
+    long nanos = System.nanoTime() - startNanos;
+
+    EpoxyModel<?> model = lastModelForViewType;
+    Class<?> modelClass =
+        model != null && model.getLayout() == layoutRes ? model.getClass() : null;
+    bindingProfiler.recordInflate(modelClass, layoutRes, nanos);
+    return holder;
   }
 
   @Override
@@ -137,22 +365,58 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
     // the viewholder is reused (see RecyclerView.ItemAnimator#canReuseUpdatedViewHolder)
     // but we don't rely on that to be safe and to simplify
     EpoxyViewHolder boundViewHolder = boundViewHolders.get(holder);
-    if (boundViewHolder != null) {
-      viewHolderState.save(boundViewHolder);
+    EpoxyModel<?> modelToShow = getModelForPosition(position);
+    // Diff payloads are resolved first, since they may be dropped in favor of a full bind
+    List<Object> payloadsToBind = holder.resolvePayloads(modelToShow, payloads);
+    boolean keepViewState = isPartialRebind(holder, boundViewHolder, modelToShow, payloadsToBind);
+    if (boundViewHolder != null && !keepViewState) {
+      saveViewState(boundViewHolder);
     }
 
-    EpoxyModel<?> modelToShow = getModelForPosition(position);
-    holder.bind(modelToShow, payloads);
+    if (bindingProfiler == null) {
+      holder.bind(modelToShow, payloadsToBind);
+    } else {
+      long startNanos = System.nanoTime();
+      holder.bind(modelToShow, payloadsToBind);
+      bindingProfiler.recordBind(modelToShow, System.nanoTime() - startNanos);
+    }
 
-    viewHolderState.restore(holder);
+    if (!keepViewState) {
+      restoreViewState(holder);
+    }
     boundViewHolders.put(holder);
 
-    onModelBound(holder, modelToShow, position, payloads);
+    onModelBound(holder, modelToShow, position, payloadsToBind);
+  }
+
+  /**
+   * Whether the holder is being bound again in place with payloads, to a model of the same class
+   * and layout as the one it is showing, which binds the payloads itself. The partial bind only
+   * updates what changed, so the rest of the view keeps its state, and saving and restoring the
+   * view hierarchy around the bind can be skipped. A full bind may reset the view, so in that case
+   * the state is still carried over.
+   *
+   * @param payloads The payloads after diff payloads were resolved, which are empty if the model
+   * will be fully bound.
+   */
+  private static boolean isPartialRebind(EpoxyViewHolder holder,
+      @Nullable EpoxyViewHolder boundViewHolder, EpoxyModel<?> modelToShow, List<Object> payloads) {
+    if (boundViewHolder != holder || payloads.isEmpty()) {
+      return false;
+    }
+
+    EpoxyModel<?> boundModel = holder.getModel();
+    return boundModel.getClass() == modelToShow.getClass()
+        && boundModel.getLayout() == modelToShow.getLayout()
+        && modelToShow.bindsPayloads();
   }
 
   /**
    * Called immediately after a model is bound to a view holder. Subclasses can override this if
    * they want alerts on when a model is bound.
+   *
+   * @param payloads The payloads the model was bound with, which are empty if it was fully bound.
+   * Changes found by the differ are passed as an {@link AttributeChanges}.
    */
   protected void onModelBound(EpoxyViewHolder holder, EpoxyModel<?> model, int position,
       @Nullable List<Object> payloads) {
@@ -173,7 +437,11 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
 
   @Override
   public int getItemViewType(int position) {
-    return getModelForPosition(position).getLayout();
+    EpoxyModel<?> model = getModelForPosition(position);
+    if (bindingProfiler != null) {
+      lastModelForViewType = model;
+    }
+    return model.getLayout();
   }
 
   @Override
@@ -181,24 +449,81 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
     // This does not call getModelForPosition so that we don't use the id of the empty model when
     // hidden,
     // so that the id stays constant when gone vs shown
-    return models.get(position).id();
+    return displayedModels.get(position).id();
   }
 
-  private EpoxyModel<?> getModelForPosition(int position) {
-    EpoxyModel<?> epoxyModel = models.get(position);
+  EpoxyModel<?> getModelForPosition(int position) {
+    EpoxyModel<?> epoxyModel = displayedModels.get(position);
     return epoxyModel.isShown() ? epoxyModel : hiddenModel;
   }
 
+  /** Counts the layouts of the models the RecyclerView is showing, by view type. */
+  LayoutHistogram getLayoutHistogram() {
+    LayoutHistogram histogram = new LayoutHistogram();
+    int itemCount = getItemCount();
+    for (int i = 0; i < itemCount; i++) {
+      histogram.add(getModelForPosition(i).getLayout());
+    }
+    return histogram;
+  }
+
+  /**
+   * Called by the differ when an async diff is dispatched, and by {@link PagedEpoxyAdapter} to show
+   * its pages.
+   */
+  void setDisplayedModels(List<EpoxyModel<?>> displayedModels) {
+    this.displayedModels = displayedModels;
+  }
+
+  /**
+   * Returns the displayed model with the given id, or null if there is none. The id is looked up in
+   * the index kept by the displayed {@link ModelList}, so this doesn't search the models.
+   */
+  @Nullable
+  EpoxyModel<?> getDisplayedModelById(long id) {
+    int position = ((ModelList) displayedModels).indexOfId(id);
+    return position != -1 ? displayedModels.get(position) : null;
+  }
+
   @Override
   public void onViewRecycled(EpoxyViewHolder holder) {
-    viewHolderState.save(holder);
+    saveViewState(holder);
     boundViewHolders.remove(holder);
 
     EpoxyModel<?> model = holder.getModel();
-    holder.unbind();
+    if (bindingProfiler == null) {
+      holder.unbind();
+    } else {
+      long startNanos = System.nanoTime();
+      holder.unbind();
+      bindingProfiler.recordUnbind(model, System.nanoTime() - startNanos);
+    }
     onModelUnbound(holder, model);
   }
 
+  private void saveViewState(EpoxyViewHolder holder) {
+    // Only models that save their state are timed, so the counts reflect actual saves
+    if (bindingProfiler == null || !holder.getModel().shouldSaveViewState()) {
+      viewHolderState.save(holder);
+      return;
+    }
+
+    long startNanos = System.nanoTime();
+    viewHolderState.save(holder);
+    bindingProfiler.recordSaveState(holder.getModel(), System.nanoTime() - startNanos);
+  }
+
+  private void restoreViewState(EpoxyViewHolder holder) {
+    if (bindingProfiler == null || !holder.getModel().shouldSaveViewState()) {
+      viewHolderState.restore(holder);
+      return;
+    }
+
+    long startNanos = System.nanoTime();
+    viewHolderState.restore(holder);
+    bindingProfiler.recordRestoreState(holder.getModel(), System.nanoTime() - startNanos);
+  }
+
   /**
    * Called immediately after a model is unbound from a view holder. Subclasses can override this if
    * they want alerts on when a model is unbound.
@@ -233,7 +558,7 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
     // scrolled off and unbound will already have had
     // their state saved.
     for (EpoxyViewHolder holder : boundViewHolders) {
-      viewHolderState.save(holder);
+      saveViewState(holder);
     }
 
     if (viewHolderState.size() > 0 && !hasStableIds()) {
@@ -254,9 +579,50 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
 
     if (inState != null) {
       viewHolderState = inState.getParcelable(SAVED_STATE_ARG_VIEW_HOLDERS);
+      viewHolderState.setOnStateDroppedListener(viewStateDroppedListener);
+      viewHolderState.setMaxStates(maxSavedViewStates);
+      viewHolderState.setMaxParcelBytes(maxSavedViewStateBytes);
+      viewHolderState.setCompactParcelEnabled(compactSavedViewStateEnabled);
     }
   }
 
+  /**
+   * Limits how many models' view states are kept, for models that {@link
+   * EpoxyModel#shouldSaveViewState()}. By default every state is kept, which can use a lot of
+   * memory in long feeds. Once the limit is reached, the state that was saved the longest time ago
+   * is dropped to make room. If the model with that id is still in the adapter it is told with
+   * {@link EpoxyModel#onSavedViewStateDropped()}.
+   * <p>
+   * States are kept by model id, so models that share an id also share a state, and when it is
+   * dropped at most one of those models is told.
+   */
+  protected void setMaxSavedViewStates(int maxSavedViewStates) {
+    this.maxSavedViewStates = maxSavedViewStates;
+    viewHolderState.setOnStateDroppedListener(viewStateDroppedListener);
+    viewHolderState.setMaxStates(maxSavedViewStates);
+  }
+
+  /**
+   * Limits roughly how many bytes of view state are written in {@link
+   * #onSaveInstanceState(Bundle)}, to avoid a TransactionTooLargeException, or 0 for no limit. The
+   * most recently saved states are kept, and older states that don't fit are left out.
+   */
+  protected void setMaxSavedViewStateBytes(int maxSavedViewStateBytes) {
+    this.maxSavedViewStateBytes = maxSavedViewStateBytes;
+    viewHolderState.setMaxParcelBytes(maxSavedViewStateBytes);
+  }
+
+  /**
+   * Sets whether view states are written in {@link #onSaveInstanceState(Bundle)} with a compact
+   * encoding, which writes each class name once and small numbers in fewer bytes, and leaves out
+   * empty states. State written in either encoding can be restored, but older versions of this
+   * library can only read the default encoding.
+   */
+  protected void setCompactSavedViewStateEnabled(boolean compactSavedViewStateEnabled) {
+    this.compactSavedViewStateEnabled = compactSavedViewStateEnabled;
+    viewHolderState.setCompactParcelEnabled(compactSavedViewStateEnabled);
+  }
+
   /**
    * Notify that the given model has had its data changed. It should only be called if the model
    * retained the same position.
@@ -270,6 +636,13 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
    * retained the same position.
    */
   protected void notifyModelChanged(EpoxyModel<?> model, @Nullable Object payload) {
+    if (transactionInProgress) {
+      // The change is notified when the transaction is committed
+      DiffHelper helper = transactionDiffHelper != null ? transactionDiffHelper : diffHelper;
+      helper.recordChange(model, payload);
+      return;
+    }
+
     int index = getModelPosition(model);
     if (index != -1) {
       notifyItemChanged(index, payload);
@@ -286,7 +659,7 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
     models.add(modelToAdd);
     resumeModelListNotifications();
 
-    notifyItemRangeInserted(initialSize, 1);
+    notifyModelsInserted(initialSize, 1);
   }
 
   /**
@@ -303,7 +676,7 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
     Collections.addAll(models, modelsToAdd);
     resumeModelListNotifications();
 
-    notifyItemRangeInserted(initialSize, numModelsToAdd);
+    notifyModelsInserted(initialSize, numModelsToAdd);
   }
 
   /**
@@ -317,7 +690,7 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
     models.addAll(modelsToAdd);
     resumeModelListNotifications();
 
-    notifyItemRangeInserted(initialSize, modelsToAdd.size());
+    notifyModelsInserted(initialSize, modelsToAdd.size());
   }
 
   /**
@@ -334,7 +707,7 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
     models.add(targetIndex, modelToInsert);
     resumeModelListNotifications();
 
-    notifyItemInserted(targetIndex);
+    notifyModelsInserted(targetIndex, 1);
   }
 
   /**
@@ -352,7 +725,7 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
     models.add(targetIndex, modelToInsert);
     resumeModelListNotifications();
 
-    notifyItemInserted(targetIndex);
+    notifyModelsInserted(targetIndex, 1);
   }
 
   /**
@@ -366,7 +739,7 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
       models.remove(index);
       resumeModelListNotifications();
 
-      notifyItemRemoved(index);
+      notifyModelsRemoved(index, 1);
     }
   }
 
@@ -380,7 +753,7 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
     models.clear();
     resumeModelListNotifications();
 
-    notifyItemRangeRemoved(0, numModelsRemoved);
+    notifyModelsRemoved(0, numModelsRemoved);
   }
 
   /**
@@ -398,7 +771,7 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
     modelsToRemove.clear();
     resumeModelListNotifications();
 
-    notifyItemRangeRemoved(initialModelCount - numModelsRemoved, numModelsRemoved);
+    notifyModelsRemoved(initialModelCount - numModelsRemoved, numModelsRemoved);
   }
 
   /**
@@ -427,7 +800,7 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
   }
 
   /**
-   * Shows the given models, and notifies that each item changed if the item wasn't already shown.
+   * Shows the given models, and notifies that the items changed if they weren't already shown.
    *
    * @param models The models to show. They should already be added to the {@link #models} list.
    */
@@ -447,7 +820,7 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
   }
 
   /**
-   * Shows the given models, and notifies that each item changed if the item wasn't already shown.
+   * Shows the given models, and notifies that the items changed if they weren't already shown.
    *
    * @param models The models to show. They should already be added to the {@link #models} list.
    */
@@ -457,14 +830,60 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
 
   /**
    * Sets the visibility of the given models, and notifies that the items changed if the new
-   * visibility is different from the previous.
+   * visibility is different from the previous. Adjacent items are notified together as one range,
+   * so changing the visibility of many models in a row only takes a few notifications.
    *
    * @param models The models to show. They should already be added to the {@link #models} list.
    * @param show   True to show the models, false to hide them.
    */
   protected void showModels(Iterable<EpoxyModel<?>> models, boolean show) {
+    int[] changedPositions = new int[16];
+    int changedCount = 0;
+    boolean sorted = true;
+
     for (EpoxyModel<?> model : models) {
-      showModel(model, show);
+      if (model.isShown() == show) {
+        continue;
+      }
+
+      model.show(show);
+      int position = getModelPosition(model);
+      if (position == -1) {
+        continue;
+      }
+
+      if (changedCount == changedPositions.length) {
+        changedPositions = Arrays.copyOf(changedPositions, changedCount * 2);
+      }
+      sorted &= changedCount == 0 || changedPositions[changedCount - 1] < position;
+      changedPositions[changedCount++] = position;
+    }
+
+    notifyPositionsChanged(changedPositions, changedCount, sorted);
+  }
+
+  /**
+   * Notifies that the items at the given positions changed, with one notification for each range
+   * of adjacent positions instead of one per item.
+   */
+  private void notifyPositionsChanged(int[] positions, int count, boolean sorted) {
+    if (count == 0 || transactionInProgress) {
+      return;
+    }
+
+    if (!sorted) {
+      Arrays.sort(positions, 0, count);
+    }
+
+    UpdateOpHelper changes = new UpdateOpHelper();
+    for (int i = 0; i < count; i++) {
+      changes.update(positions[i]);
+    }
+
+    List<UpdateOp> opList = changes.opList;
+    for (int i = 0; i < opList.size(); i++) {
+      UpdateOp op = opList.get(i);
+      notifyItemRangeChanged(op.positionStart, op.itemCount);
     }
   }
 
@@ -478,7 +897,7 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
   }
 
   /**
-   * Hides the given models, and notifies that each item changed if the item wasn't already hidden.
+   * Hides the given models, and notifies that the items changed if they weren't already hidden.
    *
    * @param models The models to hide. They should already be added to the {@link #models} list.
    */
@@ -487,7 +906,7 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
   }
 
   /**
-   * Hides the given models, and notifies that each item changed if the item wasn't already hidden.
+   * Hides the given models, and notifies that the items changed if they weren't already hidden.
    *
    * @param models The models to hide. They should already be added to the {@link #models} list.
    */
@@ -521,17 +940,11 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
 
   /**
    * Finds the position of the given model in the list. Doesn't use indexOf to avoid unnecessary
-   * equals() calls since we're looking for the same object instance.
+   * equals() calls since we're looking for the same object instance. Positions are looked up by
+   * model id in an index kept by the models list, so this doesn't need to search the list.
    */
   protected int getModelPosition(EpoxyModel<?> model) {
-    int size = models.size();
-    for (int i = 0; i < size; i++) {
-      if (model == models.get(i)) {
-        return i;
-      }
-    }
-
-    return -1;
+    return ((ModelList) models).indexOfModel(model);
   }
 
   /**
@@ -566,13 +979,30 @@ public abstract class EpoxyAdapter extends RecyclerView.Adapter<EpoxyViewHolder>
   /**
    * We pause the list's notifications when we modify models internally, since we already do the
    * proper adapter notifications for those modifications. By pausing these list notifications we
-   * prevent the differ having to do work to track them.
+   * prevent the differ having to do work to track them. During a transaction the change isn't
+   * notified yet, so the model list keeps reporting changes to the differ instead.
    */
   private void pauseModelListNotifications() {
-    ((ModelList) models).pauseNotifications();
+    if (!transactionInProgress) {
+      ((ModelList) models).pauseNotifications();
+    }
   }
 
   private void resumeModelListNotifications() {
-    ((ModelList) models).resumeNotifications();
+    if (!transactionInProgress) {
+      ((ModelList) models).resumeNotifications();
+    }
+  }
+
+  private void notifyModelsInserted(int positionStart, int itemCount) {
+    if (!transactionInProgress) {
+      notifyItemRangeInserted(positionStart, itemCount);
+    }
+  }
+
+  private void notifyModelsRemoved(int positionStart, int itemCount) {
+    if (!transactionInProgress) {
+      notifyItemRangeRemoved(positionStart, itemCount);
+    }
   }
 }
@@ -1,6 +1,7 @@
 package com.airbnb.epoxy;
 
 import android.support.annotation.LayoutRes;
+import android.support.annotation.Nullable;
 
 import java.util.List;
 
@@ -27,6 +28,13 @@ public abstract class EpoxyModel<T> {
   private boolean shown = true;
   /** Set to true once this model is added to an adapter. */
   boolean addedToAdapter;
+  /**
+   * The hash code last computed by the differ, if this model {@link #tracksModifications()}. It is
+   * only valid while {@link #modified} is false.
+   */
+  private int diffHashCode;
+  /** Whether this model may have changed since the differ last computed its hash code. */
+  private boolean modified = true;
 
   protected EpoxyModel(long id) {
     id(id);
@@ -50,11 +58,42 @@ public abstract class EpoxyModel<T> {
    * method. This is a useful optimization to allow you to only change part of a view instead of
    * updating the whole thing, which may prevent unnecessary layout calls. If there are no payloads
    * then {@link #bind(Object)} is called instead.
+   * <p>
+   * If this only updates part of the view, also override {@link #bindsPayloads()} so that the
+   * adapter doesn't save and restore the view state around a rebind with payloads.
    */
   public void bind(T view, List<Object> payloads) {
     bind(view);
   }
 
+  /**
+   * Return true if {@link #bind(Object, List)} updates the view for the given payloads and leaves
+   * the rest of it as it was. The adapter then doesn't save and restore the view state around a
+   * rebind with payloads, since the state is kept in the view.
+   * <p>
+   * This is false by default, since the default implementation does a full bind. Generated models
+   * override this if their model class or one of its super classes overrides {@link #bind(Object,
+   * List)}.
+   */
+  protected boolean bindsPayloads() {
+    return false;
+  }
+
+  /**
+   * Returns bit flags of the attributes that are different from the given model, which was
+   * previously bound to the view this model is about to be bound to. This is only called when diff
+   * payloads are enabled with {@link EpoxyAdapter#setDiffPayloadsEnabled(boolean)}, and the given
+   * model is guaranteed to be a different instance of the same class, with the same layout.
+   * <p>
+   * The result is passed to {@link #bind(Object, List)} as an {@link AttributeChanges} payload. If
+   * this returns {@link AttributeChanges#ALL_ATTRIBUTES} or 0 then {@link #bind(Object)} is called
+   * instead. Generated models can implement this for their attributes, see {@link
+   * PackageEpoxyConfig#generateAttributeChanges()}.
+   */
+  protected long getChangedAttributes(EpoxyModel<?> previouslyBoundModel) {
+    return AttributeChanges.ALL_ATTRIBUTES;
+  }
+
   /**
    * Called when the view bound to this model is recycled. Subclasses can override this if their
    * view should release resources when it's recycled.
@@ -84,6 +123,7 @@ public abstract class EpoxyModel<T> {
     }
 
     this.id = id;
+    markModified();
     return this;
   }
 
@@ -162,6 +202,7 @@ public abstract class EpoxyModel<T> {
 
   public EpoxyModel<T> layout(@LayoutRes int layoutRes) {
     layout = layoutRes;
+    markModified();
     return this;
   }
 
@@ -180,6 +221,7 @@ public abstract class EpoxyModel<T> {
   public EpoxyModel<T> reset() {
     layout = 0;
     shown = true;
+    markModified();
 
     return this;
   }
@@ -212,6 +254,110 @@ public abstract class EpoxyModel<T> {
     return result;
   }
 
+  /**
+   * Return true if every change to the state included in {@link #hashCode()} is followed by a call
+   * to {@link #markModified()}. The differ then only recomputes this model's hash code if it was
+   * modified since the last diff, instead of on every diff.
+   * <p>
+   * This is false by default, since a model's fields can be changed directly, or an attribute such
+   * as a list or array may be changed in place, without the model knowing. Generated models
+   * override this if their package enables {@link PackageEpoxyConfig#trackModifications()}.
+   */
+  protected boolean tracksModifications() {
+    return false;
+  }
+
+  /**
+   * Return true if the differ should use {@link #contentEquals(EpoxyModel)} to tell if this model
+   * changed when it replaces a different model instance with the same id. This avoids hash
+   * collisions hiding a change, and lets the comparison stop at the first attribute that differs.
+   * <p>
+   * The hash code is still used if the same instance is diffed again, since it may have been
+   * changed in place. The replaced model is kept to be compared with, so it should not be changed
+   * once it was diffed either. If its hash code no longer matches the one recorded when it was
+   * diffed then its content doesn't show what was bound anymore, and the hash codes are compared
+   * instead. This means the replaced model's hash code is computed again, which is cheap if it
+   * {@link #tracksModifications()} or caches its hash code.
+   * <p>
+   * Generated models override this if their package enables {@link
+   * PackageEpoxyConfig#generateContentEquals()}.
+   */
+  protected boolean diffsByContent() {
+    return false;
+  }
+
+  /**
+   * Returns true if this model would bind its view the same way as the given model, which has the
+   * same id and was shown in its place at the last diff. This is only used if this model {@link
+   * #diffsByContent()}, and defaults to {@link #equals(Object)}.
+   */
+  protected boolean contentEquals(EpoxyModel<?> previousModel) {
+    return equals(previousModel);
+  }
+
+  /**
+   * Marks that the state included in {@link #hashCode()} may have changed, so that the differ
+   * recomputes it on the next diff. This only needs to be called by models that {@link
+   * #tracksModifications()}.
+   */
+  protected final void markModified() {
+    modified = true;
+  }
+
+  /**
+   * Returns the hash code used to tell if this model changed between diffs. If the model tracks
+   * modifications and wasn't modified since this was last called then the previous hash code is
+   * returned without being recomputed.
+   */
+  int hashCodeForDiff() {
+    if (!modified) {
+      return diffHashCode;
+    }
+
+    int hashCode = hashCode();
+    if (tracksModifications()) {
+      diffHashCode = hashCode;
+      modified = false;
+    }
+    return hashCode;
+  }
+
+  /**
+   * Returns true if this model changed since the given model was diffed at its position. If this
+   * model {@link #diffsByContent()} and replaced a different instance that wasn't changed since
+   * it was diffed, the two models are compared directly, otherwise their hash codes are.
+   *
+   * @param previousModel The model diffed at this position last time, or null if it isn't known.
+   * @param previousHashCode The hash code recorded for the previous model when it was diffed.
+   */
+  boolean changedSince(@Nullable EpoxyModel<?> previousModel, int previousHashCode,
+      int hashCode) {
+    if (previousModel != null && previousModel != this && diffsByContent()
+        && previousModel.hashCodeForDiff() == previousHashCode) {
+      return !contentEquals(previousModel);
+    }
+    return previousHashCode != hashCode;
+  }
+
+  /**
+   * Returns a copy of this model with the same id, layout and attributes, which hasn't been added
+   * to an adapter yet. The model class must implement {@link Cloneable}. Generated models use this
+   * for their copy setters if their package enables
+   * {@link PackageEpoxyConfig#generateCopySetters()}. The copy is shallow, so attribute values such
+   * as arrays are shared with this model.
+   */
+  protected final EpoxyModel<T> copyModel() {
+    try {
+      @SuppressWarnings("unchecked")
+      EpoxyModel<T> copy = (EpoxyModel<T>) clone();
+      copy.addedToAdapter = false;
+      return copy;
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException(
+          "Model must implement Cloneable to be copied: " + getClass().getSimpleName(), e);
+    }
+  }
+
   /**
    * Subclasses can override this if they want their view to take up more than one span in a grid
    * layout.
@@ -226,16 +372,19 @@ public abstract class EpoxyModel<T> {
 
   public EpoxyModel<T> show() {
     shown = true;
+    markModified();
     return this;
   }
 
   public EpoxyModel<T> show(boolean show) {
     shown = show;
+    markModified();
     return this;
   }
 
   public EpoxyModel<T> hide() {
     shown = false;
+    markModified();
     return this;
   }
 
@@ -254,6 +403,19 @@ public abstract class EpoxyModel<T> {
     return false;
   }
 
+  /**
+   * Called if this model's saved view state was dropped because the adapter's limit on saved view
+   * states was reached, and it was the least recently saved. The view will be bound without its
+   * previous state the next time it is shown. This is called on the model with the state's id that
+   * is in the adapter when the state is dropped, which may not be the model the state was saved
+   * for.
+   *
+   * @see EpoxyAdapter#setMaxSavedViewStates(int)
+   */
+  public void onSavedViewStateDropped() {
+
+  }
+
   /**
    * Called if the RecyclerView failed to recycle this model's view. You can take this opportunity
    * to clear the animation(s) that affect the View's transient state and return <code>true</code>
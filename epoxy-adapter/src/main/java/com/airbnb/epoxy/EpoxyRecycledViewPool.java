@@ -0,0 +1,137 @@
+package com.airbnb.epoxy;
+
+import android.support.annotation.LayoutRes;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.RecyclerView.RecycledViewPool;
+import android.support.v7.widget.RecyclerView.ViewHolder;
+
+/**
+ * A {@link RecycledViewPool} that sizes itself for the models of the adapters using it, and keeps
+ * stats on how often it could provide a view. RecyclerView's default pool only keeps 5 views of
+ * each type, so screens with several RecyclerViews, such as nested carousels, end up inflating
+ * views that another RecyclerView just recycled.
+ * <p>
+ * Set the same instance on each RecyclerView with {@link
+ * RecyclerView#setRecycledViewPool(RecycledViewPool)} before setting their adapters. When an {@link
+ * EpoxyAdapter} is attached to one of them, and each time it notifies models changed, the limit for
+ * each of its layouts is raised to the number of models using that layout, up to a maximum per
+ * layout. Limits are never lowered, so the pool fits the largest number of models seen for each
+ * layout across all of its adapters.
+ */
+public class EpoxyRecycledViewPool extends RecycledViewPool {
+  /** The default maximum number of views kept for each layout. */
+  public static final int DEFAULT_MAX_PER_LAYOUT = 20;
+
+  private final int maxPerLayout;
+  private final LongIntHashMap maxRecycledViews = new LongIntHashMap();
+  /** How many views of each type are in the pool, since the pool doesn't expose this itself. */
+  private final LongIntHashMap recycledViewCounts = new LongIntHashMap();
+  private int hitCount;
+  private int missCount;
+  private int discardCount;
+
+  public EpoxyRecycledViewPool() {
+    this(DEFAULT_MAX_PER_LAYOUT);
+  }
+
+  /** @param maxPerLayout The most views the pool will be sized to keep for a single layout. */
+  public EpoxyRecycledViewPool(int maxPerLayout) {
+    this.maxPerLayout = maxPerLayout;
+  }
+
+  /** Raises the limit of each layout in the histogram to fit the models using it. */
+  void sizeFor(LayoutHistogram histogram) {
+    for (int i = 0; i < histogram.size(); i++) {
+      int layout = histogram.layoutAt(i);
+      int size = Math.min(histogram.countAt(i), maxPerLayout);
+      if (size > getMaxRecycledViews(layout)) {
+        setMaxRecycledViews(layout, size);
+      }
+    }
+  }
+
+  /** Returns the most views of the given type that the pool will keep. */
+  public int getMaxRecycledViews(@LayoutRes int viewType) {
+    int max = maxRecycledViews.get(viewType);
+    return max == LongIntHashMap.NO_VALUE ? ViewHolderPrewarmer.DEFAULT_MAX_RECYCLED_VIEWS : max;
+  }
+
+  @Override
+  public void setMaxRecycledViews(int viewType, int max) {
+    super.setMaxRecycledViews(viewType, max);
+    maxRecycledViews.put(viewType, max);
+
+    // The pool drops views over the new limit
+    int count = getRecycledViewCountForType(viewType);
+    if (count > max) {
+      recycledViewCounts.put(viewType, max);
+    }
+  }
+
+  @Override
+  public ViewHolder getRecycledView(int viewType) {
+    ViewHolder holder = super.getRecycledView(viewType);
+    if (holder == null) {
+      missCount++;
+    } else {
+      hitCount++;
+      recycledViewCounts.put(viewType, getRecycledViewCountForType(viewType) - 1);
+    }
+    return holder;
+  }
+
+  @Override
+  public void putRecycledView(ViewHolder holder) {
+    int viewType = holder.getItemViewType();
+    int count = getRecycledViewCountForType(viewType);
+    // The pool discards the view if it is full
+    if (count >= getMaxRecycledViews(viewType)) {
+      discardCount++;
+    } else {
+      recycledViewCounts.put(viewType, count + 1);
+    }
+
+    super.putRecycledView(holder);
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    recycledViewCounts.clear();
+  }
+
+  private int getRecycledViewCountForType(int viewType) {
+    int count = recycledViewCounts.get(viewType);
+    return count == LongIntHashMap.NO_VALUE ? 0 : count;
+  }
+
+  /**
+   * The number of times a RecyclerView got a view from the pool, which is the number of view
+   * holders that didn't have to be created.
+   */
+  public int getHitCount() {
+    return hitCount;
+  }
+
+  /** The number of times a RecyclerView needed a view the pool didn't have, and created one. */
+  public int getMissCount() {
+    return missCount;
+  }
+
+  /** The number of views that were discarded because the pool was full for their type. */
+  public int getDiscardCount() {
+    return discardCount;
+  }
+
+  /** The fraction of requests for a view that the pool could fulfill, or 0 if there were none. */
+  public float getHitRate() {
+    int requestCount = hitCount + missCount;
+    return requestCount == 0 ? 0 : (float) hitCount / requestCount;
+  }
+
+  public void resetStats() {
+    hitCount = 0;
+    missCount = 0;
+    discardCount = 0;
+  }
+}
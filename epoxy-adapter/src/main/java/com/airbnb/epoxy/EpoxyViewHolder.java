@@ -6,6 +6,7 @@ import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @SuppressWarnings("WeakerAccess")
@@ -18,6 +19,12 @@ public class EpoxyViewHolder extends RecyclerView.ViewHolder {
     super(LayoutInflater.from(parent.getContext()).inflate(layoutId, parent, false));
   }
 
+  /**
+   * Binds the model with the given payloads, or fully binds it if there are none.
+   *
+   * @param payloads The payloads returned by {@link #resolvePayloads(EpoxyModel, List)} for this
+   * model.
+   */
   public void bind(@SuppressWarnings("rawtypes") EpoxyModel model, List<Object> payloads) {
     this.payloads = payloads;
 
@@ -37,6 +44,55 @@ public class EpoxyViewHolder extends RecyclerView.ViewHolder {
     epoxyModel = model;
   }
 
+  /**
+   * Returns the payloads to bind the given model with, with {@link DiffPayload#INSTANCE} replaced
+   * by the attributes that changed from the bound model. The model is fully bound if this returns
+   * an empty list. This must be called before the model is bound, while the holder still has the
+   * previous model.
+   */
+  List<Object> resolvePayloads(EpoxyModel<?> model, List<Object> payloads) {
+    if (!payloads.contains(DiffPayload.INSTANCE)) {
+      return payloads;
+    }
+    return replaceDiffPayloads(model, payloads);
+  }
+
+  /**
+   * The differ notified this item as changed, and this holder is being rebound while still showing
+   * the previous model. The changed attributes are found by comparing the new model to that one,
+   * and are passed on in place of the diff payload. If they can't be determined then the payload
+   * is dropped so that the model is fully bound.
+   */
+  private List<Object> replaceDiffPayloads(EpoxyModel<?> model, List<Object> payloads) {
+    long changedAttributes = AttributeChanges.ALL_ATTRIBUTES;
+    if (canCompareToBoundModel(model)) {
+      changedAttributes = model.getChangedAttributes(epoxyModel);
+    }
+
+    List<Object> newPayloads = new ArrayList<>(payloads.size());
+    if (changedAttributes != AttributeChanges.ALL_ATTRIBUTES && changedAttributes != 0) {
+      newPayloads.add(new AttributeChanges(changedAttributes));
+    }
+
+    for (int i = 0; i < payloads.size(); i++) {
+      Object payload = payloads.get(i);
+      if (payload != DiffPayload.INSTANCE) {
+        newPayloads.add(payload);
+      }
+    }
+
+    return newPayloads;
+  }
+
+  private boolean canCompareToBoundModel(EpoxyModel<?> model) {
+    // If the same model instance was changed there is nothing left to compare it to
+    return epoxyModel != null
+        && epoxyModel != model
+        && epoxyModel.getClass() == model.getClass()
+        && epoxyModel.getLayout() == model.getLayout()
+        && epoxyModel.isShown() == model.isShown();
+  }
+
   Object objectToBind() {
     return epoxyHolder != null ? epoxyHolder : itemView;
   }
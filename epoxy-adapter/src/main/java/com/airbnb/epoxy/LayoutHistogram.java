@@ -0,0 +1,66 @@
+package com.airbnb.epoxy;
+
+import android.support.annotation.LayoutRes;
+
+import java.util.Arrays;
+
+/**
+ * Counts how many models use each layout, which is also the number of items of each view type.
+ * Screens typically have a handful of layouts, so they are kept in a short list that is searched
+ * linearly instead of in a map.
+ */
+class LayoutHistogram {
+  private int[] layouts = new int[8];
+  private int[] counts = new int[8];
+  private int size;
+
+  /** The number of distinct layouts. */
+  int size() {
+    return size;
+  }
+
+  @LayoutRes
+  int layoutAt(int index) {
+    return layouts[index];
+  }
+
+  int countAt(int index) {
+    return counts[index];
+  }
+
+  /** Returns the number of models counted with the given layout. */
+  int countOf(@LayoutRes int layout) {
+    int index = indexOf(layout);
+    return index == -1 ? 0 : counts[index];
+  }
+
+  void add(@LayoutRes int layout) {
+    int index = indexOf(layout);
+    if (index != -1) {
+      counts[index]++;
+      return;
+    }
+
+    if (size == layouts.length) {
+      layouts = Arrays.copyOf(layouts, size * 2);
+      counts = Arrays.copyOf(counts, size * 2);
+    }
+
+    layouts[size] = layout;
+    counts[size] = 1;
+    size++;
+  }
+
+  void clear() {
+    size = 0;
+  }
+
+  private int indexOf(@LayoutRes int layout) {
+    for (int i = 0; i < size; i++) {
+      if (layouts[i] == layout) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,175 @@
+package com.airbnb.epoxy;
+
+import java.util.Arrays;
+
+/**
+ * A map of long keys to non negative int values, using open addressing with linear probing. This is
+ * used instead of a {@code HashMap<Long, Integer>} so that keys aren't boxed and no entry objects
+ * are created. Once the map has grown to fit its working size it can be cleared and refilled
+ * without allocating anything.
+ */
+class LongIntHashMap {
+  /** Returned when a key has no value in the map. Also marks empty slots in the table. */
+  static final int NO_VALUE = -1;
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] keys;
+  private int[] values;
+  private int mask;
+  private int size;
+  /** The table is kept at most half full so that probe sequences stay short. */
+  private int maxSize;
+
+  LongIntHashMap() {
+    this(MIN_CAPACITY / 2);
+  }
+
+  LongIntHashMap(int expectedSize) {
+    allocate(capacityFor(expectedSize));
+  }
+
+  int size() {
+    return size;
+  }
+
+  /** Returns the value for the given key, or {@link #NO_VALUE} if the key is not in the map. */
+  int get(long key) {
+    int slot = slotFor(key);
+    while (values[slot] != NO_VALUE) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    return NO_VALUE;
+  }
+
+  /**
+   * Sets the value for the given key.
+   *
+   * @return The previous value for the key, or {@link #NO_VALUE} if it wasn't in the map.
+   */
+  int put(long key, int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Values must not be negative: " + value);
+    }
+
+    int slot = slotFor(key);
+    while (values[slot] != NO_VALUE) {
+      if (keys[slot] == key) {
+        int previousValue = values[slot];
+        values[slot] = value;
+        return previousValue;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+
+    if (size > maxSize) {
+      rehash(values.length * 2);
+    }
+
+    return NO_VALUE;
+  }
+
+  /**
+   * Removes the value for the given key.
+   *
+   * @return The removed value, or {@link #NO_VALUE} if the key wasn't in the map.
+   */
+  int remove(long key) {
+    int slot = slotFor(key);
+    while (values[slot] != NO_VALUE) {
+      if (keys[slot] == key) {
+        int previousValue = values[slot];
+        closeGap(slot);
+        size--;
+        return previousValue;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    return NO_VALUE;
+  }
+
+  void clear() {
+    if (size > 0) {
+      Arrays.fill(values, NO_VALUE);
+      size = 0;
+    }
+  }
+
+  /** Grows the table if needed so that the given number of entries fit without rehashing. */
+  void ensureCapacity(int expectedSize) {
+    if (expectedSize > maxSize) {
+      rehash(capacityFor(expectedSize));
+    }
+  }
+
+  /**
+   * Empties the given slot by shifting back later entries in its probe sequence, so that lookups
+   * never need to skip over deleted entries.
+   */
+  private void closeGap(int gap) {
+    int slot = gap;
+    while (true) {
+      slot = (slot + 1) & mask;
+      if (values[slot] == NO_VALUE) {
+        break;
+      }
+
+      // The entry can fill the gap if the gap is between its ideal slot and its current one
+      int idealSlot = slotFor(keys[slot]);
+      if (((slot - idealSlot) & mask) >= ((slot - gap) & mask)) {
+        keys[gap] = keys[slot];
+        values[gap] = values[slot];
+        gap = slot;
+      }
+    }
+
+    values[gap] = NO_VALUE;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(capacity);
+
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] != NO_VALUE) {
+        int slot = slotFor(oldKeys[i]);
+        while (values[slot] != NO_VALUE) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new int[capacity];
+    Arrays.fill(values, NO_VALUE);
+    mask = capacity - 1;
+    maxSize = capacity / 2;
+  }
+
+  private int slotFor(long key) {
+    // Model ids are often sequential or generated from hashes, so spread the bits before masking
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  private static int capacityFor(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity / 2 < expectedSize) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+}
@@ -0,0 +1,117 @@
+package com.airbnb.epoxy;
+
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A map of long keys to objects, used instead of {@link android.support.v4.util.LongSparseArray}
+ * for maps that can hold thousands of entries. A sparse array binary searches for keys and shifts
+ * its arrays on every insertion and removal, while this finds the index of an entry through a
+ * {@link LongIntHashMap}, so lookups, insertions and removals take constant time.
+ * <p>
+ * Entries are stored densely so they can be iterated by index with {@link #keyAt(int)} and {@link
+ * #valueAt(int)}, but unlike a sparse array they aren't sorted by key. Removing an entry moves the
+ * last entry into its place.
+ */
+class LongObjectHashMap<V> {
+  private static final int MIN_CAPACITY = 8;
+
+  private long[] keys;
+  private Object[] values;
+  private int size;
+  private final LongIntHashMap indexByKey;
+
+  LongObjectHashMap() {
+    this(MIN_CAPACITY);
+  }
+
+  LongObjectHashMap(int expectedSize) {
+    int capacity = Math.max(expectedSize, MIN_CAPACITY);
+    keys = new long[capacity];
+    values = new Object[capacity];
+    indexByKey = new LongIntHashMap(capacity);
+  }
+
+  int size() {
+    return size;
+  }
+
+  long keyAt(int index) {
+    return keys[index];
+  }
+
+  @SuppressWarnings("unchecked")
+  V valueAt(int index) {
+    return (V) values[index];
+  }
+
+  /** Returns the index of the entry with the given key, or -1 if there is none. */
+  int indexOfKey(long key) {
+    return indexByKey.get(key);
+  }
+
+  @Nullable
+  V get(long key) {
+    int index = indexByKey.get(key);
+    return index == LongIntHashMap.NO_VALUE ? null : valueAt(index);
+  }
+
+  /**
+   * Sets the value for the given key.
+   *
+   * @return The previous value for the key, or null if it wasn't in the map.
+   */
+  @Nullable
+  V put(long key, V value) {
+    int index = indexByKey.get(key);
+    if (index != LongIntHashMap.NO_VALUE) {
+      V previousValue = valueAt(index);
+      values[index] = value;
+      return previousValue;
+    }
+
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      values = Arrays.copyOf(values, size * 2);
+    }
+
+    keys[size] = key;
+    values[size] = value;
+    indexByKey.put(key, size);
+    size++;
+    return null;
+  }
+
+  /**
+   * Removes the value for the given key.
+   *
+   * @return The removed value, or null if the key wasn't in the map.
+   */
+  @Nullable
+  V remove(long key) {
+    int index = indexByKey.remove(key);
+    if (index == LongIntHashMap.NO_VALUE) {
+      return null;
+    }
+
+    V removedValue = valueAt(index);
+    int lastIndex = size - 1;
+    if (index != lastIndex) {
+      keys[index] = keys[lastIndex];
+      values[index] = values[lastIndex];
+      indexByKey.put(keys[index], index);
+    }
+
+    // Don't hold on to the removed value
+    values[lastIndex] = null;
+    size--;
+    return removedValue;
+  }
+
+  void clear() {
+    Arrays.fill(values, 0, size, null);
+    size = 0;
+    indexByKey.clear();
+  }
+}
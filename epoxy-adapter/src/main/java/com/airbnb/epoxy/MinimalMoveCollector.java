@@ -0,0 +1,209 @@
+package com.airbnb.epoxy;
+
+import java.util.Arrays;
+
+import static com.airbnb.epoxy.ModelStateList.NO_INDEX;
+
+/**
+ * Finds the fewest item moves needed to put the items of a diff in their new order, in O(n log n)
+ * time. This is an alternative to the default move detection in {@link ModelStateDiffer}, which
+ * replays previous moves on each item to track its position and can take quadratic time when many
+ * items move, such as when the list is shuffled.
+ * <p>
+ * Moves are collected after removals and insertions, when the list contains the remaining old items
+ * in their old order, with inserted items at their new positions. The longest subsequence of these
+ * items that is already in increasing order of new position can stay where it is, and every other
+ * item is moved once. Items are moved in decreasing order of their new position, each to just
+ * before the item that follows it in the new list, which has already been placed. The current
+ * position of each item is tracked with a Fenwick tree over slots for the items' starting places
+ * and their destinations.
+ * <p>
+ * The arrays used are kept between diffs, so an instance shouldn't be used for more than one diff
+ * at a time.
+ */
+class MinimalMoveCollector {
+  /** For each position in the list before moves, the new position of the item there. */
+  private int[] newPositions = new int[0];
+  /** Positions in the list before moves that end the increasing subsequences found so far. */
+  private int[] subsequenceTails = new int[0];
+  /** For each position in the list, the previous position in its increasing subsequence. */
+  private int[] previousInSubsequence = new int[0];
+  /** Whether the item with a given new position is part of the longest increasing subsequence. */
+  private boolean[] stationary = new boolean[0];
+  /** The slot of the item with a given new position before moves. */
+  private int[] startSlots = new int[0];
+  /** The slot the item with a given new position is moved to, if it isn't stationary. */
+  private int[] destinationSlots = new int[0];
+  /** One based Fenwick tree counting the occupied slots. */
+  private int[] occupiedSlots = new int[0];
+
+  void collectMoves(ModelStateList oldStateList, ModelStateList currentStateList,
+      UpdateOpHelper helper) {
+    int itemCount = currentStateList.size;
+    ensureCapacity(itemCount);
+
+    if (!setNewPositions(oldStateList, currentStateList)) {
+      // Nothing moved
+      return;
+    }
+
+    findStationaryItems(itemCount);
+    int slotCount = assignSlots(itemCount);
+
+    for (int newPosition = itemCount - 1; newPosition >= 0; newPosition--) {
+      if (stationary[newPosition]) {
+        continue;
+      }
+
+      int startSlot = startSlots[newPosition];
+      int destinationSlot = destinationSlots[newPosition];
+
+      int fromPosition = countOccupiedSlots(startSlot) - 1;
+      updateSlot(startSlot, -1, slotCount);
+      int toPosition = countOccupiedSlots(destinationSlot - 1);
+      updateSlot(destinationSlot, 1, slotCount);
+
+      if (fromPosition != toPosition) {
+        helper.move(fromPosition, toPosition);
+      }
+    }
+  }
+
+  /**
+   * Removals and insertions have been applied, so the list holds the remaining old items in their
+   * old order, with inserted items already at their new position.
+   *
+   * @return True if any item is not at its new position.
+   */
+  private boolean setNewPositions(ModelStateList oldStateList, ModelStateList currentStateList) {
+    int nextOldIndex = 0;
+    boolean hasMoves = false;
+
+    for (int i = 0; i < currentStateList.size; i++) {
+      if (currentStateList.pairs[i] == NO_INDEX) {
+        newPositions[i] = i;
+        continue;
+      }
+
+      while (oldStateList.pairs[nextOldIndex] == NO_INDEX) {
+        nextOldIndex++;
+      }
+
+      newPositions[i] = oldStateList.pairs[nextOldIndex];
+      nextOldIndex++;
+      hasMoves |= newPositions[i] != i;
+    }
+
+    return hasMoves;
+  }
+
+  private void findStationaryItems(int itemCount) {
+    int length = 0;
+
+    for (int i = 0; i < itemCount; i++) {
+      int newPosition = newPositions[i];
+
+      // Binary search for the first subsequence whose tail has a larger new position
+      int low = 0;
+      int high = length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (newPositions[subsequenceTails[mid]] < newPosition) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+
+      previousInSubsequence[i] = low > 0 ? subsequenceTails[low - 1] : NO_INDEX;
+      subsequenceTails[low] = i;
+      if (low == length) {
+        length++;
+      }
+    }
+
+    Arrays.fill(stationary, 0, itemCount, false);
+    int position = length > 0 ? subsequenceTails[length - 1] : NO_INDEX;
+    while (position != NO_INDEX) {
+      stationary[newPositions[position]] = true;
+      position = previousInSubsequence[position];
+    }
+  }
+
+  /**
+   * Lays out the slots in list order. Each item that moves has a slot at its starting place. Each
+   * stationary item has a block of slots ending in its own, with a destination for each moving item
+   * that goes between it and the previous stationary item in the new list. A last block holds the
+   * destinations of the items after the last stationary item.
+   *
+   * @return The number of slots.
+   */
+  private int assignSlots(int itemCount) {
+    int slot = 1;
+    int lastStationaryPosition = -1;
+
+    for (int i = 0; i < itemCount; i++) {
+      int newPosition = newPositions[i];
+
+      if (stationary[newPosition]) {
+        for (int p = lastStationaryPosition + 1; p <= newPosition; p++) {
+          destinationSlots[p] = slot++;
+        }
+        startSlots[newPosition] = destinationSlots[newPosition];
+        lastStationaryPosition = newPosition;
+      } else {
+        startSlots[newPosition] = slot++;
+      }
+    }
+
+    for (int p = lastStationaryPosition + 1; p < itemCount; p++) {
+      destinationSlots[p] = slot++;
+    }
+
+    int slotCount = slot - 1;
+    Arrays.fill(occupiedSlots, 0, slotCount + 1, 0);
+    for (int newPosition = 0; newPosition < itemCount; newPosition++) {
+      occupiedSlots[startSlots[newPosition]] = 1;
+    }
+
+    // Build the tree in place in linear time
+    for (int i = 1; i <= slotCount; i++) {
+      int parent = i + (i & -i);
+      if (parent <= slotCount) {
+        occupiedSlots[parent] += occupiedSlots[i];
+      }
+    }
+
+    return slotCount;
+  }
+
+  /** Returns the number of occupied slots up to and including the given one. */
+  private int countOccupiedSlots(int slot) {
+    int count = 0;
+    for (int i = slot; i > 0; i -= i & -i) {
+      count += occupiedSlots[i];
+    }
+    return count;
+  }
+
+  private void updateSlot(int slot, int delta, int slotCount) {
+    for (int i = slot; i <= slotCount; i += i & -i) {
+      occupiedSlots[i] += delta;
+    }
+  }
+
+  private void ensureCapacity(int itemCount) {
+    if (newPositions.length >= itemCount) {
+      return;
+    }
+
+    newPositions = new int[itemCount];
+    subsequenceTails = new int[itemCount];
+    previousInSubsequence = new int[itemCount];
+    stationary = new boolean[itemCount];
+    startSlots = new int[itemCount];
+    destinationSlots = new int[itemCount];
+    // Moving items have both a start and a destination slot, and the tree is one based
+    occupiedSlots = new int[itemCount * 2 + 1];
+  }
+}
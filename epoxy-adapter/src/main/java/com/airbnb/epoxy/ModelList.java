@@ -15,6 +15,10 @@ import java.util.NoSuchElementException;
  * Used by our {@link EpoxyAdapter} to track models. It simply wraps ArrayList and notifies an
  * observer when remove or insertion operations are done on the list. This allows us to optimize
  * diffing since we have a knowledge of what changed in the list.
+ * <p>
+ * It also keeps an index of model ids to positions, so that {@link #indexOfModel(EpoxyModel)}
+ * doesn't need to search the list. The index is filled in lazily, and a change to the list only
+ * invalidates the entries at or after the changed position.
  */
 class ModelList extends ArrayList<EpoxyModel<?>> {
 
@@ -26,6 +30,24 @@ class ModelList extends ArrayList<EpoxyModel<?>> {
   private boolean notificationsPaused;
   private ModelListObserver observer;
 
+  private final LongIntHashMap indexById = new LongIntHashMap();
+  /** The models before this position are in {@link #indexById} at their current position. */
+  private int indexedCount;
+  /**
+   * The mod count at the last change we know about. If it differs then the list was changed
+   * without going through our methods, such as by {@link java.util.Collections#sort(List)} on
+   * newer platforms, and the whole index is rebuilt.
+   */
+  private int indexedModCount;
+
+  ModelList() {
+  }
+
+  /** Creates a list of the given models, which doesn't notify an observer until one is set. */
+  ModelList(Collection<? extends EpoxyModel<?>> models) {
+    super(models);
+  }
+
   void pauseNotifications() {
     if (notificationsPaused) {
       throw new IllegalStateException("Notifications already paused");
@@ -56,8 +78,96 @@ class ModelList extends ArrayList<EpoxyModel<?>> {
     }
   }
 
+  /**
+   * Returns the position of the given model instance in the list, or -1 if it isn't in the list.
+   * Unlike {@link #indexOf(Object)} this compares by identity instead of with equals.
+   */
+  int indexOfModel(EpoxyModel<?> model) {
+    syncIndexWithModCount();
+
+    int index = indexById.get(model.id());
+    if (index != LongIntHashMap.NO_VALUE && index < indexedCount && get(index) == model) {
+      return index;
+    }
+
+    int size = size();
+    while (indexedCount < size) {
+      EpoxyModel<?> indexedModel = get(indexedCount);
+      indexById.put(indexedModel.id(), indexedCount);
+      indexedCount++;
+
+      if (indexedModel == model) {
+        return indexedCount - 1;
+      }
+    }
+
+    // The model isn't in the list, or it shares its id with another model, or its id was changed
+    // after it was indexed. Ids only have to be unique when diffing, so fall back to a search.
+    for (int i = 0; i < size; i++) {
+      if (get(i) == model) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Returns the position of the model with the given id, or -1 if there is none. Like {@link
+   * #indexOfModel(EpoxyModel)} this looks the id up in the index instead of searching the list. If
+   * several models share the id then the position of one of them may be returned, or -1.
+   */
+  int indexOfId(long id) {
+    syncIndexWithModCount();
+
+    int index = indexById.get(id);
+    if (index != LongIntHashMap.NO_VALUE && index < indexedCount && get(index).id() == id) {
+      return index;
+    }
+
+    int size = size();
+    while (indexedCount < size) {
+      EpoxyModel<?> indexedModel = get(indexedCount);
+      indexById.put(indexedModel.id(), indexedCount);
+      indexedCount++;
+
+      if (indexedModel.id() == id) {
+        return indexedCount - 1;
+      }
+    }
+
+    return -1;
+  }
+
+  /** Called before the list is changed at the given position. */
+  private void invalidateIndexFrom(int position) {
+    syncIndexWithModCount();
+    indexedCount = Math.min(indexedCount, position);
+  }
+
+  /** Called after the list is changed, to record that the index already accounts for it. */
+  private void onIndexChanged() {
+    indexedModCount = modCount;
+  }
+
+  private void syncIndexWithModCount() {
+    if (modCount != indexedModCount) {
+      indexedCount = 0;
+      indexedModCount = modCount;
+    }
+  }
+
+  @Override
+  public void ensureCapacity(int minCapacity) {
+    // Growing the list counts as a modification, but doesn't move any models
+    syncIndexWithModCount();
+    super.ensureCapacity(minCapacity);
+    onIndexChanged();
+  }
+
   @Override
   public EpoxyModel<?> set(int index, EpoxyModel<?> element) {
+    invalidateIndexFrom(index);
     EpoxyModel<?> previousModel = super.set(index, element);
 
     if (previousModel.id() != element.id()) {
@@ -71,31 +181,45 @@ class ModelList extends ArrayList<EpoxyModel<?>> {
   @Override
   public boolean add(EpoxyModel<?> epoxyModel) {
     notifyInsertion(size(), 1);
-    return super.add(epoxyModel);
+    invalidateIndexFrom(size());
+    boolean result = super.add(epoxyModel);
+    onIndexChanged();
+    return result;
   }
 
   @Override
   public void add(int index, EpoxyModel<?> element) {
     notifyInsertion(index, 1);
+    invalidateIndexFrom(index);
     super.add(index, element);
+    onIndexChanged();
   }
 
   @Override
   public boolean addAll(Collection<? extends EpoxyModel<?>> c) {
     notifyInsertion(size(), c.size());
-    return super.addAll(c);
+    invalidateIndexFrom(size());
+    boolean result = super.addAll(c);
+    onIndexChanged();
+    return result;
   }
 
   @Override
   public boolean addAll(int index, Collection<? extends EpoxyModel<?>> c) {
     notifyInsertion(index, c.size());
-    return super.addAll(index, c);
+    invalidateIndexFrom(index);
+    boolean result = super.addAll(index, c);
+    onIndexChanged();
+    return result;
   }
 
   @Override
   public EpoxyModel<?> remove(int index) {
     notifyRemoval(index, 1);
-    return super.remove(index);
+    invalidateIndexFrom(index);
+    EpoxyModel<?> removedModel = super.remove(index);
+    onIndexChanged();
+    return removedModel;
   }
 
   @Override
@@ -107,7 +231,9 @@ class ModelList extends ArrayList<EpoxyModel<?>> {
     }
 
     notifyRemoval(index, 1);
+    invalidateIndexFrom(index);
     super.remove(index);
+    onIndexChanged();
     return true;
   }
 
@@ -116,6 +242,9 @@ class ModelList extends ArrayList<EpoxyModel<?>> {
     if (!isEmpty()) {
       notifyRemoval(0, size());
       super.clear();
+      indexById.clear();
+      indexedCount = 0;
+      onIndexChanged();
     }
   }
 
@@ -126,7 +255,9 @@ class ModelList extends ArrayList<EpoxyModel<?>> {
     }
 
     notifyRemoval(fromIndex, toIndex - fromIndex);
+    invalidateIndexFrom(fromIndex);
     super.removeRange(fromIndex, toIndex);
+    onIndexChanged();
   }
 
   @Override
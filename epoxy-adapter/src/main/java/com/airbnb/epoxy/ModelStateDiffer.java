@@ -0,0 +1,319 @@
+package com.airbnb.epoxy;
+
+import android.support.annotation.Nullable;
+
+import java.util.List;
+
+import static com.airbnb.epoxy.ModelStateList.NO_INDEX;
+
+/**
+ * Computes the operations that transform one list of model states into another. This works with
+ * the states of the models, and only touches the items the states were taken from through an
+ * {@link ItemComparator}, if one is given and both state lists kept the items.
+ */
+final class ModelStateDiffer {
+
+  /**
+   * Decides whether an item changed, for items whose state kept the item it was taken from. This
+   * lets items be compared by more than their hash codes without the differ knowing their type.
+   */
+  interface ItemComparator {
+    /**
+     * Returns true if the item changed from the previous item with the same id.
+     *
+     * @param previousItem The previous item, or null if its state didn't keep it.
+     */
+    boolean hasChanged(@Nullable Object previousItem, int previousHashCode, Object item,
+        int hashCode);
+  }
+
+  private ModelStateDiffer() {
+  }
+
+  /**
+   * Collects the operations that transform the old state list into the current one. This only
+   * touches the given states, so it is safe to run off the main thread on snapshots of the models.
+   *
+   * @param diffResult If not null, the time spent in each stage of the diff is added to this.
+   */
+  static UpdateOpHelper computeDiff(ModelStateList oldStateList,
+      ModelStateList currentStateList, UpdateOpHelper updateOpHelper,
+      @Nullable MinimalMoveCollector minimalMoveCollector, @Nullable DiffResult diffResult) {
+    return computeDiff(oldStateList, currentStateList, updateOpHelper, minimalMoveCollector,
+        diffResult, null);
+  }
+
+  /**
+   * Collects the operations that transform the old state list into the current one, comparing
+   * items that kept the item their state was taken from with the given comparator.
+   *
+   * @param itemComparator If null, items are only compared by their hash codes.
+   * @see #computeDiff(ModelStateList, ModelStateList, UpdateOpHelper, MinimalMoveCollector,
+   * DiffResult)
+   */
+  static UpdateOpHelper computeDiff(ModelStateList oldStateList,
+      ModelStateList currentStateList, UpdateOpHelper updateOpHelper,
+      @Nullable MinimalMoveCollector minimalMoveCollector, @Nullable DiffResult diffResult,
+      @Nullable ItemComparator itemComparator) {
+    long stageStartNanos = diffResult != null ? System.nanoTime() : 0;
+
+    // The general approach is to first search for removals, then additions, and lastly changes.
+    // Focusing on one type of operation at a time makes it easy to coalesce batch changes.
+    // When we identify an operation and add it to the
+    // result list we update the positions of items in the oldStateList to reflect
+    // the change, this way subsequent operations will use the correct, updated positions.
+    collectRemovals(oldStateList, currentStateList, updateOpHelper);
+    if (diffResult != null) {
+      stageStartNanos = diffResult.recordStage(DiffResult.STAGE_REMOVALS, stageStartNanos);
+    }
+
+    // Only need to check for insertions if new list is bigger
+    boolean hasInsertions =
+        oldStateList.size - updateOpHelper.getNumRemovals() != currentStateList.size;
+    if (hasInsertions) {
+      collectInsertions(oldStateList, currentStateList, updateOpHelper);
+    }
+    if (diffResult != null) {
+      stageStartNanos = diffResult.recordStage(DiffResult.STAGE_INSERTIONS, stageStartNanos);
+    }
+
+    if (minimalMoveCollector != null) {
+      minimalMoveCollector.collectMoves(oldStateList, currentStateList, updateOpHelper);
+    } else {
+      collectMoves(oldStateList, currentStateList, updateOpHelper);
+    }
+    if (diffResult != null) {
+      stageStartNanos = diffResult.recordStage(DiffResult.STAGE_MOVES, stageStartNanos);
+    }
+
+    collectChanges(oldStateList, currentStateList, updateOpHelper, itemComparator);
+    if (diffResult != null) {
+      diffResult.recordStage(DiffResult.STAGE_CHANGES, stageStartNanos);
+    }
+
+    return updateOpHelper;
+  }
+
+  /**
+   * Find all removal operations and add them to the result list. The general strategy here is to
+   * walk through the old state list and check for items that don't exist in the new list.
+   * Walking through it in order makes it easy to batch adjacent removals.
+   */
+  private static void collectRemovals(ModelStateList oldStateList,
+      ModelStateList currentStateList, UpdateOpHelper helper) {
+    for (int i = 0; i < oldStateList.size; i++) {
+      // Update the position of the item to take into account previous removals,
+      // so that future operations will reference the correct position
+      oldStateList.positions[i] -= helper.getNumRemovals();
+
+      // This is our first time going through the list, so we
+      // look up the item with the matching id in the new
+      // list and hold a reference to it so that we can access it quickly in the future
+      int pair = currentStateList.indexOf(oldStateList.ids[i]);
+      oldStateList.pairs[i] = pair;
+      if (pair != NO_INDEX) {
+        currentStateList.pairs[pair] = i;
+        continue;
+      }
+
+      helper.remove(oldStateList.positions[i]);
+    }
+  }
+
+  /**
+   * Find all insertion operations and add them to the result list. The general strategy here is to
+   * walk through the current state list and check for items that don't exist in the old
+   * list. Walking through it in order makes it easy to batch adjacent insertions.
+   */
+  private static void collectInsertions(ModelStateList oldStateList,
+      ModelStateList currentStateList, UpdateOpHelper helper) {
+    int nextOldIndex = 0;
+
+    for (int i = 0; i < currentStateList.size; i++) {
+      if (currentStateList.pairs[i] != NO_INDEX) {
+        // Update the position of the next item in the old list to take any insertions into account
+        int nextOldItem = getNextItemWithPair(oldStateList, nextOldIndex);
+        if (nextOldItem != NO_INDEX) {
+          oldStateList.positions[nextOldItem] += helper.getNumInsertions();
+          nextOldIndex = nextOldItem + 1;
+        }
+        continue;
+      }
+
+      helper.add(currentStateList.positions[i]);
+    }
+  }
+
+  /**
+   * Check if any items have had their values changed, batching if possible.
+   */
+  private static void collectChanges(ModelStateList oldStateList,
+      ModelStateList currentStateList, UpdateOpHelper helper,
+      @Nullable ItemComparator itemComparator) {
+    for (int i = 0; i < currentStateList.size; i++) {
+      int pair = currentStateList.pairs[i];
+      if (pair == NO_INDEX) {
+        continue;
+      }
+
+      if (hasChanged(oldStateList, pair, currentStateList, i, itemComparator)) {
+        helper.update(currentStateList.positions[i]);
+      }
+    }
+  }
+
+  /** Returns true if the item at the given index in the new list changed from its old state. */
+  private static boolean hasChanged(ModelStateList oldStateList, int oldIndex,
+      ModelStateList currentStateList, int index, @Nullable ItemComparator itemComparator) {
+    Object item = currentStateList.items[index];
+    if (itemComparator == null || item == null) {
+      return oldStateList.hashCodes[oldIndex] != currentStateList.hashCodes[index];
+    }
+    return itemComparator.hasChanged(oldStateList.items[oldIndex],
+        oldStateList.hashCodes[oldIndex], item, currentStateList.hashCodes[index]);
+  }
+
+  /**
+   * Check which items have had a position changed. Recyclerview does not support batching these.
+   */
+  private static void collectMoves(ModelStateList oldStateList,
+      ModelStateList currentStateList, UpdateOpHelper helper) {
+    // This walks through both the new and old list simultaneous and checks for position changes.
+    // Items are referenced by their index in their list, and an item's pair is in the other list.
+    int nextOldIndex = 0;
+    int nextOldItem = NO_INDEX;
+
+    for (int newItem = 0; newItem < currentStateList.size; newItem++) {
+      if (currentStateList.pairs[newItem] == NO_INDEX) {
+        // This item was inserted. However, insertions are done at the item's final position, and
+        // aren't smart about inserting at a different position to take future moves into account.
+        // As the old state list is updated to reflect moves, it needs to also consider insertions
+        // affected by those moves in order for the final change set to be correct
+        if (helper.moves.isEmpty()) {
+          // There have been no moves, so the item is still at it's correct position
+          continue;
+        } else {
+          // There have been moves, so the old list needs to take this inserted item
+          // into account. The old list doesn't have this item inserted into it
+          // (for optimization purposes), but we can create a pair for this item to
+          // track its position in the old list and move it back to its final position if necessary
+          currentStateList.pairs[newItem] = oldStateList.addDetached(
+              currentStateList.ids[newItem],
+              currentStateList.hashCodes[newItem],
+              currentStateList.positions[newItem],
+              newItem);
+        }
+      }
+
+      // We could iterate through only the new list and move each
+      // item that is out of place, however in cases such as moving the first item
+      // to the end, that strategy would do many moves to move all
+      // items up one instead of doing one move to move the first item to the end.
+      // To avoid this we compare the old item to the new item at
+      // each index and move the one that is farthest from its correct position.
+      // We only move on from a new item once its pair is placed in
+      // the correct spot. Since we move from start to end, all new items we've
+      // already iterated through are guaranteed to have their pair
+      // be already in the right spot, which won't be affected by future MOVEs.
+      int newItemPair = currentStateList.pairs[newItem];
+      if (nextOldItem == NO_INDEX) {
+        nextOldItem = getNextItemWithPair(oldStateList, nextOldIndex);
+
+        // We've already iterated through all old items and moved each
+        // item once. However, subsequent moves may have shifted an item out of
+        // its correct space once it was already moved. We finish
+        // iterating through all the new items to ensure everything is still correct
+        if (nextOldItem == NO_INDEX) {
+          nextOldItem = newItemPair;
+        } else {
+          nextOldIndex = nextOldItem + 1;
+        }
+      }
+
+      while (nextOldItem != NO_INDEX) {
+        // Make sure the positions are updated to the latest
+        // move operations before we calculate the next move
+        updateItemPosition(oldStateList, newItemPair, helper.moves);
+        updateItemPosition(oldStateList, nextOldItem, helper.moves);
+
+        int newItemPosition = currentStateList.positions[newItem];
+        int oldItemPosition = oldStateList.positions[nextOldItem];
+
+        // The item is the same and its already in the correct place
+        if (currentStateList.ids[newItem] == oldStateList.ids[nextOldItem]
+            && newItemPosition == oldItemPosition) {
+          nextOldItem = NO_INDEX;
+          break;
+        }
+
+        int oldItemTarget = currentStateList.positions[oldStateList.pairs[nextOldItem]];
+        int newItemDistance = oldStateList.positions[newItemPair] - newItemPosition;
+        int oldItemDistance = oldItemTarget - oldItemPosition;
+
+        // Both items are already in the correct position
+        if (newItemDistance == 0 && oldItemDistance == 0) {
+          nextOldItem = NO_INDEX;
+          break;
+        }
+
+        if (oldItemDistance > newItemDistance) {
+          helper.move(oldItemPosition, oldItemTarget);
+
+          oldStateList.positions[nextOldItem] = oldItemTarget;
+          oldStateList.lastMoveOps[nextOldItem] = helper.getNumMoves();
+
+          nextOldItem = getNextItemWithPair(oldStateList, nextOldIndex);
+          if (nextOldItem != NO_INDEX) {
+            nextOldIndex = nextOldItem + 1;
+          }
+        } else {
+          helper.move(oldStateList.positions[newItemPair], newItemPosition);
+
+          oldStateList.positions[newItemPair] = newItemPosition;
+          oldStateList.lastMoveOps[newItemPair] = helper.getNumMoves();
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Apply the movement operations to the given item to update its position. Only applies the
+   * operations that have not been applied yet, and stores how many operations have been applied so
+   * we know which ones to apply next time.
+   */
+  private static void updateItemPosition(ModelStateList states, int item, List<UpdateOp> moveOps) {
+    int size = moveOps.size();
+    int position = states.positions[item];
+
+    for (int i = states.lastMoveOps[item]; i < size; i++) {
+      UpdateOp moveOp = moveOps.get(i);
+      int fromPosition = moveOp.positionStart;
+      int toPosition = moveOp.itemCount;
+
+      if (position > fromPosition && position <= toPosition) {
+        position--;
+      } else if (position < fromPosition && position >= toPosition) {
+        position++;
+      }
+    }
+
+    states.positions[item] = position;
+    states.lastMoveOps[item] = size;
+  }
+
+  /**
+   * Gets the index of the next item in the list, starting at the given index, that has a pair,
+   * meaning it wasn't inserted or removed. Returns {@link ModelStateList#NO_INDEX} if there are no
+   * more items with a pair.
+   */
+  private static int getNextItemWithPair(ModelStateList states, int startIndex) {
+    for (int i = startIndex; i < states.size; i++) {
+      if (states.pairs[i] != NO_INDEX) {
+        return i;
+      }
+    }
+
+    return NO_INDEX;
+  }
+}
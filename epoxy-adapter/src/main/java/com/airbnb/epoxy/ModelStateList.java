@@ -0,0 +1,289 @@
+package com.airbnb.epoxy;
+
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Helper to store relevant information about a list of models that we need to determine if they
+ * changed. Each model's state is kept at its index in a set of parallel arrays instead of in an
+ * object per model. The arrays, and the map of ids to indices, are reused when the list is
+ * cleared and refilled, so diffing a list of the same size again doesn't allocate anything.
+ */
+class ModelStateList {
+  /** Used in {@link #pairs} for items without a pair, and when an id is not in the list. */
+  static final int NO_INDEX = LongIntHashMap.NO_VALUE;
+  private static final int MIN_CAPACITY = 16;
+
+  /** The number of models in the list. */
+  int size;
+  /** The number of detached states stored after the end of the list. */
+  private int detachedCount;
+
+  long[] ids;
+  int[] hashCodes;
+  /**
+   * The item each state was taken from, so that a {@link ModelStateDiffer.ItemComparator} can
+   * compare an item with the one it replaces. This is null for states set without an item.
+   */
+  Object[] items;
+  int[] positions;
+  /**
+   * The index of the item with the same id in the other list when diffing two lists. This will be
+   * {@link #NO_INDEX} if the item doesn't exist, in the case of insertions or removals. This is an
+   * optimization to prevent having to look up the matching pair in the id map every time.
+   */
+  int[] pairs;
+  /**
+   * How many movement operations have been applied to each item in order to update its position. As
+   * we find more item movements we need to update the position of affected items in the list in
+   * order to correctly calculate the next movement. Instead of iterating through all items in the
+   * list every time a movement operation happens we keep track of how many of these operations have
+   * been applied to an item, and apply all new operations in order when we need to get this item's
+   * up to date position.
+   */
+  int[] lastMoveOps;
+
+  private final LongIntHashMap indexById;
+
+  ModelStateList() {
+    this(MIN_CAPACITY);
+  }
+
+  ModelStateList(int capacity) {
+    capacity = Math.max(capacity, MIN_CAPACITY);
+    ids = new long[capacity];
+    hashCodes = new int[capacity];
+    items = new Object[capacity];
+    positions = new int[capacity];
+    pairs = new int[capacity];
+    lastMoveOps = new int[capacity];
+    indexById = new LongIntHashMap(capacity);
+  }
+
+  /** Returns the index of the item with the given id, or {@link #NO_INDEX} if there is none. */
+  int indexOf(long id) {
+    return indexById.get(id);
+  }
+
+  void clear() {
+    // Items are let go of so the list doesn't keep removed models from being collected
+    Arrays.fill(items, 0, size + detachedCount, null);
+    size = 0;
+    detachedCount = 0;
+    indexById.clear();
+  }
+
+  /**
+   * Sets the state of the item at the given index, replacing whatever was there. The item starts
+   * out unpaired, with its position equal to its index.
+   *
+   * @return The index of another item that already has this id, or {@link #NO_INDEX} if the id is
+   * unique.
+   */
+  int set(int index, long id, int hashCode) {
+    return set(index, id, hashCode, null);
+  }
+
+  /**
+   * Sets the state of the item at the given index, along with the item it was taken from.
+   *
+   * @see #set(int, long, int)
+   */
+  int set(int index, long id, int hashCode, @Nullable Object item) {
+    ids[index] = id;
+    hashCodes[index] = hashCode;
+    items[index] = item;
+    positions[index] = index;
+    pairs[index] = NO_INDEX;
+    lastMoveOps[index] = 0;
+
+    int previousIndex = indexById.put(id, index);
+    return previousIndex == index ? NO_INDEX : previousIndex;
+  }
+
+  /**
+   * Opens up space for the given number of items at the given index by shifting later items back.
+   * The new items must then be filled in with {@link #set(int, long, int)}.
+   */
+  void insertRange(int positionStart, int itemCount) {
+    ensureCapacity(size + itemCount);
+    int itemsToShift = size - positionStart;
+    shift(positionStart, positionStart + itemCount, itemsToShift);
+    size += itemCount;
+    updateIndices(positionStart + itemCount, size);
+  }
+
+  void removeRange(int positionStart, int itemCount) {
+    int end = positionStart + itemCount;
+    for (int i = positionStart; i < end; i++) {
+      indexById.remove(ids[i]);
+    }
+
+    shift(end, positionStart, size - end);
+    size -= itemCount;
+    Arrays.fill(items, size, size + itemCount, null);
+    updateIndices(positionStart, size);
+  }
+
+  void move(int fromPosition, int toPosition) {
+    long id = ids[fromPosition];
+    int hashCode = hashCodes[fromPosition];
+    Object item = items[fromPosition];
+
+    if (fromPosition < toPosition) {
+      shift(fromPosition + 1, fromPosition, toPosition - fromPosition);
+    } else {
+      shift(toPosition, toPosition + 1, fromPosition - toPosition);
+    }
+
+    ids[toPosition] = id;
+    hashCodes[toPosition] = hashCode;
+    items[toPosition] = item;
+    updateIndices(Math.min(fromPosition, toPosition), Math.max(fromPosition, toPosition) + 1);
+  }
+
+  /**
+   * Moves a block of items so that the first of them ends up at the given position. The block is
+   * rotated into place, so this doesn't allocate and touches only the items between the two
+   * positions.
+   */
+  void moveRange(int fromPosition, int toPosition, int itemCount) {
+    if (itemCount == 1) {
+      move(fromPosition, toPosition);
+      return;
+    }
+
+    int start;
+    int end;
+    int splitPosition;
+    if (fromPosition < toPosition) {
+      // The block moves back past the items that follow it
+      start = fromPosition;
+      end = toPosition + itemCount;
+      splitPosition = fromPosition + itemCount;
+    } else {
+      // The items before the block move back past it
+      start = toPosition;
+      end = fromPosition + itemCount;
+      splitPosition = fromPosition;
+    }
+
+    reverse(start, splitPosition);
+    reverse(splitPosition, end);
+    reverse(start, end);
+    updateIndices(start, end);
+  }
+
+  /**
+   * Resets the diff information of all items so the list can be diffed again. Items keep their id
+   * and hash code, and their position is reset to their index.
+   */
+  void resetPairs() {
+    detachedCount = 0;
+    for (int i = 0; i < size; i++) {
+      positions[i] = i;
+      pairs[i] = NO_INDEX;
+      lastMoveOps[i] = 0;
+    }
+  }
+
+  /**
+   * Stores a state after the end of the list, which isn't part of the list itself. This is used as
+   * the pair for an item inserted into the other list, when we need to track moves that effect the
+   * inserted item in this list.
+   *
+   * @return The index of the new state.
+   */
+  int addDetached(long id, int hashCode, int position, int pair) {
+    int index = size + detachedCount;
+    ensureCapacity(index + 1);
+    detachedCount++;
+
+    ids[index] = id;
+    hashCodes[index] = hashCode;
+    items[index] = null;
+    positions[index] = position;
+    pairs[index] = pair;
+    lastMoveOps[index] = 0;
+
+    return index;
+  }
+
+  /**
+   * Creates an unpaired copy of this list, so that a diff can be computed on it separately. The
+   * items are shared with this list, so that they can still be compared by a {@link
+   * ModelStateDiffer.ItemComparator}.
+   */
+  ModelStateList copy() {
+    ModelStateList copy = new ModelStateList(size);
+    System.arraycopy(ids, 0, copy.ids, 0, size);
+    System.arraycopy(hashCodes, 0, copy.hashCodes, 0, size);
+    System.arraycopy(items, 0, copy.items, 0, size);
+    copy.size = size;
+    copy.resetPairs();
+    copy.updateIndices(0, size);
+    return copy;
+  }
+
+  private void shift(int from, int to, int length) {
+    System.arraycopy(ids, from, ids, to, length);
+    System.arraycopy(hashCodes, from, hashCodes, to, length);
+    System.arraycopy(items, from, items, to, length);
+  }
+
+  private void reverse(int start, int end) {
+    for (int i = start, j = end - 1; i < j; i++, j--) {
+      long id = ids[i];
+      ids[i] = ids[j];
+      ids[j] = id;
+
+      int hashCode = hashCodes[i];
+      hashCodes[i] = hashCodes[j];
+      hashCodes[j] = hashCode;
+
+      Object item = items[i];
+      items[i] = items[j];
+      items[j] = item;
+    }
+  }
+
+  private void updateIndices(int start, int end) {
+    for (int i = start; i < end; i++) {
+      positions[i] = i;
+      indexById.put(ids[i], i);
+    }
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= ids.length) {
+      return;
+    }
+
+    int newCapacity = Math.max(capacity, ids.length * 2);
+    ids = Arrays.copyOf(ids, newCapacity);
+    hashCodes = Arrays.copyOf(hashCodes, newCapacity);
+    items = Arrays.copyOf(items, newCapacity);
+    positions = Arrays.copyOf(positions, newCapacity);
+    pairs = Arrays.copyOf(pairs, newCapacity);
+    lastMoveOps = Arrays.copyOf(lastMoveOps, newCapacity);
+    indexById.ensureCapacity(newCapacity);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("ModelStateList{");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append("{id=").append(ids[i])
+          .append(", hashCode=").append(hashCodes[i])
+          .append(", position=").append(positions[i])
+          .append(", pair=").append(pairs[i])
+          .append(", lastMoveOp=").append(lastMoveOps[i])
+          .append('}');
+    }
+    return sb.append('}').toString();
+  }
+}
@@ -0,0 +1,137 @@
+package com.airbnb.epoxy;
+
+import android.support.annotation.LayoutRes;
+import android.support.annotation.Nullable;
+
+/**
+ * The time spent creating, binding and unbinding views for one model class and layout, as recorded
+ * by a {@link BindingProfiler}. Instances returned from {@link BindingProfiler#getSnapshot()} don't
+ * change as more timings are recorded.
+ */
+public final class ModelTimings {
+  @Nullable private final Class<?> modelClass;
+  @LayoutRes private final int layout;
+
+  int inflateCount;
+  long inflateNanos;
+  int bindCount;
+  long bindNanos;
+  long maxBindNanos;
+  int saveStateCount;
+  long saveStateNanos;
+  int restoreStateCount;
+  long restoreStateNanos;
+  int unbindCount;
+  long unbindNanos;
+
+  ModelTimings(@Nullable Class<?> modelClass, @LayoutRes int layout) {
+    this.modelClass = modelClass;
+    this.layout = layout;
+  }
+
+  boolean matches(@Nullable Class<?> modelClass, @LayoutRes int layout) {
+    return this.modelClass == modelClass && this.layout == layout;
+  }
+
+  ModelTimings copy() {
+    ModelTimings copy = new ModelTimings(modelClass, layout);
+    copy.inflateCount = inflateCount;
+    copy.inflateNanos = inflateNanos;
+    copy.bindCount = bindCount;
+    copy.bindNanos = bindNanos;
+    copy.maxBindNanos = maxBindNanos;
+    copy.saveStateCount = saveStateCount;
+    copy.saveStateNanos = saveStateNanos;
+    copy.restoreStateCount = restoreStateCount;
+    copy.restoreStateNanos = restoreStateNanos;
+    copy.unbindCount = unbindCount;
+    copy.unbindNanos = unbindNanos;
+    return copy;
+  }
+
+  /**
+   * The class of the models these timings are for. This is null for views that were created when
+   * the model they were created for couldn't be determined.
+   */
+  @Nullable
+  public Class<?> getModelClass() {
+    return modelClass;
+  }
+
+  @LayoutRes
+  public int getLayout() {
+    return layout;
+  }
+
+  /** The number of view holders created, which includes inflating their views. */
+  public int getInflateCount() {
+    return inflateCount;
+  }
+
+  public long getInflateNanos() {
+    return inflateNanos;
+  }
+
+  /** The number of times a model was bound to a view. */
+  public int getBindCount() {
+    return bindCount;
+  }
+
+  public long getBindNanos() {
+    return bindNanos;
+  }
+
+  /** The longest time that binding a single model took. */
+  public long getMaxBindNanos() {
+    return maxBindNanos;
+  }
+
+  /**
+   * The number of times the state of a view was saved, for models that {@link
+   * EpoxyModel#shouldSaveViewState()}.
+   */
+  public int getSaveStateCount() {
+    return saveStateCount;
+  }
+
+  public long getSaveStateNanos() {
+    return saveStateNanos;
+  }
+
+  /** The number of times the saved state of a view was restored when it was bound. */
+  public int getRestoreStateCount() {
+    return restoreStateCount;
+  }
+
+  public long getRestoreStateNanos() {
+    return restoreStateNanos;
+  }
+
+  /** The number of times a model was unbound from a recycled view. */
+  public int getUnbindCount() {
+    return unbindCount;
+  }
+
+  public long getUnbindNanos() {
+    return unbindNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "ModelTimings{"
+        + "modelClass=" + (modelClass != null ? modelClass.getSimpleName() : null)
+        + ", layout=" + layout
+        + ", inflateCount=" + inflateCount
+        + ", inflateNanos=" + inflateNanos
+        + ", bindCount=" + bindCount
+        + ", bindNanos=" + bindNanos
+        + ", maxBindNanos=" + maxBindNanos
+        + ", saveStateCount=" + saveStateCount
+        + ", saveStateNanos=" + saveStateNanos
+        + ", restoreStateCount=" + restoreStateCount
+        + ", restoreStateNanos=" + restoreStateNanos
+        + ", unbindCount=" + unbindCount
+        + ", unbindNanos=" + unbindNanos
+        + '}';
+  }
+}
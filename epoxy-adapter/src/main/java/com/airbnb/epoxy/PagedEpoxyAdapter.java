@@ -0,0 +1,467 @@
+package com.airbnb.epoxy;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.Nullable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * An adapter for very large lists, where models are only built for the parts of the list that are
+ * near the items being shown. The list is split into pages of a fixed size. A page is loaded with
+ * {@link #onLoadPage(int, int, int)} when an item near it is bound, and until it is loaded each of
+ * its items is shown with a placeholder model from {@link #buildPlaceholderModel(int)}.
+ * Placeholders are only built once their item is shown.
+ * <p>
+ * Once more than {@link #setMaxLoadedPages(int)} pages are loaded, the pages farthest from the
+ * items being shown are evicted and go back to showing placeholders. When a loaded page is loaded
+ * again, such as after {@link #invalidatePage(int)}, its old and new models are diffed, so only the
+ * loaded page is compared instead of the whole list.
+ * <p>
+ * The size of the list is set with {@link #setTotalItemCount(int)}. The {@link #models} list and
+ * its helper methods aren't used, and diffing with {@link #notifyModelsChanged()} isn't supported.
+ * Model ids must be unique across all loaded pages.
+ */
+public abstract class PagedEpoxyAdapter extends EpoxyAdapter {
+  public static final int DEFAULT_PREFETCH_PAGES = 1;
+  public static final int DEFAULT_MAX_LOADED_PAGES = 5;
+
+  private final int pageSize;
+  private final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+  private int totalItemCount;
+  /** The pages of the list, which are null until one of their items is shown or loaded. */
+  private Page[] pages = new Page[0];
+  private int loadedPageCount;
+  private int prefetchPages = DEFAULT_PREFETCH_PAGES;
+  private int maxLoadedPages = DEFAULT_MAX_LOADED_PAGES;
+  /** The page of the item most recently bound, which loads and evictions are centered on. */
+  private int currentPage;
+  private boolean loadScheduled;
+  // Reused for each page that is diffed
+  private final ModelStateList oldPageStates = new ModelStateList();
+  private final ModelStateList newPageStates = new ModelStateList();
+  private final UpdateOpHelper updateOpHelper = new UpdateOpHelper();
+
+  private final List<EpoxyModel<?>> pagedModels = new AbstractList<EpoxyModel<?>>() {
+    @Override
+    public EpoxyModel<?> get(int position) {
+      return getPagedModel(position);
+    }
+
+    @Override
+    public int size() {
+      return totalItemCount;
+    }
+  };
+
+  private final Runnable loadPagesRunnable = new Runnable() {
+    @Override
+    public void run() {
+      loadPagesAround(currentPage);
+    }
+  };
+
+  private static class Page {
+    /**
+     * The loaded models of the page, or its placeholders if it isn't loaded. Placeholders are null
+     * until they are first shown.
+     */
+    final EpoxyModel<?>[] models;
+    boolean loaded;
+    boolean loading;
+
+    Page(int itemCount) {
+      models = new EpoxyModel<?>[itemCount];
+    }
+  }
+
+  protected PagedEpoxyAdapter(int pageSize) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("Page size must be at least 1: " + pageSize);
+    }
+
+    this.pageSize = pageSize;
+    setDisplayedModels(pagedModels);
+  }
+
+  /**
+   * Called when a page should be loaded because an item near it was bound, or it was invalidated.
+   * Subclasses should build the models for the items in the page, on any thread, and then pass them
+   * to {@link #setPageModels(int, List)} on the main thread.
+   *
+   * @param page          The index of the page to load.
+   * @param positionStart The position of the first item in the page.
+   * @param itemCount     The number of items in the page, which is the page size except for the
+   *                      last page.
+   */
+  protected abstract void onLoadPage(int page, int positionStart, int itemCount);
+
+  /**
+   * Builds the model to show at the given position while its page isn't loaded. This is only
+   * called once the item is shown, and the placeholder is kept until its page is loaded or evicted.
+   */
+  protected abstract EpoxyModel<?> buildPlaceholderModel(int position);
+
+  /**
+   * Sets the number of items in the list. If the last page changes size then it is reset to
+   * placeholders, along with any pages after it, and those items are notified as removed and
+   * inserted again. Loads that were requested for a reset page may still be set, as long as they
+   * have the number of items the page now has.
+   */
+  protected void setTotalItemCount(int itemCount) {
+    if (itemCount < 0) {
+      throw new IllegalArgumentException("Item count cannot be negative: " + itemCount);
+    }
+
+    int oldItemCount = totalItemCount;
+    if (itemCount == oldItemCount) {
+      return;
+    }
+
+    int firstResetPage = Math.min(oldItemCount, itemCount) / pageSize;
+    for (int i = firstResetPage; i < pages.length; i++) {
+      if (pages[i] != null && pages[i].loaded) {
+        loadedPageCount--;
+      }
+    }
+
+    pages = Arrays.copyOf(pages, getPageCount(itemCount));
+    if (firstResetPage < pages.length) {
+      Arrays.fill(pages, firstResetPage, pages.length, null);
+    }
+    totalItemCount = itemCount;
+
+    int resetStart = firstResetPage * pageSize;
+    if (oldItemCount > resetStart) {
+      notifyItemRangeRemoved(resetStart, oldItemCount - resetStart);
+    }
+    if (itemCount > resetStart) {
+      notifyItemRangeInserted(resetStart, itemCount - resetStart);
+    }
+  }
+
+  /**
+   * Sets how many pages on each side of the page being shown are loaded ahead of scrolling. The
+   * default is {@link #DEFAULT_PREFETCH_PAGES}.
+   */
+  protected void setPrefetchPages(int prefetchPages) {
+    if (prefetchPages < 0) {
+      throw new IllegalArgumentException("Prefetch pages cannot be negative: " + prefetchPages);
+    }
+
+    this.prefetchPages = prefetchPages;
+  }
+
+  /**
+   * Sets how many pages are kept loaded before the ones farthest from the page being shown are
+   * evicted. Pages within the prefetch distance of the page being shown are never evicted, so more
+   * pages than this may be loaded if it is less than the prefetch window. The default is {@link
+   * #DEFAULT_MAX_LOADED_PAGES}.
+   */
+  protected void setMaxLoadedPages(int maxLoadedPages) {
+    if (maxLoadedPages < 1) {
+      throw new IllegalArgumentException("Max loaded pages must be at least 1: " + maxLoadedPages);
+    }
+
+    this.maxLoadedPages = maxLoadedPages;
+  }
+
+  /**
+   * Sets the models of a page, replacing its placeholders or the models it was loaded with before.
+   * If the page was already loaded then the old and new models are diffed, and only the changes are
+   * notified. Otherwise the whole page is notified as changed. This must be called on the main
+   * thread.
+   *
+   * @param pageModels The models for the items in the page, in order. There must be exactly as
+   *                   many as there are items in the page.
+   */
+  protected void setPageModels(int page, List<? extends EpoxyModel<?>> pageModels) {
+    if (page < 0 || page >= pages.length) {
+      throw new IllegalArgumentException(
+          "Page " + page + " is not in the list of " + totalItemCount + " items");
+    }
+
+    int itemCount = getPageItemCount(page);
+    if (pageModels.size() != itemCount) {
+      throw new IllegalArgumentException("Page " + page + " has " + itemCount
+          + " items, but " + pageModels.size() + " models were given");
+    }
+
+    Page pageToSet = getOrCreatePage(page);
+    pageToSet.loading = false;
+    int positionStart = page * pageSize;
+
+    if (pageToSet.loaded) {
+      diffPage(pageToSet, pageModels, positionStart);
+      return;
+    }
+
+    for (int i = 0; i < itemCount; i++) {
+      EpoxyModel<?> model = pageModels.get(i);
+      model.addedToAdapter = true;
+      pageToSet.models[i] = model;
+    }
+    pageToSet.loaded = true;
+    loadedPageCount++;
+    notifyItemRangeChanged(positionStart, itemCount);
+  }
+
+  /**
+   * Loads the page again with {@link #onLoadPage(int, int, int)}, if it is loaded. Its current
+   * models are shown until the new ones are set, and then only the differences are notified.
+   */
+  protected void invalidatePage(int page) {
+    Page pageToInvalidate = page >= 0 && page < pages.length ? pages[page] : null;
+    if (pageToInvalidate == null || !pageToInvalidate.loaded || pageToInvalidate.loading) {
+      return;
+    }
+
+    pageToInvalidate.loading = true;
+    onLoadPage(page, page * pageSize, pageToInvalidate.models.length);
+  }
+
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  public int getLoadedPageCount() {
+    return loadedPageCount;
+  }
+
+  public boolean isPageLoaded(int page) {
+    return page >= 0 && page < pages.length && pages[page] != null && pages[page].loaded;
+  }
+
+  @Override
+  public void onBindViewHolder(EpoxyViewHolder holder, int position, List<Object> payloads) {
+    super.onBindViewHolder(holder, position, payloads);
+
+    currentPage = position / pageSize;
+    // Items can't be notified while the RecyclerView is binding, so pages are loaded and evicted
+    // once it is done
+    if (!loadScheduled) {
+      loadScheduled = true;
+      mainThreadHandler.post(loadPagesRunnable);
+    }
+  }
+
+  /**
+   * Requests the pages within the prefetch distance of the given page that aren't loaded yet, and
+   * then evicts the loaded pages farthest from it until at most the max number of pages are loaded.
+   */
+  void loadPagesAround(int page) {
+    loadScheduled = false;
+    if (pages.length == 0) {
+      return;
+    }
+
+    page = Math.min(page, pages.length - 1);
+    int firstPage = Math.max(0, page - prefetchPages);
+    int lastPage = Math.min(pages.length - 1, page + prefetchPages);
+
+    // The page being shown is requested first
+    requestPage(page);
+    for (int i = firstPage; i <= lastPage; i++) {
+      requestPage(i);
+    }
+
+    while (loadedPageCount > maxLoadedPages) {
+      int pageToEvict = findPageToEvict(page, firstPage, lastPage);
+      if (pageToEvict == -1) {
+        // Every loaded page is in the prefetch window
+        break;
+      }
+      evictPage(pageToEvict);
+    }
+  }
+
+  private void requestPage(int page) {
+    Page pageToLoad = getOrCreatePage(page);
+    if (pageToLoad.loaded || pageToLoad.loading) {
+      return;
+    }
+
+    pageToLoad.loading = true;
+    onLoadPage(page, page * pageSize, pageToLoad.models.length);
+  }
+
+  /**
+   * Returns the loaded page outside of the prefetch window that is farthest from the given one, or
+   * -1 if there is none.
+   */
+  private int findPageToEvict(int page, int firstPage, int lastPage) {
+    int farthestPage = -1;
+    int farthestDistance = 0;
+    for (int i = 0; i < pages.length; i++) {
+      if ((i >= firstPage && i <= lastPage) || pages[i] == null || !pages[i].loaded) {
+        continue;
+      }
+
+      int distance = Math.abs(i - page);
+      if (distance > farthestDistance) {
+        farthestPage = i;
+        farthestDistance = distance;
+      }
+    }
+    return farthestPage;
+  }
+
+  private void evictPage(int page) {
+    // The page is dropped entirely, and its placeholders are built again if they are shown
+    pages[page] = null;
+    loadedPageCount--;
+    notifyItemRangeChanged(page * pageSize, getPageItemCount(page));
+  }
+
+  private void diffPage(Page page, List<? extends EpoxyModel<?>> pageModels, int positionStart) {
+    int itemCount = page.models.length;
+
+    oldPageStates.clear();
+    oldPageStates.insertRange(0, itemCount);
+    newPageStates.clear();
+    newPageStates.insertRange(0, itemCount);
+    for (int i = 0; i < itemCount; i++) {
+      EpoxyModel<?> oldModel = page.models[i];
+      oldPageStates.set(i, oldModel.id(), oldModel.hashCodeForDiff(), oldModel);
+
+      EpoxyModel<?> model = pageModels.get(i);
+      model.addedToAdapter = true;
+      int previousIndex = newPageStates.set(i, model.id(), model.hashCodeForDiff(), model);
+      if (previousIndex != ModelStateList.NO_INDEX) {
+        throw new IllegalStateException("Two models have the same ID. ID's must be unique!"
+            + " Model at position " + (positionStart + i) + ": " + model
+            + " Model at position " + (positionStart + previousIndex) + ": "
+            + pageModels.get(previousIndex));
+      }
+    }
+
+    for (int i = 0; i < itemCount; i++) {
+      page.models[i] = pageModels.get(i);
+    }
+
+    ModelStateDiffer.computeDiff(oldPageStates, newPageStates, updateOpHelper, null, null,
+        DiffHelper.MODEL_COMPARATOR);
+    notifyPageChanges(positionStart);
+    updateOpHelper.reset();
+    // The states keep the models they were taken from, which shouldn't outlive the diff
+    oldPageStates.clear();
+    newPageStates.clear();
+  }
+
+  private void notifyPageChanges(int positionStart) {
+    List<UpdateOp> opList = updateOpHelper.opList;
+    for (int i = 0; i < opList.size(); i++) {
+      UpdateOp op = opList.get(i);
+      switch (op.type) {
+        case UpdateOp.ADD:
+          notifyItemRangeInserted(positionStart + op.positionStart, op.itemCount);
+          break;
+        case UpdateOp.MOVE:
+          notifyItemMoved(positionStart + op.positionStart, positionStart + op.itemCount);
+          break;
+        case UpdateOp.REMOVE:
+          notifyItemRangeRemoved(positionStart + op.positionStart, op.itemCount);
+          break;
+        case UpdateOp.UPDATE:
+          notifyItemRangeChanged(positionStart + op.positionStart, op.itemCount);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown type: " + op.type);
+      }
+    }
+  }
+
+  private EpoxyModel<?> getPagedModel(int position) {
+    if (position < 0 || position >= totalItemCount) {
+      throw new IndexOutOfBoundsException(
+          "Position " + position + " is not in the list of " + totalItemCount + " items");
+    }
+
+    Page page = getOrCreatePage(position / pageSize);
+    int index = position % pageSize;
+    EpoxyModel<?> model = page.models[index];
+    if (model == null) {
+      model = buildPlaceholderModel(position);
+      model.addedToAdapter = true;
+      page.models[index] = model;
+    }
+    return model;
+  }
+
+  private Page getOrCreatePage(int page) {
+    Page result = pages[page];
+    if (result == null) {
+      result = new Page(getPageItemCount(page));
+      pages[page] = result;
+    }
+    return result;
+  }
+
+  private int getPageItemCount(int page) {
+    return Math.min(pageSize, totalItemCount - page * pageSize);
+  }
+
+  private int getPageCount(int itemCount) {
+    return (itemCount + pageSize - 1) / pageSize;
+  }
+
+  /** Only loaded pages are counted, so that placeholders aren't built for the whole list. */
+  @Override
+  LayoutHistogram getLayoutHistogram() {
+    LayoutHistogram histogram = new LayoutHistogram();
+    for (int page = 0; page < pages.length; page++) {
+      if (!isPageLoaded(page)) {
+        continue;
+      }
+
+      int positionStart = page * pageSize;
+      int positionEnd = positionStart + pages[page].models.length;
+      for (int position = positionStart; position < positionEnd; position++) {
+        histogram.add(getModelForPosition(position).getLayout());
+      }
+    }
+    return histogram;
+  }
+
+  /**
+   * Only loaded pages are searched, so that placeholders aren't built for the whole list. This
+   * searches at most {@link #setMaxLoadedPages(int)} pages.
+   */
+  @Nullable
+  @Override
+  EpoxyModel<?> getDisplayedModelById(long id) {
+    for (int page = 0; page < pages.length; page++) {
+      if (!isPageLoaded(page)) {
+        continue;
+      }
+
+      EpoxyModel<?>[] pageModels = pages[page].models;
+      for (int i = 0; i < pageModels.length; i++) {
+        if (pageModels[i].id() == id) {
+          return pageModels[i];
+        }
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return totalItemCount == 0;
+  }
+
+  /** Diffing isn't supported, since the models aren't kept in {@link #models}. */
+  @Override
+  protected void enableDiffing() {
+    throw new UnsupportedOperationException("Diffing is not supported by a paged adapter");
+  }
+
+  /** Diffing isn't supported, since the models aren't kept in {@link #models}. */
+  @Override
+  protected void enableAsyncDiffing(Executor diffExecutor) {
+    throw new UnsupportedOperationException("Diffing is not supported by a paged adapter");
+  }
+}
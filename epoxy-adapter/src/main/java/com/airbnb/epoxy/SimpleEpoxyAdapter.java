@@ -1,7 +1,10 @@
 package com.airbnb.epoxy;
 
+import android.support.annotation.Nullable;
+
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * A non-abstract version of {@link com.airbnb.epoxy.EpoxyAdapter} that exposed all methods and
@@ -19,6 +22,61 @@ public class SimpleEpoxyAdapter extends EpoxyAdapter {
     super.enableDiffing();
   }
 
+  @Override
+  public void enableAsyncDiffing(Executor diffExecutor) {
+    super.enableAsyncDiffing(diffExecutor);
+  }
+
+  @Override
+  public void setMinimalMovesEnabled(boolean enabled) {
+    super.setMinimalMovesEnabled(enabled);
+  }
+
+  @Override
+  public void setDiffPayloadsEnabled(boolean enabled) {
+    super.setDiffPayloadsEnabled(enabled);
+  }
+
+  @Override
+  public void setDiffListener(@Nullable DiffListener diffListener) {
+    super.setDiffListener(diffListener);
+  }
+
+  @Override
+  public int getDiffPathCount(@DiffResult.Path int path) {
+    return super.getDiffPathCount(path);
+  }
+
+  @Override
+  public void setBindingProfiler(@Nullable BindingProfiler bindingProfiler) {
+    super.setBindingProfiler(bindingProfiler);
+  }
+
+  @Override
+  public void setMaxSavedViewStates(int maxSavedViewStates) {
+    super.setMaxSavedViewStates(maxSavedViewStates);
+  }
+
+  @Override
+  public void setMaxSavedViewStateBytes(int maxSavedViewStateBytes) {
+    super.setMaxSavedViewStateBytes(maxSavedViewStateBytes);
+  }
+
+  @Override
+  public void setCompactSavedViewStateEnabled(boolean compactSavedViewStateEnabled) {
+    super.setCompactSavedViewStateEnabled(compactSavedViewStateEnabled);
+  }
+
+  @Override
+  public void beginTransaction() {
+    super.beginTransaction();
+  }
+
+  @Override
+  public void commitTransaction() {
+    super.commitTransaction();
+  }
+
   @Override
   public void notifyModelsChanged() {
     super.notifyModelsChanged();
@@ -23,6 +23,7 @@ class UpdateOpHelper {
   private int numInsertionBatches;
   private int numRemovals;
   private int numRemovalBatches;
+  private int numUpdateBatches;
 
   void reset() {
     opList.clear();
@@ -32,6 +33,7 @@ class UpdateOpHelper {
     numInsertionBatches = 0;
     numRemovals = 0;
     numRemovalBatches = 0;
+    numUpdateBatches = 0;
   }
 
   void add(int indexToInsert) {
@@ -85,6 +87,10 @@ class UpdateOpHelper {
       }
     }
 
+    if (!batchWithLast) {
+      numUpdateBatches++;
+    }
+
     addOperation(UPDATE, startPosition, itemCount, batchWithLast);
   }
 
@@ -136,6 +142,27 @@ class UpdateOpHelper {
     moves.add(op);
   }
 
+  /**
+   * Removes the most recent insertion or removal, as if it had never been recorded. Operations
+   * recorded after this can still be batched with the one before it.
+   */
+  void removeLastOp() {
+    UpdateOp op = opList.remove(opList.size() - 1);
+    if (op.type == ADD) {
+      numInsertions -= op.itemCount;
+      numInsertionBatches--;
+    } else if (op.type == REMOVE) {
+      numRemovals -= op.itemCount;
+      numRemovalBatches--;
+    } else {
+      throw new IllegalStateException("Only insertions and removals can be removed: " + op);
+    }
+
+    UpdateOp previousOp = opList.isEmpty() ? null : opList.get(opList.size() - 1);
+    // Moves are never batched with
+    lastOp = previousOp != null && previousOp.type != MOVE ? previousOp : null;
+  }
+
   int getNumRemovals() {
     return numRemovals;
   }
@@ -163,4 +190,8 @@ class UpdateOpHelper {
   int getNumRemovalBatches() {
     return numRemovalBatches;
   }
+
+  int getNumUpdateBatches() {
+    return numUpdateBatches;
+  }
 }
@@ -0,0 +1,150 @@
+package com.airbnb.epoxy;
+
+import android.os.Looper;
+import android.os.MessageQueue.IdleHandler;
+import android.support.annotation.LayoutRes;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.RecyclerView.RecycledViewPool;
+
+/**
+ * Creates view holders for an adapter's models ahead of time and puts them in the {@link
+ * RecyclerView}'s {@link RecycledViewPool}, so that scrolling to a layout for the first time can
+ * reuse a holder instead of stalling to inflate one.
+ * <p>
+ * Views are inflated on the main thread, since arbitrary views aren't safe to inflate elsewhere.
+ * With {@link #prewarm(int)} they are inflated one at a time while the main thread is idle, so that
+ * prewarming doesn't delay frames that are being drawn. This should only be used from the main
+ * thread.
+ */
+public class ViewHolderPrewarmer {
+  /** The number of recycled views RecyclerView keeps for each view type by default. */
+  static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+
+  private final EpoxyAdapter adapter;
+  private final RecyclerView recyclerView;
+  /** The layout of each view holder waiting to be created, in the order they will be created. */
+  private int[] pendingLayouts = new int[0];
+  private int pendingCount;
+  private int nextPendingIndex;
+  private boolean idleHandlerScheduled;
+  private int prewarmedCount;
+
+  private final IdleHandler idleHandler = new IdleHandler() {
+    @Override
+    public boolean queueIdle() {
+      if (nextPendingIndex < pendingCount) {
+        createHolder(pendingLayouts[nextPendingIndex++]);
+      }
+
+      // Returning false removes the handler
+      idleHandlerScheduled = nextPendingIndex < pendingCount;
+      return idleHandlerScheduled;
+    }
+  };
+
+  /**
+   * @param recyclerView The RecyclerView that the adapter is set on. Holders are created with it as
+   *                     their parent and put in its recycled view pool, which may be shared with
+   *                     other RecyclerViews.
+   */
+  public ViewHolderPrewarmer(EpoxyAdapter adapter, RecyclerView recyclerView) {
+    this.adapter = adapter;
+    this.recyclerView = recyclerView;
+  }
+
+  /**
+   * Schedules view holders to be created for the adapter's current models while the main thread is
+   * idle. For each layout a holder is created for each model using it, up to the given maximum.
+   * Holders are created for each layout in turn, so if only some of them are created before
+   * scrolling starts every layout still gets some.
+   * <p>
+   * The pool's limit for each layout is raised to the number of holders created for it if that is
+   * more than the current limit. Calling this again replaces any holders that haven't been
+   * created yet.
+   */
+  public void prewarm(int maxPerLayout) {
+    setPendingLayouts(maxPerLayout);
+
+    if (!idleHandlerScheduled && pendingCount > 0) {
+      idleHandlerScheduled = true;
+      Looper.myQueue().addIdleHandler(idleHandler);
+    }
+  }
+
+  /**
+   * Like {@link #prewarm(int)}, but creates all the view holders immediately. This is useful while
+   * something else is shown, such as a loading screen, and the holders are needed right away.
+   */
+  public void prewarmNow(int maxPerLayout) {
+    setPendingLayouts(maxPerLayout);
+
+    while (nextPendingIndex < pendingCount) {
+      createHolder(pendingLayouts[nextPendingIndex++]);
+    }
+  }
+
+  /** Stops creating holders that were scheduled by {@link #prewarm(int)}. */
+  public void cancel() {
+    pendingCount = 0;
+    nextPendingIndex = 0;
+
+    if (idleHandlerScheduled) {
+      idleHandlerScheduled = false;
+      Looper.myQueue().removeIdleHandler(idleHandler);
+    }
+  }
+
+  /** The number of view holders created so far. */
+  public int getPrewarmedCount() {
+    return prewarmedCount;
+  }
+
+  private void setPendingLayouts(int maxPerLayout) {
+    LayoutHistogram histogram = adapter.getLayoutHistogram();
+    RecycledViewPool pool = recyclerView.getRecycledViewPool();
+
+    int totalCount = 0;
+    int rounds = 0;
+    for (int i = 0; i < histogram.size(); i++) {
+      int count = Math.min(histogram.countAt(i), maxPerLayout);
+      if (count > getMaxRecycledViews(pool, histogram.layoutAt(i))) {
+        pool.setMaxRecycledViews(histogram.layoutAt(i), count);
+      }
+      totalCount += count;
+      rounds = Math.max(rounds, count);
+    }
+
+    if (pendingLayouts.length < totalCount) {
+      pendingLayouts = new int[totalCount];
+    }
+    pendingCount = 0;
+    nextPendingIndex = 0;
+
+    // Interleave the layouts, so each one gets a holder before any gets a second
+    for (int round = 0; round < rounds; round++) {
+      for (int i = 0; i < histogram.size(); i++) {
+        if (Math.min(histogram.countAt(i), maxPerLayout) > round) {
+          pendingLayouts[pendingCount++] = histogram.layoutAt(i);
+        }
+      }
+    }
+  }
+
+  /**
+   * RecyclerView's pool doesn't expose its limits, so unless it is an {@link EpoxyRecycledViewPool}
+   * we assume it has the default limit.
+   */
+  private static int getMaxRecycledViews(RecycledViewPool pool, @LayoutRes int layout) {
+    if (pool instanceof EpoxyRecycledViewPool) {
+      return ((EpoxyRecycledViewPool) pool).getMaxRecycledViews(layout);
+    }
+    return DEFAULT_MAX_RECYCLED_VIEWS;
+  }
+
+  private void createHolder(@LayoutRes int layout) {
+    // This sets the holder's view type, which the pool needs
+    EpoxyViewHolder holder = adapter.createViewHolder(recyclerView, layout);
+    recyclerView.getRecycledViewPool().putRecycledView(holder);
+    prewarmedCount++;
+  }
+}
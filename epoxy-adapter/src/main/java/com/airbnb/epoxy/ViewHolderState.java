@@ -1,11 +1,10 @@
-
 package com.airbnb.epoxy;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.support.annotation.Nullable;
 import android.support.v4.os.ParcelableCompat;
 import android.support.v4.os.ParcelableCompatCreatorCallbacks;
-import android.support.v4.util.LongSparseArray;
 import android.util.SparseArray;
 import android.view.View;
 
@@ -28,10 +27,32 @@ import java.util.Collection;
  * existence.
  * <p/>
  * This class relies on the adapter having stable ids, as the state of a view is mapped to the id of
- * the {@link EpoxyModel}.
+ * the {@link EpoxyModel}. States are kept in a hash map, so saving stays fast when thousands of
+ * models have state.
+ * <p/>
+ * The number of states kept can be limited, in which case the least recently saved state is
+ * dropped to make room for a new one. The size of the parceled state can also be limited, in which
+ * case the least recently saved states are left out of the parcel. States are parceled from least
+ * to most recently saved, so that their order is kept when they are read back.
  */
 @SuppressWarnings("WeakerAccess")
-class ViewHolderState extends LongSparseArray<ViewState> implements Parcelable {
+class ViewHolderState extends LongObjectHashMap<ViewState> implements Parcelable {
+
+  /** Told the id of each state that is dropped to stay within the limit on states. */
+  interface OnStateDroppedListener {
+    void onStateDropped(long id);
+  }
+
+  /** The state that was saved the longest time ago. */
+  @Nullable private ViewState oldestState;
+  @Nullable private ViewState newestState;
+  private int maxStates = Integer.MAX_VALUE;
+  /** The most bytes to write to a parcel, or 0 for no limit. */
+  private int maxParcelBytes;
+  /** Whether to parcel states with {@link CompactViewStateFormat}. */
+  private boolean compactParcelEnabled;
+  @Nullable private OnStateDroppedListener onStateDroppedListener;
+
   public ViewHolderState() {
   }
 
@@ -39,6 +60,110 @@ class ViewHolderState extends LongSparseArray<ViewState> implements Parcelable {
     super(size);
   }
 
+  /**
+   * Limits how many states are kept. If there are more, the least recently saved states are
+   * dropped.
+   */
+  void setMaxStates(int maxStates) {
+    if (maxStates < 1) {
+      throw new IllegalArgumentException("At least one state must be allowed: " + maxStates);
+    }
+
+    this.maxStates = maxStates;
+    trimToMaxStates();
+  }
+
+  /**
+   * Sets the listener told about states that are dropped. States don't keep the model they were
+   * saved for, so that models removed from the adapter aren't kept in memory by their state.
+   */
+  void setOnStateDroppedListener(@Nullable OnStateDroppedListener onStateDroppedListener) {
+    this.onStateDroppedListener = onStateDroppedListener;
+  }
+
+  /**
+   * Limits how many bytes of state are written to a parcel, or 0 for no limit. The least recently
+   * saved states that don't fit are left out. They are still kept in memory.
+   */
+  void setMaxParcelBytes(int maxParcelBytes) {
+    this.maxParcelBytes = maxParcelBytes;
+  }
+
+  /**
+   * Sets whether states are parceled with {@link CompactViewStateFormat}, which is smaller. States
+   * in either format can always be read.
+   */
+  void setCompactParcelEnabled(boolean compactParcelEnabled) {
+    this.compactParcelEnabled = compactParcelEnabled;
+  }
+
+  @Nullable
+  @Override
+  ViewState put(long id, ViewState state) {
+    ViewState previousState = super.put(id, state);
+    if (previousState != null) {
+      unlink(previousState);
+    }
+
+    state.id = id;
+    state.olderState = newestState;
+    state.newerState = null;
+    if (newestState != null) {
+      newestState.newerState = state;
+    } else {
+      oldestState = state;
+    }
+    newestState = state;
+
+    trimToMaxStates();
+    return previousState;
+  }
+
+  @Nullable
+  @Override
+  ViewState remove(long id) {
+    ViewState removedState = super.remove(id);
+    if (removedState != null) {
+      unlink(removedState);
+    }
+    return removedState;
+  }
+
+  @Override
+  void clear() {
+    super.clear();
+    oldestState = null;
+    newestState = null;
+  }
+
+  private void unlink(ViewState state) {
+    if (state.olderState != null) {
+      state.olderState.newerState = state.newerState;
+    } else {
+      oldestState = state.newerState;
+    }
+
+    if (state.newerState != null) {
+      state.newerState.olderState = state.olderState;
+    } else {
+      newestState = state.olderState;
+    }
+
+    state.olderState = null;
+    state.newerState = null;
+  }
+
+  private void trimToMaxStates() {
+    while (size() > maxStates) {
+      long droppedId = oldestState.id;
+      remove(droppedId);
+
+      if (onStateDroppedListener != null) {
+        onStateDroppedListener.onStateDropped(droppedId);
+      }
+    }
+  }
+
   @Override
   public int describeContents() {
     return 0;
@@ -46,14 +171,51 @@ class ViewHolderState extends LongSparseArray<ViewState> implements Parcelable {
 
   @Override
   public void writeToParcel(Parcel dest, int flags) {
-    final int size = size();
-    dest.writeInt(size);
-    for (int i = 0; i < size; i++) {
-      dest.writeLong(keyAt(i));
-      dest.writeParcelable(valueAt(i), 0);
+    ViewState firstState = maxParcelBytes > 0 ? findOldestStateWithinBudget() : oldestState;
+    if (compactParcelEnabled) {
+      CompactViewStateFormat.write(firstState, dest, flags);
+      return;
+    }
+
+    int count = 0;
+    for (ViewState state = firstState; state != null; state = state.newerState) {
+      count++;
+    }
+
+    dest.writeInt(count);
+    for (ViewState state = firstState; state != null; state = state.newerState) {
+      dest.writeLong(state.id);
+      dest.writeParcelable(state, 0);
     }
   }
 
+  /**
+   * Measures states from the most recently saved one back, and returns the oldest state that can
+   * be parceled along with all newer ones within {@link #maxParcelBytes}, or null if none fit. The
+   * states are measured in the default encoding, which is at least as large as the compact one.
+   */
+  @Nullable
+  private ViewState findOldestStateWithinBudget() {
+    // The count of states is written first
+    int totalBytes = 4;
+    ViewState oldestStateWithinBudget = null;
+
+    for (ViewState state = newestState; state != null; state = state.olderState) {
+      Parcel parcel = Parcel.obtain();
+      parcel.writeLong(state.id);
+      parcel.writeParcelable(state, 0);
+      totalBytes += parcel.dataSize();
+      parcel.recycle();
+
+      if (totalBytes > maxParcelBytes) {
+        break;
+      }
+      oldestStateWithinBudget = state;
+    }
+
+    return oldestStateWithinBudget;
+  }
+
   public static final Creator<ViewHolderState> CREATOR = new Creator<ViewHolderState>() {
 
     public ViewHolderState[] newArray(int size) {
@@ -62,6 +224,10 @@ class ViewHolderState extends LongSparseArray<ViewState> implements Parcelable {
 
     public ViewHolderState createFromParcel(Parcel source) {
       int size = source.readInt();
+      if (size == CompactViewStateFormat.MARKER) {
+        return CompactViewStateFormat.read(source, new ViewHolderState());
+      }
+
       ViewHolderState state = new ViewHolderState(size);
 
       for (int i = 0; i < size; i++) {
@@ -122,6 +288,10 @@ class ViewHolderState extends LongSparseArray<ViewState> implements Parcelable {
    * parcelable support.
    */
   public static class ViewState extends SparseArray<Parcelable> implements Parcelable {
+    // These track the state's place in its ViewHolderState, and aren't parceled
+    long id;
+    @Nullable ViewState olderState;
+    @Nullable ViewState newerState;
 
     public ViewState() {
     }
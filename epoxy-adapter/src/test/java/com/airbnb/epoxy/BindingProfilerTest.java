@@ -0,0 +1,78 @@
+package com.airbnb.epoxy;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+
+@Config(sdk = 21, manifest = TestRunner.MANIFEST_PATH)
+@RunWith(TestRunner.class)
+public class BindingProfilerTest {
+
+  private final BindingProfiler profiler = new BindingProfiler();
+
+  @Test
+  public void groupsTimingsByClassAndLayout() {
+    TestModel model = new TestModel();
+    TestModel otherLayoutModel = new TestModel();
+    otherLayoutModel.layout(model.getLayout() + 1);
+
+    profiler.recordBind(model, 10);
+    profiler.recordBind(model, 30);
+    profiler.recordUnbind(model, 5);
+    profiler.recordBind(otherLayoutModel, 7);
+
+    List<ModelTimings> snapshot = profiler.getSnapshot();
+    assertEquals(2, snapshot.size());
+
+    ModelTimings timings = snapshot.get(0);
+    assertSame(TestModel.class, timings.getModelClass());
+    assertEquals(model.getLayout(), timings.getLayout());
+    assertEquals(2, timings.getBindCount());
+    assertEquals(40, timings.getBindNanos());
+    assertEquals(30, timings.getMaxBindNanos());
+    assertEquals(1, timings.getUnbindCount());
+    assertEquals(5, timings.getUnbindNanos());
+
+    ModelTimings otherLayoutTimings = snapshot.get(1);
+    assertEquals(otherLayoutModel.getLayout(), otherLayoutTimings.getLayout());
+    assertEquals(1, otherLayoutTimings.getBindCount());
+  }
+
+  @Test
+  public void recordsInflateForUnknownModelClass() {
+    profiler.recordInflate(null, 1, 100);
+
+    ModelTimings timings = profiler.getSnapshot().get(0);
+    assertNull(timings.getModelClass());
+    assertEquals(1, timings.getInflateCount());
+    assertEquals(100, timings.getInflateNanos());
+  }
+
+  @Test
+  public void snapshotIsNotChangedByLaterRecords() {
+    TestModel model = new TestModel();
+    profiler.recordSaveState(model, 3);
+
+    ModelTimings timings = profiler.getSnapshot().get(0);
+    profiler.recordSaveState(model, 3);
+    profiler.recordRestoreState(model, 4);
+
+    assertEquals(1, timings.getSaveStateCount());
+    assertEquals(0, timings.getRestoreStateCount());
+    assertEquals(2, profiler.getSnapshot().get(0).getSaveStateCount());
+  }
+
+  @Test
+  public void resetClearsTimings() {
+    profiler.recordBind(new TestModel(), 1);
+    profiler.reset();
+
+    assertEquals(0, profiler.getSnapshot().size());
+  }
+}
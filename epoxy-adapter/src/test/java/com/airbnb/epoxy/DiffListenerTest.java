@@ -0,0 +1,142 @@
+package com.airbnb.epoxy;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.airbnb.epoxy.ModelTestUtils.addModels;
+import static com.airbnb.epoxy.ModelTestUtils.changeValue;
+import static com.airbnb.epoxy.ModelTestUtils.remove;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+/** Tests the {@link DiffResult} reported to a {@link DiffListener} for each diff. */
+@Config(sdk = 21, manifest = TestRunner.MANIFEST_PATH)
+@RunWith(TestRunner.class)
+public class DiffListenerTest {
+  private static final int INITIAL_MODEL_COUNT = 10;
+
+  private final TestAdapter adapter = new TestAdapter();
+  private final List<EpoxyModel<?>> models = adapter.models;
+  private final List<DiffResult> results = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    addModels(INITIAL_MODEL_COUNT, models);
+    adapter.notifyModelsChanged();
+
+    adapter.setDiffListener(new DiffListener() {
+      @Override
+      public void onDiffCompleted(DiffResult result) {
+        results.add(result);
+      }
+    });
+  }
+
+  @Test
+  public void reportsHashesOnlyPath() {
+    changeValue(models.get(2));
+    changeValue(models.get(3));
+    changeValue(models.get(7));
+    adapter.notifyModelsChanged();
+
+    DiffResult result = getOnlyResult();
+    assertEquals(DiffResult.PATH_HASHES_ONLY, result.getPath());
+    assertEquals(INITIAL_MODEL_COUNT, result.getModelCount());
+    assertEquals(2, result.getUpdateOperationCount());
+    assertEquals(0, result.getInsertionOperationCount());
+    assertTrue(result.getTotalNanos() >= result.getChangesNanos());
+  }
+
+  @Test
+  public void reportsRecordedChangesPath() {
+    addModels(2, models, 0);
+    addModels(1, models);
+    adapter.notifyModelsChanged();
+
+    DiffResult result = getOnlyResult();
+    assertEquals(DiffResult.PATH_RECORDED_CHANGES, result.getPath());
+    assertEquals(INITIAL_MODEL_COUNT + 3, result.getModelCount());
+    assertEquals(2, result.getInsertionOperationCount());
+    assertEquals(0, result.getUpdateOperationCount());
+  }
+
+  @Test
+  public void reportsRecordedInsertionsAndRemovalsPath() {
+    // Like paging, where the first page is dropped and a new one is added at the end
+    remove(models, 0, 3);
+    addModels(3, models);
+    changeValue(models.get(4));
+    adapter.notifyModelsChanged();
+
+    DiffResult result = getOnlyResult();
+    assertEquals(DiffResult.PATH_RECORDED_INSERTIONS_AND_REMOVALS, result.getPath());
+    assertEquals(INITIAL_MODEL_COUNT, result.getModelCount());
+    assertEquals(1, result.getRemovalOperationCount());
+    assertEquals(1, result.getInsertionOperationCount());
+    assertEquals(1, result.getUpdateOperationCount());
+  }
+
+  @Test
+  public void reportsFullDiffWhenRemovedModelIsAddedBack() {
+    EpoxyModel<?> model = models.remove(0);
+    addModels(1, models);
+    models.add(model);
+    adapter.notifyModelsChanged();
+
+    DiffResult result = getOnlyResult();
+    assertEquals(DiffResult.PATH_FULL_DIFF, result.getPath());
+    assertTrue(result.getMoveOperationCount() > 0);
+  }
+
+  @Test
+  public void countsDiffPaths() {
+    adapter.notifyModelsChanged();
+    addModels(1, models);
+    adapter.notifyModelsChanged();
+    remove(models, 0, 1);
+    addModels(1, models);
+    adapter.notifyModelsChanged();
+
+    assertEquals(1, adapter.getDiffPathCount(DiffResult.PATH_HASHES_ONLY));
+    // Including the models added in setUp
+    assertEquals(2, adapter.getDiffPathCount(DiffResult.PATH_RECORDED_CHANGES));
+    assertEquals(1, adapter.getDiffPathCount(DiffResult.PATH_RECORDED_INSERTIONS_AND_REMOVALS));
+    assertEquals(0, adapter.getDiffPathCount(DiffResult.PATH_FULL_DIFF));
+  }
+
+  @Test
+  public void reportsFullDiffPath() {
+    remove(models, 0, 1);
+    addModels(1, models);
+    models.add(0, models.remove(5));
+    changeValue(models.get(8));
+    adapter.notifyModelsChanged();
+
+    DiffResult result = getOnlyResult();
+    assertEquals(DiffResult.PATH_FULL_DIFF, result.getPath());
+    assertEquals(INITIAL_MODEL_COUNT, result.getModelCount());
+    assertEquals(1, result.getRemovalOperationCount());
+    assertEquals(1, result.getInsertionOperationCount());
+    assertEquals(1, result.getMoveOperationCount());
+    assertEquals(1, result.getUpdateOperationCount());
+  }
+
+  @Test
+  public void noResultsAfterListenerRemoved() {
+    adapter.setDiffListener(null);
+    changeValue(models.get(0));
+    adapter.notifyModelsChanged();
+
+    assertTrue(results.isEmpty());
+  }
+
+  private DiffResult getOnlyResult() {
+    assertEquals(1, results.size());
+    return results.get(0);
+  }
+}
@@ -0,0 +1,218 @@
+package com.airbnb.epoxy;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import static com.airbnb.epoxy.ModelTestUtils.addModels;
+import static com.airbnb.epoxy.ModelTestUtils.changeValues;
+import static com.airbnb.epoxy.ModelTestUtils.convertToTestModels;
+import static com.airbnb.epoxy.ModelTestUtils.remove;
+import static junit.framework.Assert.assertEquals;
+
+/** Tests diffing with {@link EpoxyAdapter#enableAsyncDiffing(Executor)}. */
+@Config(sdk = 21, manifest = TestRunner.MANIFEST_PATH)
+@RunWith(TestRunner.class)
+public class DifferAsyncTest {
+  private final QueuedExecutor executor = new QueuedExecutor();
+  private final TestObserver testObserver = new TestObserver();
+  private final AsyncTestAdapter adapter = new AsyncTestAdapter(executor);
+  private final List<EpoxyModel<?>> models = adapter.models;
+
+  @Before
+  public void setUp() {
+    adapter.registerAdapterDataObserver(testObserver);
+  }
+
+  @Test
+  public void diffIsNotDispatchedUntilExecutorRuns() {
+    addModels(models);
+    adapter.notifyModelsChanged();
+
+    assertEquals(0, testObserver.operationCount);
+    assertEquals(0, adapter.getItemCount());
+
+    executor.runAll();
+
+    assertEquals(1, testObserver.operationCount);
+    assertEquals(models.size(), adapter.getItemCount());
+    assertEquals(models.get(0).id(), adapter.getItemId(0));
+  }
+
+  @Test
+  public void staleDiffIsDropped() {
+    addModels(models);
+    adapter.notifyModelsChanged();
+
+    remove(models, 0, 5);
+    changeValues(models);
+    adapter.notifyModelsChanged();
+
+    executor.runAll();
+
+    // Only the newest diff, relative to the empty list that was last dispatched, is applied
+    assertEquals(1, testObserver.operationCount);
+    assertCorrectness();
+  }
+
+  @Test
+  public void secondDiffIsAgainstDispatchedModels() {
+    addModels(models);
+    adapter.notifyModelsChanged();
+    executor.runAll();
+    assertCorrectness();
+
+    changeValues(models);
+    adapter.notifyModelsChanged();
+    executor.runAll();
+
+    assertEquals(1, testObserver.operationCount);
+    assertCorrectness();
+  }
+
+  @Test
+  public void modelsCanChangeWhileDiffIsRunning() {
+    addModels(models);
+    adapter.notifyModelsChanged();
+
+    // This change isn't notified, so the diff that is already queued shouldn't include it
+    models.clear();
+    executor.runAll();
+
+    assertEquals(ModelTestUtils.DEFAULT_NUM_MODELS, adapter.getItemCount());
+  }
+
+  @Test
+  public void randomChanges() {
+    Random random = new Random(0);
+    testObserver.setUpForNextDiff(new ArrayList<TestModel>());
+
+    for (int i = 0; i < 200; i++) {
+      int diffsToQueue = random.nextInt(3) + 1;
+      for (int j = 0; j < diffsToQueue; j++) {
+        modifyRandomly(random);
+        adapter.notifyModelsChanged();
+      }
+
+      executor.runAll();
+      assertCorrectness();
+    }
+  }
+
+  @Test
+  public void modelsThatDiffByContentAreComparedByContent() {
+    models.add(new EpoxyAdapterTest.ContentDiffingModel(1, "a"));
+    adapter.notifyModelsChanged();
+    executor.runAll();
+
+    TransactionTest.PayloadObserver payloadObserver = new TransactionTest.PayloadObserver();
+    adapter.registerAdapterDataObserver(payloadObserver);
+
+    // The hash codes collide, so only comparing content finds the change
+    models.set(0, new EpoxyAdapterTest.ContentDiffingModel(1, "b"));
+    adapter.notifyModelsChanged();
+    executor.runAll();
+
+    assertEquals(Collections.singletonList(0), payloadObserver.changedPositions);
+  }
+
+  @Test
+  public void changeNotifiedInTransactionOutlivesStaleDiff() {
+    addModels(models);
+    adapter.notifyModelsChanged();
+    executor.runAll();
+
+    TransactionTest.PayloadObserver payloadObserver = new TransactionTest.PayloadObserver();
+    adapter.registerAdapterDataObserver(payloadObserver);
+
+    adapter.beginTransaction();
+    adapter.notifyModelChanged(models.get(2), "payload");
+    adapter.commitTransaction();
+    // This makes the transaction's diff stale before it is dispatched
+    adapter.notifyModelsChanged();
+    executor.runAll();
+
+    assertEquals(Collections.singletonList(2), payloadObserver.changedPositions);
+    assertEquals(Collections.<Object>singletonList("payload"), payloadObserver.payloads);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void manualNotifyNotAllowed() {
+    adapter.addModel(new TestModel());
+  }
+
+  private void modifyRandomly(Random random) {
+    switch (random.nextInt(4)) {
+      case 0:
+        addModels(random.nextInt(5) + 1, models, models.isEmpty() ? 0 : random.nextInt(
+            models.size()));
+        break;
+      case 1:
+        if (!models.isEmpty()) {
+          int start = random.nextInt(models.size());
+          remove(models, start, Math.min(models.size() - start, random.nextInt(3) + 1));
+        }
+        break;
+      case 2:
+        changeValues(models, 0, models.size() / 2);
+        break;
+      case 3:
+        if (models.size() > 1) {
+          models.add(random.nextInt(models.size()), models.remove(random.nextInt(models.size())));
+        }
+        break;
+      default:
+        throw new IllegalStateException("unhandled");
+    }
+  }
+
+  /** The notified operations should transform the last dispatched models into the current ones. */
+  private void assertCorrectness() {
+    List<TestModel> expected = convertToTestModels(models);
+    List<TestModel> actual = testObserver.modelsAfterDiffing;
+
+    assertEquals(expected.size(), actual.size());
+    assertEquals(expected.size(), adapter.getItemCount());
+    for (int i = 0; i < expected.size(); i++) {
+      if (actual.get(i) != InsertedModel.INSTANCE) {
+        assertEquals(expected.get(i).id(), actual.get(i).id());
+      }
+      assertEquals(expected.get(i).id(), adapter.getItemId(i));
+    }
+
+    testObserver.operationCount = 0;
+    testObserver.setUpForNextDiff(expected);
+  }
+
+  private static class AsyncTestAdapter extends EpoxyAdapter {
+    AsyncTestAdapter(Executor executor) {
+      enableAsyncDiffing(executor);
+    }
+  }
+
+  private static class QueuedExecutor implements Executor {
+    private final List<Runnable> queue = new ArrayList<>();
+
+    @Override
+    public void execute(Runnable command) {
+      queue.add(command);
+    }
+
+    void runNext() {
+      queue.remove(0).run();
+    }
+
+    void runAll() {
+      while (!queue.isEmpty()) {
+        runNext();
+      }
+    }
+  }
+}
@@ -33,7 +33,7 @@ public class DifferCorrectnessTest {
    */
   private static final boolean SPEED_RUN = false;
   private final TestObserver testObserver = new TestObserver(SHOW_LOGS);
-  private final TestAdapter testAdapter = new TestAdapter();
+  private final TestAdapter testAdapter = new TestAdapter(useMinimalMoves());
   private final List<EpoxyModel<?>> models = testAdapter.models;
   private static long totalDiffMillis = 0;
   private static long totalDiffOperations = 0;
@@ -58,6 +58,11 @@ public class DifferCorrectnessTest {
     }
   }
 
+  /** Overridden to run these tests against {@link MinimalMoveCollector}. */
+  boolean useMinimalMoves() {
+    return false;
+  }
+
   @Before
   public void setUp() {
     if (!SPEED_RUN) {
@@ -345,17 +350,47 @@ public class DifferCorrectnessTest {
         }
         diffAndValidate();
 
-        modifyModelsRandomly(models, maxBatchSize, new Random(randomSeed));
+        modifyModelsRandomly(models, maxBatchSize, new Random(randomSeed), true);
+        log("\nResulting diff: \n");
+        diffAndValidate();
+      }
+    }
+  }
+
+  @Test
+  public void randomInsertionsAndRemovals() {
+    // Without moves the recorded changes are applied directly instead of running a full diff
+    int maxBatchSize = 3;
+    int maxModelCount = 10;
+    int maxSeed = 10000;
+
+    for (int modelCount = 1; modelCount < maxModelCount; modelCount++) {
+      for (int randomSeed = 0; randomSeed < maxSeed; randomSeed++) {
+        log("\n\n*** Combination seed " + randomSeed + " Model Count: " + modelCount + " *** \n");
+
+        int currentModelCount = models.size();
+        if (currentModelCount < modelCount) {
+          addModels(modelCount - currentModelCount, models);
+        } else if (currentModelCount > modelCount) {
+          removeModelsAfterPosition(models, modelCount);
+        }
+        diffAndValidate();
+
+        Random random = new Random(randomSeed);
+        modifyModelsRandomly(models, maxBatchSize, random, false);
+        // Changes made in reverse order make the recorded positions overlap
+        addModels(randInt(0, maxBatchSize, random), models, 0);
         log("\nResulting diff: \n");
         diffAndValidate();
       }
     }
   }
 
-  private void modifyModelsRandomly(List<EpoxyModel<?>> models, int maxBatchSize, Random random) {
+  private void modifyModelsRandomly(List<EpoxyModel<?>> models, int maxBatchSize, Random random,
+      boolean includeMoves) {
     for (int i = 0; i < models.size(); i++) {
       int batchSize = randInt(1, maxBatchSize, random);
-      switch (random.nextInt(4)) {
+      switch (random.nextInt(includeMoves ? 4 : 3)) {
         case 0:
           // insert
           log("Inserting " + batchSize + " at " + i);
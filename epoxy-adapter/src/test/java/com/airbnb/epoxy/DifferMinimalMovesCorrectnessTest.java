@@ -0,0 +1,69 @@
+package com.airbnb.epoxy;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.airbnb.epoxy.ModelTestUtils.addModels;
+import static com.airbnb.epoxy.ModelTestUtils.convertToTestModels;
+import static junit.framework.Assert.assertEquals;
+
+/** Runs the diff correctness tests with moves found by {@link MinimalMoveCollector}. */
+@Config(sdk = 21, manifest = TestRunner.MANIFEST_PATH)
+@RunWith(TestRunner.class)
+public class DifferMinimalMovesCorrectnessTest extends DifferCorrectnessTest {
+
+  @Override
+  boolean useMinimalMoves() {
+    return true;
+  }
+
+  @Test
+  public void movesAreMinimal() {
+    Random random = new Random(0);
+
+    for (int i = 0; i < 100; i++) {
+      TestAdapter adapter = new TestAdapter(true);
+      TestObserver observer = new TestObserver();
+      adapter.registerAdapterDataObserver(observer);
+
+      List<EpoxyModel<?>> models = adapter.models;
+      addModels(50, models);
+      adapter.notifyModelsChanged();
+
+      List<EpoxyModel<?>> oldModels = new ArrayList<>(models);
+      Collections.shuffle(models, random);
+      observer.setUpForNextDiff(convertToTestModels(oldModels));
+      observer.operationCount = 0;
+      adapter.notifyModelsChanged();
+
+      int expectedMoves = models.size() - longestIncreasingSubsequence(oldModels, models);
+      assertEquals(expectedMoves, observer.operationCount);
+    }
+  }
+
+  /** The length of the longest run of new models that are in the same order as the old models. */
+  private static int longestIncreasingSubsequence(List<EpoxyModel<?>> oldModels,
+      List<EpoxyModel<?>> newModels) {
+    int[] lengths = new int[newModels.size()];
+    int longest = 0;
+
+    for (int i = 0; i < newModels.size(); i++) {
+      lengths[i] = 1;
+      int oldIndex = oldModels.indexOf(newModels.get(i));
+      for (int j = 0; j < i; j++) {
+        if (oldModels.indexOf(newModels.get(j)) < oldIndex) {
+          lengths[i] = Math.max(lengths[i], lengths[j] + 1);
+        }
+      }
+      longest = Math.max(longest, lengths[i]);
+    }
+
+    return longest;
+  }
+}
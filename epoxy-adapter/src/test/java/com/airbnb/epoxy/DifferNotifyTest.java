@@ -4,10 +4,12 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.annotation.Config;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.airbnb.epoxy.ModelTestUtils.addModels;
 import static com.airbnb.epoxy.ModelTestUtils.changeValue;
+import static com.airbnb.epoxy.ModelTestUtils.convertToTestModels;
 import static com.airbnb.epoxy.ModelTestUtils.remove;
 import static junit.framework.Assert.assertEquals;
 
@@ -155,11 +157,67 @@ public class DifferNotifyTest {
     assertCorrectness();
   }
 
+  @Test
+  public void notifyRangeMovedToEnd() {
+    addInitialModels();
+
+    List<EpoxyModel<?>> modelsToMove = models.subList(0, 3);
+    List<EpoxyModel<?>> movedModels = new ArrayList<>(modelsToMove);
+    modelsToMove.clear();
+    models.addAll(movedModels);
+    for (int i = 0; i < movedModels.size(); i++) {
+      adapter.notifyItemMoved(0, INITIAL_MODEL_COUNT - 1);
+    }
+    assertCorrectness();
+  }
+
+  @Test
+  public void notifyInsertionThenChangeMore() {
+    addInitialModels();
+
+    addModels(1, models);
+    adapter.notifyItemInserted(INITIAL_MODEL_COUNT);
+    List<TestModel> notifiedModels = convertToTestModels(models);
+    // Not notified, so the differ should find these
+    addModels(2, models, 0);
+    changeValue(models.get(5));
+
+    // One insertion and one change
+    assertOperations(notifiedModels, 2);
+    assertCorrectness();
+  }
+
+  @Test
+  public void notifyPartOfRecordedChanges() {
+    addInitialModels();
+
+    addModels(2, models, 0);
+    List<TestModel> notifiedModels = convertToTestModels(models);
+    remove(models, 10, 1);
+    adapter.notifyItemRangeInserted(0, 2);
+
+    // The removal wasn't notified, so it must still be found by the differ
+    assertOperations(notifiedModels, 1);
+    assertCorrectness();
+  }
+
   private void addInitialModels() {
     addModels(INITIAL_MODEL_COUNT, models);
     adapter.notifyModelsChanged();
   }
 
+  private void assertOperations(List<TestModel> notifiedModels, int expectedOperationCount) {
+    testObserver.setUpForNextDiff(notifiedModels);
+    testObserver.operationCount = 0;
+
+    adapter.registerAdapterDataObserver(testObserver);
+    adapter.notifyModelsChanged();
+    adapter.unregisterAdapterDataObserver(testObserver);
+
+    assertEquals(expectedOperationCount, testObserver.operationCount);
+    assertEquals(models.size(), testObserver.modelsAfterDiffing.size());
+  }
+
   private void assertCorrectness() {
     testObserver.operationCount = 0;
 
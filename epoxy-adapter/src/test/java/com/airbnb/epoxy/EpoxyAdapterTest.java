@@ -1,6 +1,10 @@
 package com.airbnb.epoxy;
 
+import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.RecyclerView.AdapterDataObserver;
+import android.view.View;
+
+import com.airbnb.viewmodeladapter.R;
 
 import junit.framework.Assert;
 
@@ -11,14 +15,18 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.robolectric.RuntimeEnvironment;
 import org.robolectric.annotation.Config;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -205,8 +213,7 @@ public class EpoxyAdapterTest {
     testAdapter.addModels(testModel1, testModel2);
 
     testAdapter.showModels(testAdapter.models);
-    verify(observer).onItemRangeChanged(0, 1, null);
-    verify(observer).onItemRangeChanged(1, 1, null);
+    verify(observer).onItemRangeChanged(0, 2, null);
     assertTrue(testModel1.isShown());
     assertTrue(testModel2.isShown());
 
@@ -224,8 +231,7 @@ public class EpoxyAdapterTest {
     testAdapter.addModels(testModel1, testModel2);
 
     testAdapter.showModels(testModel1, testModel2);
-    verify(observer).onItemRangeChanged(0, 1, null);
-    verify(observer).onItemRangeChanged(1, 1, null);
+    verify(observer).onItemRangeChanged(0, 2, null);
     assertTrue(testModel1.isShown());
     assertTrue(testModel2.isShown());
 
@@ -243,8 +249,7 @@ public class EpoxyAdapterTest {
     testAdapter.addModels(testModel1, testModel2);
 
     testAdapter.showModels(testAdapter.models, true);
-    verify(observer).onItemRangeChanged(0, 1, null);
-    verify(observer).onItemRangeChanged(1, 1, null);
+    verify(observer).onItemRangeChanged(0, 2, null);
     assertTrue(testModel1.isShown());
     assertTrue(testModel2.isShown());
 
@@ -262,8 +267,7 @@ public class EpoxyAdapterTest {
     testAdapter.addModels(testModel1, testModel2);
 
     testAdapter.showModels(true, testModel1, testModel2);
-    verify(observer).onItemRangeChanged(0, 1, null);
-    verify(observer).onItemRangeChanged(1, 1, null);
+    verify(observer).onItemRangeChanged(0, 2, null);
     assertTrue(testModel1.isShown());
     assertTrue(testModel2.isShown());
 
@@ -277,8 +281,7 @@ public class EpoxyAdapterTest {
     testAdapter.addModels(testModel1, testModel2);
 
     testAdapter.showModels(testAdapter.models, false);
-    verify(observer).onItemRangeChanged(0, 1, null);
-    verify(observer).onItemRangeChanged(1, 1, null);
+    verify(observer).onItemRangeChanged(0, 2, null);
     assertFalse(testModel1.isShown());
     assertFalse(testModel2.isShown());
 
@@ -292,8 +295,7 @@ public class EpoxyAdapterTest {
     testAdapter.addModels(testModel1, testModel2);
 
     testAdapter.showModels(false, testModel1, testModel2);
-    verify(observer).onItemRangeChanged(0, 1, null);
-    verify(observer).onItemRangeChanged(1, 1, null);
+    verify(observer).onItemRangeChanged(0, 2, null);
     assertFalse(testModel1.isShown());
     assertFalse(testModel2.isShown());
 
@@ -329,8 +331,7 @@ public class EpoxyAdapterTest {
     testAdapter.addModels(testModel1, testModel2);
 
     testAdapter.hideModels(testAdapter.models);
-    verify(observer).onItemRangeChanged(0, 1, null);
-    verify(observer).onItemRangeChanged(1, 1, null);
+    verify(observer).onItemRangeChanged(0, 2, null);
     assertFalse(testModel1.isShown());
     assertFalse(testModel2.isShown());
 
@@ -344,8 +345,7 @@ public class EpoxyAdapterTest {
     testAdapter.addModels(testModel1, testModel2);
 
     testAdapter.hideModels(testModel1, testModel2);
-    verify(observer).onItemRangeChanged(0, 1, null);
-    verify(observer).onItemRangeChanged(1, 1, null);
+    verify(observer).onItemRangeChanged(0, 2, null);
     assertFalse(testModel1.isShown());
     assertFalse(testModel2.isShown());
 
@@ -364,9 +364,7 @@ public class EpoxyAdapterTest {
 
     int hideIndex = 5;
     testAdapter.hideAllAfterModel(models.get(hideIndex));
-    for (int i = hideIndex + 1; i < modelCount; i++) {
-      verify(observer).onItemRangeChanged(i, 1, null);
-    }
+    verify(observer).onItemRangeChanged(hideIndex + 1, modelCount - hideIndex - 1, null);
 
     for (int i = 0; i < modelCount; i++) {
       assertEquals(i <= hideIndex, models.get(i).isShown());
@@ -375,6 +373,28 @@ public class EpoxyAdapterTest {
     checkDifferState();
   }
 
+  @Test
+  public void testShowModelsBatchesAdjacentChanges() {
+    List<TestModel> models = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      TestModel model = new TestModel();
+      model.show(i == 3);
+      models.add(model);
+      testAdapter.addModels(model);
+    }
+
+    // Out of order, with model 2 left out and model 3 already shown
+    testAdapter.showModels(models.get(4), models.get(1), models.get(3), models.get(0),
+        models.get(5));
+
+    verify(observer).onItemRangeChanged(0, 2, null);
+    verify(observer).onItemRangeChanged(4, 2, null);
+    verify(observer, times(2)).onItemRangeChanged(anyInt(), anyInt(), any());
+    assertFalse(models.get(2).isShown());
+
+    checkDifferState();
+  }
+
   @Test
   public void testThrowIfChangeModelIdAfterNotify() {
     TestModel testModel = new TestModel();
@@ -409,6 +429,203 @@ public class EpoxyAdapterTest {
     testModel.id(200);
   }
 
+  @Test
+  public void testDiffNotifiesChangesWithoutPayloadByDefault() {
+    TestModel testModel = new TestModel();
+    testAdapter.models.add(testModel);
+    testAdapter.notifyModelsChanged();
+
+    testModel.randomizeValue();
+    testAdapter.notifyModelsChanged();
+    verify(observer).onItemRangeChanged(0, 1, null);
+  }
+
+  @Test
+  public void testDiffNotifiesChangesWithPayloadWhenEnabled() {
+    testAdapter.setDiffPayloadsEnabled(true);
+    TestModel testModel = new TestModel();
+    testAdapter.models.add(testModel);
+    testAdapter.notifyModelsChanged();
+
+    testModel.randomizeValue();
+    testAdapter.notifyModelsChanged();
+    verify(observer).onItemRangeChanged(0, 1, DiffPayload.INSTANCE);
+
+    checkDifferState();
+  }
+
+  @Test
+  public void testPartialRebindSkipsViewStateSaveAndRestore() {
+    BindingProfiler profiler = new BindingProfiler();
+    testAdapter.setBindingProfiler(profiler);
+    testAdapter.models.add(new PayloadBindingModel(1, AttributeChanges.ALL_ATTRIBUTES));
+    EpoxyViewHolder holder = bindNewHolder(0);
+
+    testAdapter.onBindViewHolder(holder, 0, Collections.<Object>singletonList("payload"));
+
+    // Only the first bind restored the state
+    ModelTimings timings = profiler.getSnapshot().get(0);
+    assertEquals(0, timings.getSaveStateCount());
+    assertEquals(1, timings.getRestoreStateCount());
+  }
+
+  @Test
+  public void testRebindWithPayloadKeepsViewStateIfModelDoesFullBind() {
+    BindingProfiler profiler = new BindingProfiler();
+    testAdapter.setBindingProfiler(profiler);
+    // The model doesn't bind payloads itself, so the payload still leads to a full bind
+    testAdapter.models.add(new ViewStateModel(1));
+    EpoxyViewHolder holder = bindNewHolder(0);
+
+    testAdapter.onBindViewHolder(holder, 0, Collections.<Object>singletonList("payload"));
+
+    ModelTimings timings = profiler.getSnapshot().get(0);
+    assertEquals(1, timings.getSaveStateCount());
+    assertEquals(2, timings.getRestoreStateCount());
+  }
+
+  @Test
+  public void testRebindWithDiffPayloadSkipsViewStateIfChangedAttributesAreKnown() {
+    BindingProfiler profiler = new BindingProfiler();
+    testAdapter.setBindingProfiler(profiler);
+    testAdapter.setDiffPayloadsEnabled(true);
+    testAdapter.models.add(new PayloadBindingModel(1, 1));
+    EpoxyViewHolder holder = bindNewHolder(0);
+
+    testAdapter.models.set(0, new PayloadBindingModel(1, 1));
+    testAdapter.onBindViewHolder(holder, 0,
+        Collections.<Object>singletonList(DiffPayload.INSTANCE));
+
+    ModelTimings timings = profiler.getSnapshot().get(0);
+    assertEquals(0, timings.getSaveStateCount());
+    assertEquals(1, timings.getRestoreStateCount());
+  }
+
+  @Test
+  public void testRebindWithDiffPayloadKeepsViewStateIfChangedAttributesAreUnknown() {
+    BindingProfiler profiler = new BindingProfiler();
+    testAdapter.setBindingProfiler(profiler);
+    testAdapter.setDiffPayloadsEnabled(true);
+    // The diff payload is dropped, so the model is fully bound
+    testAdapter.models.add(new PayloadBindingModel(1, AttributeChanges.ALL_ATTRIBUTES));
+    EpoxyViewHolder holder = bindNewHolder(0);
+
+    testAdapter.models.set(0, new PayloadBindingModel(1, AttributeChanges.ALL_ATTRIBUTES));
+    testAdapter.onBindViewHolder(holder, 0,
+        Collections.<Object>singletonList(DiffPayload.INSTANCE));
+
+    ModelTimings timings = profiler.getSnapshot().get(0);
+    assertEquals(1, timings.getSaveStateCount());
+    assertEquals(2, timings.getRestoreStateCount());
+  }
+
+  @Test
+  public void testModelBoundCallbackGetsResolvedDiffPayloads() {
+    final List<List<Object>> boundPayloads = new ArrayList<>();
+    TestAdapter adapter = new TestAdapter() {
+      @Override
+      protected void onModelBound(EpoxyViewHolder holder, EpoxyModel<?> model, int position,
+          List<Object> payloads) {
+        boundPayloads.add(payloads);
+      }
+    };
+    adapter.setDiffPayloadsEnabled(true);
+    adapter.models.add(new PayloadBindingModel(1, 1));
+    EpoxyViewHolder holder = new EpoxyViewHolder(new RecyclerView(RuntimeEnvironment.application),
+        R.layout.view_holder_empty_view);
+    adapter.onBindViewHolder(holder, 0);
+
+    adapter.models.set(0, new PayloadBindingModel(1, 1));
+    adapter.onBindViewHolder(holder, 0, Collections.<Object>singletonList(DiffPayload.INSTANCE));
+
+    assertEquals(Collections.<Object>singletonList(new AttributeChanges(1)), boundPayloads.get(1));
+    assertEquals(holder.getPayloads(), boundPayloads.get(1));
+  }
+
+  @Test
+  public void testDiffOnlyRehashesModifiedModelsThatTrackModifications() {
+    ModificationTrackingModel model = new ModificationTrackingModel();
+    testAdapter.models.add(model);
+    testAdapter.notifyModelsChanged();
+    assertEquals(1, model.hashCodeCount);
+
+    testAdapter.notifyModelsChanged();
+    assertEquals(1, model.hashCodeCount);
+
+    model.value(3);
+    testAdapter.notifyModelsChanged();
+    assertEquals(2, model.hashCodeCount);
+    verify(observer).onItemRangeChanged(0, 1, null);
+  }
+
+  @Test
+  public void testNotifyModelChangedRehashesModelThatTracksModifications() {
+    ModificationTrackingModel model = new ModificationTrackingModel();
+    testAdapter.addModels(model);
+
+    // Change the value without marking the model as modified
+    model.value = 3;
+    testAdapter.notifyModelChanged(model);
+    assertEquals(2, model.hashCodeCount);
+
+    checkDifferState();
+  }
+
+  @Test
+  public void testContentDiffingFindsChangeHiddenByHashCollision() {
+    testAdapter.models.add(new ContentDiffingModel(1, "a"));
+    testAdapter.notifyModelsChanged();
+
+    // The replacement has the same hash code, but different content
+    testAdapter.models.set(0, new ContentDiffingModel(1, "b"));
+    testAdapter.notifyModelsChanged();
+    verify(observer).onItemRangeChanged(0, 1, null);
+
+    testAdapter.models.set(0, new ContentDiffingModel(1, "b"));
+    testAdapter.notifyModelsChanged();
+    verify(observer, times(1)).onItemRangeChanged(anyInt(), anyInt(), any());
+
+    checkDifferState();
+  }
+
+  @Test
+  public void testContentDiffingInFullDiff() {
+    testAdapter.models.add(new ContentDiffingModel(1, "a"));
+    testAdapter.models.add(new ContentDiffingModel(2, "a"));
+    testAdapter.notifyModelsChanged();
+
+    // Swapping the models needs a full diff
+    testAdapter.models.clear();
+    testAdapter.models.add(new ContentDiffingModel(2, "a"));
+    testAdapter.models.add(new ContentDiffingModel(1, "b"));
+    testAdapter.notifyModelsChanged();
+    verify(observer, times(1)).onItemRangeChanged(anyInt(), anyInt(), any());
+
+    checkDifferState();
+  }
+
+  @Test
+  public void testContentDiffingFallsBackToHashCodeIfReplacedModelWasChangedInPlace() {
+    ContentDiffingModel model = new ContentDiffingModel(1, "a", false);
+    testAdapter.models.add(model);
+    testAdapter.notifyModelsChanged();
+
+    // The view still shows "a", so replacing the changed model with an equal one is a change
+    model.text = "b";
+    testAdapter.models.set(0, new ContentDiffingModel(1, "b", false));
+    testAdapter.notifyModelsChanged();
+    verify(observer).onItemRangeChanged(0, 1, null);
+
+    checkDifferState();
+  }
+
+  private EpoxyViewHolder bindNewHolder(int position) {
+    RecyclerView parent = new RecyclerView(RuntimeEnvironment.application);
+    EpoxyViewHolder holder = new EpoxyViewHolder(parent, R.layout.view_holder_empty_view);
+    testAdapter.onBindViewHolder(holder, position);
+    return holder;
+  }
+
   /** Make sure that the differ is in a correct state, and then running it produces no changes. */
   private void checkDifferState() {
     differObserver.operationCount = 0;
@@ -419,4 +636,108 @@ public class EpoxyAdapterTest {
 
     Assert.assertEquals("Should not have any operations", 0, differObserver.operationCount);
   }
-}
\ No newline at end of file
+
+  static class ContentDiffingModel extends EpoxyModel<Object> {
+    String text;
+    private final boolean hashCodeCollides;
+
+    ContentDiffingModel(long id, String text) {
+      this(id, text, true);
+    }
+
+    ContentDiffingModel(long id, String text, boolean hashCodeCollides) {
+      super(id);
+      this.text = text;
+      this.hashCodeCollides = hashCodeCollides;
+    }
+
+    @Override
+    protected int getDefaultLayout() {
+      return 0;
+    }
+
+    @Override
+    protected boolean diffsByContent() {
+      return true;
+    }
+
+    @Override
+    protected boolean contentEquals(EpoxyModel<?> previousModel) {
+      return text.equals(((ContentDiffingModel) previousModel).text);
+    }
+
+    @Override
+    public int hashCode() {
+      // Colliding models can only have their changes found by comparing content
+      return hashCodeCollides ? 0 : text.hashCode();
+    }
+  }
+
+  private static class ViewStateModel extends EpoxyModel<View> {
+
+    ViewStateModel(long id) {
+      super(id);
+    }
+
+    @Override
+    protected int getDefaultLayout() {
+      return 0;
+    }
+
+    @Override
+    public boolean shouldSaveViewState() {
+      return true;
+    }
+  }
+
+  /** Binds payloads itself, and reports the given attributes as changed from any other model. */
+  private static class PayloadBindingModel extends ViewStateModel {
+    private final long changedAttributes;
+
+    PayloadBindingModel(long id, long changedAttributes) {
+      super(id);
+      this.changedAttributes = changedAttributes;
+    }
+
+    @Override
+    public void bind(View view, List<Object> payloads) {
+    }
+
+    @Override
+    protected boolean bindsPayloads() {
+      return true;
+    }
+
+    @Override
+    protected long getChangedAttributes(EpoxyModel<?> previouslyBoundModel) {
+      return changedAttributes;
+    }
+  }
+
+  private static class ModificationTrackingModel extends EpoxyModel<Object> {
+    int value;
+    int hashCodeCount;
+
+    ModificationTrackingModel value(int value) {
+      this.value = value;
+      markModified();
+      return this;
+    }
+
+    @Override
+    protected int getDefaultLayout() {
+      return 0;
+    }
+
+    @Override
+    protected boolean tracksModifications() {
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      hashCodeCount++;
+      return 31 * super.hashCode() + value;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.airbnb.epoxy;
+
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+
+@Config(sdk = 21, manifest = TestRunner.MANIFEST_PATH)
+@RunWith(TestRunner.class)
+public class EpoxyRecycledViewPoolTest {
+  private static final int LAYOUT_A = 1;
+  private static final int LAYOUT_B = 2;
+  private static final int MAX_PER_LAYOUT = 12;
+
+  private final EpoxyRecycledViewPool pool = new EpoxyRecycledViewPool(MAX_PER_LAYOUT);
+  private final TestAdapter adapter = new TestAdapter();
+  private final RecyclerView recyclerView = createRecyclerView();
+
+  @Test
+  public void sizedForModelsWhenAdapterAttached() {
+    addModels(adapter, 8, LAYOUT_A);
+    adapter.notifyModelsChanged();
+
+    recyclerView.setAdapter(adapter);
+
+    assertEquals(8, pool.getMaxRecycledViews(LAYOUT_A));
+    assertEquals(ViewHolderPrewarmer.DEFAULT_MAX_RECYCLED_VIEWS,
+        pool.getMaxRecycledViews(LAYOUT_B));
+  }
+
+  @Test
+  public void sizedWhenModelsChange() {
+    recyclerView.setAdapter(adapter);
+
+    addModels(adapter, 30, LAYOUT_B);
+    adapter.notifyModelsChanged();
+    assertEquals(MAX_PER_LAYOUT, pool.getMaxRecycledViews(LAYOUT_B));
+
+    // Limits aren't lowered when models are removed
+    adapter.models.clear();
+    adapter.notifyModelsChanged();
+    assertEquals(MAX_PER_LAYOUT, pool.getMaxRecycledViews(LAYOUT_B));
+  }
+
+  @Test
+  public void sizedForLargestCountAcrossAdapters() {
+    TestAdapter otherAdapter = new TestAdapter();
+    addModels(otherAdapter, 9, LAYOUT_A);
+    otherAdapter.notifyModelsChanged();
+    createRecyclerView().setAdapter(otherAdapter);
+
+    addModels(adapter, 7, LAYOUT_A);
+    adapter.notifyModelsChanged();
+    recyclerView.setAdapter(adapter);
+
+    assertEquals(9, pool.getMaxRecycledViews(LAYOUT_A));
+  }
+
+  @Test
+  public void tracksHitsMissesAndDiscards() {
+    assertNull(pool.getRecycledView(LAYOUT_A));
+
+    for (int i = 0; i < ViewHolderPrewarmer.DEFAULT_MAX_RECYCLED_VIEWS + 1; i++) {
+      pool.putRecycledView(adapter.createViewHolder(recyclerView, LAYOUT_A));
+    }
+    assertNotNull(pool.getRecycledView(LAYOUT_A));
+    assertNotNull(pool.getRecycledView(LAYOUT_A));
+
+    assertEquals(2, pool.getHitCount());
+    assertEquals(1, pool.getMissCount());
+    assertEquals(1, pool.getDiscardCount());
+    assertEquals(2f / 3, pool.getHitRate(), 0.001);
+
+    pool.resetStats();
+    assertEquals(0, pool.getHitCount());
+    assertEquals(0f, pool.getHitRate());
+  }
+
+  @Test
+  public void countsStayInSyncWhenLimitLowered() {
+    pool.setMaxRecycledViews(LAYOUT_A, 4);
+    for (int i = 0; i < 4; i++) {
+      pool.putRecycledView(adapter.createViewHolder(recyclerView, LAYOUT_A));
+    }
+
+    pool.setMaxRecycledViews(LAYOUT_A, 2);
+    pool.setMaxRecycledViews(LAYOUT_A, 4);
+    pool.putRecycledView(adapter.createViewHolder(recyclerView, LAYOUT_A));
+    pool.putRecycledView(adapter.createViewHolder(recyclerView, LAYOUT_A));
+
+    assertEquals(0, pool.getDiscardCount());
+  }
+
+  private RecyclerView createRecyclerView() {
+    RecyclerView recyclerView = new RecyclerView(RuntimeEnvironment.application);
+    recyclerView.setRecycledViewPool(pool);
+    return recyclerView;
+  }
+
+  private static void addModels(TestAdapter adapter, int count, int layout) {
+    for (int i = 0; i < count; i++) {
+      adapter.models.add(new TestModel().layout(layout));
+    }
+  }
+}
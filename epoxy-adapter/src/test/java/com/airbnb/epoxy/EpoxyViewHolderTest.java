@@ -0,0 +1,160 @@
+package com.airbnb.epoxy;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.airbnb.viewmodeladapter.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Config(sdk = 21, manifest = TestRunner.MANIFEST_PATH)
+@RunWith(TestRunner.class)
+public class EpoxyViewHolderTest {
+  private static final List<Object> DIFF_PAYLOADS =
+      Collections.<Object>singletonList(DiffPayload.INSTANCE);
+
+  private final EpoxyViewHolder holder = new EpoxyViewHolder(
+      new RecyclerView(RuntimeEnvironment.application), R.layout.view_holder_empty_view);
+
+  @Test
+  public void diffPayloadIsReplacedWithChangesFromBoundModel() {
+    bind(new AttributeModel(1), Collections.<Object>emptyList());
+
+    AttributeModel model = new AttributeModel(0b101);
+    bind(model, DIFF_PAYLOADS);
+
+    assertEquals(Collections.<Object>singletonList(new AttributeChanges(0b101)),
+        holder.getPayloads());
+    assertEquals(holder.getPayloads(), model.boundPayloads);
+  }
+
+  @Test
+  public void otherPayloadsAreKeptWithChanges() {
+    bind(new AttributeModel(1), Collections.<Object>emptyList());
+
+    bind(new AttributeModel(1), Arrays.<Object>asList(DiffPayload.INSTANCE, "payload"));
+
+    assertEquals(Arrays.<Object>asList(new AttributeChanges(1), "payload"), holder.getPayloads());
+  }
+
+  @Test
+  public void sameModelInstanceIsFullyBound() {
+    AttributeModel model = new AttributeModel(1);
+    bind(model, Collections.<Object>emptyList());
+
+    bind(model, DIFF_PAYLOADS);
+
+    assertFullyBound(model);
+  }
+
+  @Test
+  public void modelOfDifferentClassIsFullyBound() {
+    bind(new OtherAttributeModel(1), Collections.<Object>emptyList());
+
+    AttributeModel model = new AttributeModel(1);
+    bind(model, DIFF_PAYLOADS);
+
+    assertFullyBound(model);
+  }
+
+  @Test
+  public void modelWithDifferentLayoutIsFullyBound() {
+    bind(new AttributeModel(1), Collections.<Object>emptyList());
+
+    AttributeModel model = new AttributeModel(1);
+    model.layout(1);
+    bind(model, DIFF_PAYLOADS);
+
+    assertFullyBound(model);
+  }
+
+  @Test
+  public void modelWithChangedVisibilityIsFullyBound() {
+    bind(new AttributeModel(1), Collections.<Object>emptyList());
+
+    AttributeModel model = new AttributeModel(1);
+    model.hide();
+    bind(model, DIFF_PAYLOADS);
+
+    assertFullyBound(model);
+  }
+
+  @Test
+  public void unknownChangesAreFullyBound() {
+    bind(new AttributeModel(1), Collections.<Object>emptyList());
+
+    AttributeModel model = new AttributeModel(AttributeChanges.ALL_ATTRIBUTES);
+    bind(model, DIFF_PAYLOADS);
+
+    assertFullyBound(model);
+  }
+
+  @Test
+  public void noChangesAreFullyBound() {
+    bind(new AttributeModel(1), Collections.<Object>emptyList());
+
+    AttributeModel model = new AttributeModel(0);
+    bind(model, DIFF_PAYLOADS);
+
+    assertFullyBound(model);
+  }
+
+  /** Binds the model the way the adapter does, with its payloads resolved first. */
+  private void bind(AttributeModel model, List<Object> payloads) {
+    holder.bind(model, holder.resolvePayloads(model, payloads));
+  }
+
+  private void assertFullyBound(AttributeModel model) {
+    assertTrue(holder.getPayloads().isEmpty());
+    assertTrue(model.fullyBound);
+  }
+
+  /** Reports the given attributes as changed from any other model, and records how it is bound. */
+  private static class AttributeModel extends EpoxyModel<View> {
+    private final long changedAttributes;
+    boolean fullyBound;
+    List<Object> boundPayloads;
+
+    AttributeModel(long changedAttributes) {
+      super(1);
+      this.changedAttributes = changedAttributes;
+    }
+
+    @Override
+    protected int getDefaultLayout() {
+      return 0;
+    }
+
+    @Override
+    public void bind(View view) {
+      fullyBound = true;
+    }
+
+    @Override
+    public void bind(View view, List<Object> payloads) {
+      boundPayloads = payloads;
+    }
+
+    @Override
+    protected long getChangedAttributes(EpoxyModel<?> previouslyBoundModel) {
+      return changedAttributes;
+    }
+  }
+
+  private static class OtherAttributeModel extends AttributeModel {
+
+    OtherAttributeModel(long changedAttributes) {
+      super(changedAttributes);
+    }
+  }
+}
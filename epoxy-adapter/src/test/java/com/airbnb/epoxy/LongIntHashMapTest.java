@@ -0,0 +1,96 @@
+package com.airbnb.epoxy;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import static com.airbnb.epoxy.LongIntHashMap.NO_VALUE;
+import static org.junit.Assert.assertEquals;
+
+@Config(sdk = 21, manifest = TestRunner.MANIFEST_PATH)
+@RunWith(TestRunner.class)
+public class LongIntHashMapTest {
+
+  private final LongIntHashMap map = new LongIntHashMap();
+
+  @Test
+  public void putAndGet() {
+    assertEquals(NO_VALUE, map.put(1, 10));
+    assertEquals(NO_VALUE, map.put(-1, 20));
+    assertEquals(NO_VALUE, map.put(Long.MAX_VALUE, 30));
+
+    assertEquals(10, map.get(1));
+    assertEquals(20, map.get(-1));
+    assertEquals(30, map.get(Long.MAX_VALUE));
+    assertEquals(NO_VALUE, map.get(2));
+    assertEquals(3, map.size());
+  }
+
+  @Test
+  public void putReplacesValue() {
+    map.put(5, 1);
+
+    assertEquals(1, map.put(5, 2));
+    assertEquals(2, map.get(5));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  public void remove() {
+    map.put(5, 1);
+
+    assertEquals(1, map.remove(5));
+    assertEquals(NO_VALUE, map.get(5));
+    assertEquals(NO_VALUE, map.remove(5));
+    assertEquals(0, map.size());
+  }
+
+  @Test
+  public void clear() {
+    for (int i = 0; i < 100; i++) {
+      map.put(i, i);
+    }
+
+    map.clear();
+
+    assertEquals(0, map.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(NO_VALUE, map.get(i));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeValuesNotAllowed() {
+    map.put(1, -2);
+  }
+
+  @Test
+  public void matchesHashMap() {
+    Random random = new Random(0);
+    Map<Long, Integer> expected = new HashMap<>();
+
+    for (int i = 0; i < 100000; i++) {
+      // A small key range so that puts, replacements, and removals collide often
+      long key = random.nextInt(2000) - 1000;
+      int value = random.nextInt(Integer.MAX_VALUE);
+
+      if (random.nextInt(3) == 0) {
+        Integer removed = expected.remove(key);
+        assertEquals(removed == null ? NO_VALUE : removed, map.remove(key));
+      } else {
+        Integer previous = expected.put(key, value);
+        assertEquals(previous == null ? NO_VALUE : previous, map.put(key, value));
+      }
+    }
+
+    assertEquals(expected.size(), map.size());
+    for (Entry<Long, Integer> entry : expected.entrySet()) {
+      assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.airbnb.epoxy;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@Config(sdk = 21, manifest = TestRunner.MANIFEST_PATH)
+@RunWith(TestRunner.class)
+public class LongObjectHashMapTest {
+
+  private final LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+  @Test
+  public void putAndGet() {
+    assertNull(map.put(1, "a"));
+    assertNull(map.put(-1, "b"));
+    assertEquals("a", map.put(1, "c"));
+
+    assertEquals("c", map.get(1));
+    assertEquals("b", map.get(-1));
+    assertNull(map.get(2));
+    assertEquals(2, map.size());
+  }
+
+  @Test
+  public void removeMovesLastEntryIntoPlace() {
+    map.put(10, "a");
+    map.put(20, "b");
+    map.put(30, "c");
+
+    assertEquals("a", map.remove(10));
+    assertNull(map.remove(10));
+
+    assertEquals(2, map.size());
+    assertEquals(30, map.keyAt(0));
+    assertEquals("c", map.valueAt(0));
+    assertEquals(0, map.indexOfKey(30));
+    assertEquals("b", map.get(20));
+  }
+
+  @Test
+  public void clear() {
+    for (int i = 0; i < 100; i++) {
+      map.put(i, "value");
+    }
+
+    map.clear();
+
+    assertEquals(0, map.size());
+    for (int i = 0; i < 100; i++) {
+      assertNull(map.get(i));
+    }
+  }
+
+  @Test
+  public void matchesHashMap() {
+    Random random = new Random(0);
+    Map<Long, String> expected = new HashMap<>();
+
+    for (int i = 0; i < 100000; i++) {
+      long key = random.nextInt(2000) - 1000;
+      String value = String.valueOf(random.nextInt());
+
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(key), map.remove(key));
+      } else {
+        assertEquals(expected.put(key, value), map.put(key, value));
+      }
+    }
+
+    assertEquals(expected.size(), map.size());
+    for (Entry<Long, String> entry : expected.entrySet()) {
+      assertEquals(entry.getValue(), map.get(entry.getKey()));
+    }
+    for (int i = 0; i < map.size(); i++) {
+      assertEquals(expected.get(map.keyAt(i)), map.valueAt(i));
+    }
+  }
+}
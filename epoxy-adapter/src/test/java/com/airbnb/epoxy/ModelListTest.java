@@ -6,6 +6,8 @@ import org.junit.runner.RunWith;
 import org.robolectric.annotation.Config;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
@@ -185,4 +187,78 @@ public class ModelListTest {
     modelList.retainAll(modelsToRetain);
     verify(observer, times(2)).onItemRangeRemoved(1, 1);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testIndexOfModel() {
+    EpoxyModel<?> model = modelList.get(1);
+    assertEquals(1, modelList.indexOfModel(model));
+    assertEquals(-1, modelList.indexOfModel(new TestModel()));
+  }
+
+  @Test
+  public void testIndexOfModelAfterInsertionAndRemoval() {
+    EpoxyModel<?> lastModel = modelList.get(2);
+    assertEquals(2, modelList.indexOfModel(lastModel));
+
+    TestModel insertedModel = new TestModel();
+    modelList.add(1, insertedModel);
+    assertEquals(1, modelList.indexOfModel(insertedModel));
+    assertEquals(3, modelList.indexOfModel(lastModel));
+
+    EpoxyModel<?> removedModel = modelList.remove(0);
+    assertEquals(-1, modelList.indexOfModel(removedModel));
+    assertEquals(0, modelList.indexOfModel(insertedModel));
+    assertEquals(2, modelList.indexOfModel(lastModel));
+  }
+
+  @Test
+  public void testIndexOfModelAfterSet() {
+    EpoxyModel<?> replacedModel = modelList.get(1);
+    assertEquals(1, modelList.indexOfModel(replacedModel));
+
+    TestModel newModel = new TestModel();
+    modelList.set(1, newModel);
+    assertEquals(-1, modelList.indexOfModel(replacedModel));
+    assertEquals(1, modelList.indexOfModel(newModel));
+  }
+
+  @Test
+  public void testIndexOfModelAfterSort() {
+    final List<EpoxyModel<?>> expectedOrder = new ArrayList<>(modelList);
+    Collections.reverse(expectedOrder);
+    assertEquals(0, modelList.indexOfModel(expectedOrder.get(2)));
+
+    // Sorting may modify the list directly instead of through our methods
+    Collections.sort(modelList, new Comparator<EpoxyModel<?>>() {
+      @Override
+      public int compare(EpoxyModel<?> model1, EpoxyModel<?> model2) {
+        return expectedOrder.indexOf(model1) - expectedOrder.indexOf(model2);
+      }
+    });
+
+    assertEquals(expectedOrder, modelList);
+    for (int i = 0; i < expectedOrder.size(); i++) {
+      assertEquals(i, modelList.indexOfModel(expectedOrder.get(i)));
+    }
+  }
+
+  @Test
+  public void testIndexOfModelWithDuplicateIds() {
+    TestModel duplicate = new TestModel();
+    duplicate.id(modelList.get(0).id());
+    modelList.add(duplicate);
+
+    assertEquals(3, modelList.indexOfModel(duplicate));
+    assertEquals(0, modelList.indexOfModel(modelList.get(0)));
+  }
+
+  @Test
+  public void testIndexOfId() {
+    EpoxyModel<?> lastModel = modelList.get(2);
+    assertEquals(2, modelList.indexOfId(lastModel.id()));
+    assertEquals(-1, modelList.indexOfId(new TestModel().id()));
+
+    modelList.remove(0);
+    assertEquals(1, modelList.indexOfId(lastModel.id()));
+  }
+}
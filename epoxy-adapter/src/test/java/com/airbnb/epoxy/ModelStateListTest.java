@@ -0,0 +1,58 @@
+package com.airbnb.epoxy;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+@Config(sdk = 21, manifest = TestRunner.MANIFEST_PATH)
+@RunWith(TestRunner.class)
+public class ModelStateListTest {
+
+  private final ModelStateList stateList = new ModelStateList();
+
+  @Test
+  public void moveRangeBack() {
+    fill(6);
+
+    stateList.moveRange(1, 3, 2);
+
+    assertOrder(0, 3, 4, 1, 2, 5);
+  }
+
+  @Test
+  public void moveRangeForward() {
+    fill(6);
+
+    stateList.moveRange(3, 0, 3);
+
+    assertOrder(3, 4, 5, 0, 1, 2);
+  }
+
+  @Test
+  public void moveSingleItem() {
+    fill(4);
+
+    stateList.moveRange(0, 3, 1);
+
+    assertOrder(1, 2, 3, 0);
+  }
+
+  private void fill(int count) {
+    stateList.insertRange(0, count);
+    for (int i = 0; i < count; i++) {
+      stateList.set(i, i, i * 31);
+    }
+  }
+
+  private void assertOrder(long... ids) {
+    assertEquals(ids.length, stateList.size);
+    for (int i = 0; i < ids.length; i++) {
+      assertEquals(ids[i], stateList.ids[i]);
+      assertEquals((int) ids[i] * 31, stateList.hashCodes[i]);
+      assertEquals(i, stateList.positions[i]);
+      assertEquals(i, stateList.indexOf(ids[i]));
+    }
+  }
+}
@@ -4,7 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 class ModelTestUtils {
-  private static final int DEFAULT_NUM_MODELS = 20;
+  static final int DEFAULT_NUM_MODELS = 20;
 
   static void changeValues(List models) {
     changeValues(models, 0, models.size());
@@ -0,0 +1,189 @@
+package com.airbnb.epoxy;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.airbnb.epoxy.ModelTestUtils.convertToTestModels;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@Config(sdk = 21, manifest = TestRunner.MANIFEST_PATH)
+@RunWith(TestRunner.class)
+public class PagedEpoxyAdapterTest {
+  private static final int PAGE_SIZE = 10;
+
+  private final TestPagedAdapter adapter = new TestPagedAdapter();
+  private final TestObserver testObserver = new TestObserver();
+
+  @Before
+  public void setUp() {
+    adapter.setTotalItemCount(95);
+  }
+
+  @Test
+  public void showsPlaceholdersUntilPageIsLoaded() {
+    assertEquals(95, adapter.getItemCount());
+    assertEquals(0, adapter.placeholdersBuilt);
+
+    EpoxyModel<?> placeholder = adapter.getModelForPosition(3);
+    assertSame(placeholder, adapter.getModelForPosition(3));
+    assertEquals(placeholder.id(), adapter.getItemId(3));
+    assertEquals(1, adapter.placeholdersBuilt);
+
+    List<TestModel> pageModels = buildModels(PAGE_SIZE);
+    adapter.setPageModels(0, pageModels);
+
+    assertTrue(adapter.isPageLoaded(0));
+    assertSame(pageModels.get(3), adapter.getModelForPosition(3));
+  }
+
+  @Test
+  public void loadsPagesAroundShownPage() {
+    adapter.loadPagesAround(4);
+
+    assertEquals(3, adapter.requestedPages.size());
+    assertEquals(4, (int) adapter.requestedPages.get(0));
+    assertTrue(adapter.requestedPages.contains(3));
+    assertTrue(adapter.requestedPages.contains(5));
+
+    // Pages that are already loading aren't requested again
+    adapter.loadPagesAround(4);
+    assertEquals(3, adapter.requestedPages.size());
+  }
+
+  @Test
+  public void lastPageIsShorter() {
+    adapter.loadPagesAround(9);
+
+    adapter.setPageModels(9, buildModels(5));
+    assertTrue(adapter.isPageLoaded(9));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void pageMustHaveOneModelPerItem() {
+    adapter.setPageModels(0, buildModels(PAGE_SIZE - 1));
+  }
+
+  @Test
+  public void evictsPagesFarthestFromShownPage() {
+    adapter.setMaxLoadedPages(3);
+    adapter.loadAsRequested = true;
+    adapter.loadPagesAround(1);
+    assertEquals(3, adapter.getLoadedPageCount());
+
+    adapter.loadPagesAround(4);
+
+    assertEquals(3, adapter.getLoadedPageCount());
+    assertFalse(adapter.isPageLoaded(0));
+    assertFalse(adapter.isPageLoaded(1));
+    assertFalse(adapter.isPageLoaded(2));
+    assertTrue(adapter.isPageLoaded(3));
+    assertTrue(adapter.isPageLoaded(4));
+    assertTrue(adapter.isPageLoaded(5));
+  }
+
+  @Test
+  public void reloadedPageIsDiffed() {
+    adapter.setPageModels(2, buildModels(PAGE_SIZE));
+    adapter.invalidatePage(2);
+    assertEquals(Collections.singletonList(2), adapter.requestedPages);
+
+    List<TestModel> newPageModels = new ArrayList<>();
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      newPageModels.add(((TestModel) adapter.getModelForPosition(20 + i)).clone());
+    }
+    Collections.swap(newPageModels, 0, 9);
+    newPageModels.get(5).randomizeValue();
+    newPageModels.set(7, new TestModel());
+
+    adapter.registerAdapterDataObserver(testObserver);
+    testObserver.setUpForNextDiff(convertToTestModels(allModels()));
+    adapter.setPageModels(2, newPageModels);
+
+    List<TestModel> modelsAfterDiff = testObserver.modelsAfterDiffing;
+    for (int i = 0; i < adapter.getItemCount(); i++) {
+      if (modelsAfterDiff.get(i) != InsertedModel.INSTANCE) {
+        assertEquals(adapter.getItemId(i), modelsAfterDiff.get(i).id());
+      }
+    }
+    assertSame(InsertedModel.INSTANCE, modelsAfterDiff.get(27));
+    assertTrue(testObserver.operationCount < PAGE_SIZE);
+  }
+
+  @Test
+  public void changingCountResetsLastPage() {
+    adapter.setPageModels(8, buildModels(PAGE_SIZE));
+    adapter.setPageModels(9, buildModels(5));
+
+    adapter.setTotalItemCount(98);
+
+    assertEquals(98, adapter.getItemCount());
+    assertTrue(adapter.isPageLoaded(8));
+    assertFalse(adapter.isPageLoaded(9));
+    assertEquals(1, adapter.getLoadedPageCount());
+  }
+
+  @Test
+  public void modelsAreFoundByIdInLoadedPagesOnly() {
+    List<TestModel> pageModels = buildModels(PAGE_SIZE);
+    adapter.setPageModels(3, pageModels);
+
+    assertSame(pageModels.get(4), adapter.getDisplayedModelById(pageModels.get(4).id()));
+    assertNull(adapter.getDisplayedModelById(new TestModel().id()));
+    assertEquals(0, adapter.placeholdersBuilt);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void diffingIsNotSupported() {
+    adapter.enableDiffing();
+  }
+
+  private List<EpoxyModel<?>> allModels() {
+    List<EpoxyModel<?>> models = new ArrayList<>();
+    for (int i = 0; i < adapter.getItemCount(); i++) {
+      models.add(adapter.getModelForPosition(i));
+    }
+    return models;
+  }
+
+  private static List<TestModel> buildModels(int count) {
+    List<TestModel> models = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      models.add(new TestModel());
+    }
+    return models;
+  }
+
+  private static class TestPagedAdapter extends PagedEpoxyAdapter {
+    final List<Integer> requestedPages = new ArrayList<>();
+    int placeholdersBuilt;
+    boolean loadAsRequested;
+
+    TestPagedAdapter() {
+      super(PAGE_SIZE);
+    }
+
+    @Override
+    protected void onLoadPage(int page, int positionStart, int itemCount) {
+      requestedPages.add(page);
+      if (loadAsRequested) {
+        setPageModels(page, buildModels(itemCount));
+      }
+    }
+
+    @Override
+    protected EpoxyModel<?> buildPlaceholderModel(int position) {
+      placeholdersBuilt++;
+      return new TestModel();
+    }
+  }
+}
@@ -3,6 +3,11 @@ package com.airbnb.epoxy;
 class TestAdapter extends EpoxyAdapter {
 
   TestAdapter() {
+    this(false);
+  }
+
+  TestAdapter(boolean minimalMoves) {
     enableDiffing();
+    setMinimalMovesEnabled(minimalMoves);
   }
 }
@@ -0,0 +1,152 @@
+package com.airbnb.epoxy;
+
+import android.support.v7.widget.RecyclerView.AdapterDataObserver;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.airbnb.epoxy.ModelTestUtils.convertToTestModels;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+/** Tests {@link EpoxyAdapter#beginTransaction()} and {@link EpoxyAdapter#commitTransaction()}. */
+@Config(sdk = 21, manifest = TestRunner.MANIFEST_PATH)
+@RunWith(TestRunner.class)
+public class TransactionTest {
+  private static final int INITIAL_MODEL_COUNT = 10;
+
+  private final TestObserver testObserver = new TestObserver();
+
+  @Test
+  public void transactionWithDiffing() {
+    runTransaction(new TestAdapter());
+  }
+
+  @Test
+  public void transactionWithoutDiffing() {
+    NonDiffingAdapter adapter = new NonDiffingAdapter();
+    runTransaction(adapter);
+
+    // The changes are no longer tracked once the transaction is committed
+    adapter.notifyDataSetChanged();
+    adapter.models.clear();
+    assertEquals(0, adapter.getItemCount());
+  }
+
+  @Test
+  public void transactionWithOnlyInsertions() {
+    TestAdapter adapter = new TestAdapter();
+    adapter.registerAdapterDataObserver(testObserver);
+
+    adapter.beginTransaction();
+    for (int i = 0; i < INITIAL_MODEL_COUNT; i++) {
+      adapter.addModel(new TestModel());
+    }
+    adapter.commitTransaction();
+
+    assertEquals(1, testObserver.operationCount);
+    assertEquals(INITIAL_MODEL_COUNT, testObserver.modelsAfterDiffing.size());
+  }
+
+  @Test
+  public void changeWithSameHashCodeIsNotifiedWithDiffing() {
+    assertNotifiedChangeIsKept(new TestAdapter());
+  }
+
+  @Test
+  public void changeWithSameHashCodeIsNotifiedWithoutDiffing() {
+    assertNotifiedChangeIsKept(new NonDiffingAdapter());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void beginTwiceThrows() {
+    TestAdapter adapter = new TestAdapter();
+    adapter.beginTransaction();
+    adapter.beginTransaction();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void commitWithoutBeginThrows() {
+    new TestAdapter().commitTransaction();
+  }
+
+  private void runTransaction(EpoxyAdapter adapter) {
+    List<EpoxyModel<?>> models = adapter.models;
+    for (int i = 0; i < INITIAL_MODEL_COUNT; i++) {
+      adapter.addModel(new TestModel());
+    }
+
+    adapter.registerAdapterDataObserver(testObserver);
+    testObserver.setUpForNextDiff(convertToTestModels(models));
+
+    adapter.beginTransaction();
+    TestModel changedModel = (TestModel) models.get(5);
+    adapter.addModel(new TestModel());
+    adapter.removeModel(models.get(1));
+    adapter.insertModelAfter(new TestModel(), models.get(0));
+    adapter.hideModels(models.get(2), models.get(3));
+    models.remove(models.size() - 2);
+    changedModel.randomizeValue();
+    adapter.notifyModelChanged(changedModel);
+
+    assertEquals("Nothing is notified until the transaction is committed", 0,
+        testObserver.operationCount);
+    adapter.commitTransaction();
+
+    List<TestModel> notifiedModels = testObserver.modelsAfterDiffing;
+    assertEquals(models.size(), notifiedModels.size());
+    for (int i = 0; i < models.size(); i++) {
+      TestModel notifiedModel = notifiedModels.get(i);
+      if (notifiedModel != InsertedModel.INSTANCE) {
+        assertSame(models.get(i), notifiedModel);
+      }
+    }
+    assertTrue(changedModel.updated);
+    assertTrue(((TestModel) models.get(3)).updated);
+  }
+
+  /**
+   * A change notified during a transaction should be notified on commit with its payload, at the
+   * model's position after the transaction, even if the model's hash code didn't change.
+   */
+  private void assertNotifiedChangeIsKept(EpoxyAdapter adapter) {
+    List<EpoxyModel<?>> models = adapter.models;
+    for (int i = 0; i < INITIAL_MODEL_COUNT; i++) {
+      adapter.addModel(new TestModel());
+    }
+
+    PayloadObserver payloadObserver = new PayloadObserver();
+    adapter.registerAdapterDataObserver(payloadObserver);
+
+    adapter.beginTransaction();
+    adapter.insertModelBefore(new TestModel(), models.get(0));
+    adapter.notifyModelChanged(models.get(3), "payload");
+    adapter.commitTransaction();
+
+    assertEquals(Collections.singletonList(3), payloadObserver.changedPositions);
+    assertEquals(Collections.<Object>singletonList("payload"), payloadObserver.payloads);
+  }
+
+  /** Records the position and payload of each changed item. */
+  static class PayloadObserver extends AdapterDataObserver {
+    final List<Integer> changedPositions = new ArrayList<>();
+    final List<Object> payloads = new ArrayList<>();
+
+    @Override
+    public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+      for (int i = positionStart; i < positionStart + itemCount; i++) {
+        changedPositions.add(i);
+        payloads.add(payload);
+      }
+    }
+  }
+
+  private static class NonDiffingAdapter extends EpoxyAdapter {
+  }
+}
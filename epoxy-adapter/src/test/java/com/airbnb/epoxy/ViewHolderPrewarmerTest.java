@@ -0,0 +1,75 @@
+package com.airbnb.epoxy;
+
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.RecyclerView.RecycledViewPool;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static junit.framework.Assert.assertEquals;
+
+@Config(sdk = 21, manifest = TestRunner.MANIFEST_PATH)
+@RunWith(TestRunner.class)
+public class ViewHolderPrewarmerTest {
+  private static final int LAYOUT_A = 1;
+  private static final int LAYOUT_B = 2;
+
+  private final TestAdapter adapter = new TestAdapter();
+  private final RecyclerView recyclerView = new RecyclerView(RuntimeEnvironment.application);
+  private final ViewHolderPrewarmer prewarmer = new ViewHolderPrewarmer(adapter, recyclerView);
+
+  @Before
+  public void setUp() {
+    addModels(3, LAYOUT_A);
+    addModels(8, LAYOUT_B);
+    adapter.notifyModelsChanged();
+  }
+
+  @Test
+  public void createsHoldersForEachLayout() {
+    prewarmer.prewarmNow(10);
+
+    assertEquals(11, prewarmer.getPrewarmedCount());
+    assertEquals(3, countRecycledViews(LAYOUT_A));
+    // The pool's limit is raised past the default to fit them
+    assertEquals(8, countRecycledViews(LAYOUT_B));
+  }
+
+  @Test
+  public void limitsHoldersPerLayout() {
+    prewarmer.prewarmNow(2);
+
+    assertEquals(4, prewarmer.getPrewarmedCount());
+    assertEquals(2, countRecycledViews(LAYOUT_A));
+    assertEquals(2, countRecycledViews(LAYOUT_B));
+  }
+
+  @Test
+  public void hiddenModelsUseTheHiddenLayout() {
+    adapter.models.get(0).hide();
+    adapter.notifyModelsChanged();
+
+    prewarmer.prewarmNow(10);
+
+    assertEquals(2, countRecycledViews(LAYOUT_A));
+    assertEquals(1, countRecycledViews(new HiddenEpoxyModel().getLayout()));
+  }
+
+  private void addModels(int count, int layout) {
+    for (int i = 0; i < count; i++) {
+      adapter.models.add(new TestModel().layout(layout));
+    }
+  }
+
+  private int countRecycledViews(int layout) {
+    RecycledViewPool pool = recyclerView.getRecycledViewPool();
+    int count = 0;
+    while (pool.getRecycledView(layout) != null) {
+      count++;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,211 @@
+package com.airbnb.epoxy;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import com.airbnb.epoxy.ViewHolderState.ViewState;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@Config(sdk = 21, manifest = TestRunner.MANIFEST_PATH)
+@RunWith(TestRunner.class)
+public class ViewHolderStateTest {
+
+  @Test
+  public void readsParcelWrittenAsSparseArray() {
+    // The format written when view holder state was a sparse array
+    Parcel parcel = Parcel.obtain();
+    parcel.writeInt(2);
+    parcel.writeLong(5);
+    parcel.writeParcelable(createViewState(1), 0);
+    parcel.writeLong(-3);
+    parcel.writeParcelable(createViewState(2), 0);
+    parcel.setDataPosition(0);
+
+    ViewHolderState state = ViewHolderState.CREATOR.createFromParcel(parcel);
+
+    assertEquals(2, state.size());
+    assertEquals(1, state.get(5).keyAt(0));
+    assertEquals(2, state.get(-3).keyAt(0));
+  }
+
+  @Test
+  public void parcelRoundTrip() {
+    ViewHolderState state = new ViewHolderState();
+    for (int i = 0; i < 50; i++) {
+      state.put(i * 7L, createViewState(i));
+    }
+
+    Parcel parcel = Parcel.obtain();
+    state.writeToParcel(parcel, 0);
+    parcel.setDataPosition(0);
+    ViewHolderState restoredState = ViewHolderState.CREATOR.createFromParcel(parcel);
+
+    assertEquals(50, restoredState.size());
+    for (int i = 0; i < 50; i++) {
+      assertEquals(i, restoredState.get(i * 7L).keyAt(0));
+    }
+  }
+
+  @Test
+  public void dropsLeastRecentlySavedStates() {
+    ViewHolderState state = new ViewHolderState();
+    for (int i = 0; i < 5; i++) {
+      state.put(i, createViewState(i));
+    }
+    // Saving a state again makes it the most recent
+    state.put(0, state.get(0));
+
+    state.setMaxStates(3);
+
+    assertEquals(3, state.size());
+    assertNull(state.get(1));
+    assertNull(state.get(2));
+    assertNotNull(state.get(0));
+
+    state.put(5, createViewState(5));
+    assertNull(state.get(3));
+    assertNotNull(state.get(4));
+  }
+
+  @Test
+  public void notifiesListenerWhenStateDropped() {
+    ViewHolderState state = new ViewHolderState();
+    state.setMaxStates(1);
+    final List<Long> droppedIds = new ArrayList<>();
+    state.setOnStateDroppedListener(new ViewHolderState.OnStateDroppedListener() {
+      @Override
+      public void onStateDropped(long id) {
+        droppedIds.add(id);
+      }
+    });
+    state.put(1, createViewState(1));
+
+    state.put(2, createViewState(2));
+
+    assertEquals(Collections.singletonList(1L), droppedIds);
+  }
+
+  @Test
+  public void parcelsMostRecentStatesWithinBudget() {
+    ViewHolderState state = new ViewHolderState();
+    for (int i = 0; i < 10; i++) {
+      state.put(i, createViewState(i));
+    }
+
+    Parcel parcel = Parcel.obtain();
+    state.writeToParcel(parcel, 0);
+    int fullSize = parcel.dataSize();
+
+    state.setMaxParcelBytes(fullSize / 2);
+    parcel = Parcel.obtain();
+    state.writeToParcel(parcel, 0);
+    assertTrue(parcel.dataSize() <= fullSize / 2);
+
+    parcel.setDataPosition(0);
+    ViewHolderState restoredState = ViewHolderState.CREATOR.createFromParcel(parcel);
+    assertTrue(restoredState.size() > 0);
+    assertTrue(restoredState.size() < 10);
+    for (int i = 10 - restoredState.size(); i < 10; i++) {
+      assertNotNull(restoredState.get(i));
+    }
+  }
+
+  @Test
+  public void compactParcelRoundTrip() {
+    ViewHolderState state = new ViewHolderState();
+    state.setCompactParcelEnabled(true);
+    for (int i = 0; i < 20; i++) {
+      ViewState viewState = createViewState(i);
+      viewState.put(1000 + i, new TextState("text " + i));
+      viewState.put(2000 + i, null);
+      state.put(-i * 31L, viewState);
+    }
+    state.put(Long.MAX_VALUE, createViewState(7));
+    // Empty states are left out
+    state.put(99, new ViewState());
+
+    Parcel parcel = Parcel.obtain();
+    state.writeToParcel(parcel, 0);
+    parcel.setDataPosition(0);
+    ViewHolderState restoredState = ViewHolderState.CREATOR.createFromParcel(parcel);
+
+    assertEquals(21, restoredState.size());
+    assertNull(restoredState.get(99));
+    assertEquals(7, restoredState.get(Long.MAX_VALUE).keyAt(0));
+    for (int i = 0; i < 20; i++) {
+      ViewState viewState = restoredState.get(-i * 31L);
+      assertEquals(3, viewState.size());
+      assertEquals(0, ((ViewState) viewState.get(i)).size());
+      assertEquals("text " + i, ((TextState) viewState.get(1000 + i)).text);
+      assertNull(viewState.get(2000 + i));
+    }
+  }
+
+  @Test
+  public void compactParcelIsSmaller() {
+    ViewHolderState state = new ViewHolderState();
+    for (int i = 0; i < 20; i++) {
+      ViewState viewState = createViewState(i);
+      viewState.put(1000 + i, new TextState("text"));
+      state.put(i, viewState);
+    }
+
+    Parcel parcel = Parcel.obtain();
+    state.writeToParcel(parcel, 0);
+    int defaultSize = parcel.dataSize();
+
+    state.setCompactParcelEnabled(true);
+    parcel = Parcel.obtain();
+    state.writeToParcel(parcel, 0);
+
+    assertTrue(parcel.dataSize() < defaultSize);
+  }
+
+  static class TextState implements Parcelable {
+    final String text;
+
+    TextState(String text) {
+      this.text = text;
+    }
+
+    @Override
+    public int describeContents() {
+      return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+      dest.writeString(text);
+    }
+
+    public static final Creator<TextState> CREATOR = new Creator<TextState>() {
+      @Override
+      public TextState createFromParcel(Parcel source) {
+        return new TextState(source.readString());
+      }
+
+      @Override
+      public TextState[] newArray(int size) {
+        return new TextState[size];
+      }
+    };
+  }
+
+  private static ViewState createViewState(int viewId) {
+    ViewState viewState = new ViewState();
+    viewState.put(viewId, new ViewState());
+    return viewState;
+  }
+}
@@ -17,6 +17,11 @@ import java.lang.annotation.Target;
 public @interface PackageEpoxyConfig {
   boolean REQUIRE_HASHCODE_DEFAULT = false;
   boolean REQUIRE_ABSTRACT_MODELS = false;
+  boolean GENERATE_ATTRIBUTE_CHANGES_DEFAULT = false;
+  boolean TRACK_MODIFICATIONS_DEFAULT = false;
+  boolean GENERATE_COPY_SETTERS_DEFAULT = false;
+  boolean CACHE_HASH_CODE_DEFAULT = false;
+  boolean GENERATE_CONTENT_EQUALS_DEFAULT = false;
   /**
    * If true, all fields marked with {@link com.airbnb.epoxy.EpoxyAttribute} must have a type that
    * implements hashCode (besides the default Object implementation), or the attribute must set
@@ -46,4 +51,72 @@ public @interface PackageEpoxyConfig {
    * of the generated class.
    */
   boolean requireAbstractModels() default REQUIRE_ABSTRACT_MODELS;
+  /**
+   * If true, generated models get a {@code public static final long ATTRIBUTE_} bit flag for each
+   * of their {@link com.airbnb.epoxy.EpoxyAttribute} fields, and implement {@code
+   * EpoxyModel#getChangedAttributes} to report which attributes differ from the model previously
+   * bound to the same view. With diff payloads enabled on the adapter, the changed attributes are
+   * passed to {@code bind(view, payloads)} as an {@code AttributeChanges} payload, so a model can
+   * update only the views for the attributes that changed.
+   * <p>
+   * Attributes are compared the same way the generated equals method compares them. Models with
+   * more than 64 attributes don't get the generated implementation, and are always fully bound. The
+   * processor warns about those models.
+   */
+  boolean generateAttributeChanges() default GENERATE_ATTRIBUTE_CHANGES_DEFAULT;
+  /**
+   * If true, generated setters and reset methods mark the model as modified, and generated models
+   * report that they track modifications. The differ then keeps the hash code of each model that
+   * hasn't been modified since the previous diff, instead of recomputing the hash code of every
+   * model on every diff.
+   * <p>
+   * Only enable this if attributes are always changed through the generated setters. Changing an
+   * attribute field directly, or changing an attribute's value in place, such as adding to a list,
+   * won't be detected by the differ unless the change is notified explicitly.
+   */
+  boolean trackModifications() default TRACK_MODIFICATIONS_DEFAULT;
+  /**
+   * If true, generated models don't get setters that change their attributes. Instead, each
+   * attribute gets a {@code with} method, such as {@code withTitle(title)}, that returns a copy of
+   * the model with the new value and leaves the original unchanged. Generated models implement
+   * {@link Cloneable} for this, and the copy keeps the id of the original.
+   * <p>
+   * Since a model's attributes can then only change on a new copy, generated models also track
+   * modifications the same way as with {@link #trackModifications()}. The differ computes the hash
+   * code of each model instance once, and a model that is shown again without changes isn't hashed
+   * again.
+   * <p>
+   * This does not make models immutable. The base setters such as {@code id}, {@code layout},
+   * {@code show} and {@code hide}, and {@code reset}, still change the model in place, since the
+   * adapter relies on them to do so. Copies are shallow, so an array or collection attribute is
+   * shared by a model and its copies, and should be replaced with a {@code with} method instead of
+   * being changed in place.
+   */
+  boolean generateCopySetters() default GENERATE_COPY_SETTERS_DEFAULT;
+  /**
+   * If true, generated models cache their hash code in a field the first time it is computed. The
+   * cached value is cleared by the generated setters, by reset, and by the generated overrides of
+   * the base model setters such as id and layout, so calling hashCode again on a model that hasn't
+   * changed only reads the field.
+   * <p>
+   * As with {@link #trackModifications()}, only enable this if attributes are always changed
+   * through the generated setters. Changing an attribute field directly, or changing an
+   * attribute's value in place, leaves the previous hash code cached.
+   */
+  boolean cacheHashCode() default CACHE_HASH_CODE_DEFAULT;
+  /**
+   * If true, generated models implement {@code EpoxyModel#contentEquals} to compare their
+   * attributes with the model they replace, and report that they diff by content. When a model
+   * replaces a different instance with the same id, the differ then compares the two models
+   * directly instead of comparing their hash codes, so a hash collision can't hide a change.
+   * <p>
+   * Attributes are compared the same way the generated equals method compares them, with
+   * primitives first and arrays last so that a change is usually found without comparing the more
+   * expensive attributes. The hash code is still used when the same instance is diffed again, or
+   * when the replaced model was changed in place after it was diffed. Replaced models are kept
+   * until the next diff, so they should be left unchanged. With {@code
+   * EpoxyAdapter#enableAsyncDiffing} the models are compared on the diff executor, so the new
+   * models should also be left unchanged until the diff is dispatched.
+   */
+  boolean generateContentEquals() default GENERATE_CONTENT_EQUALS_DEFAULT;
 }
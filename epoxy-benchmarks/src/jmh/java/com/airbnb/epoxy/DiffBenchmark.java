@@ -0,0 +1,137 @@
+package com.airbnb.epoxy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures a full diff the same way {@code DiffHelper} runs one: the state lists are refilled from
+ * the model ids and hashes, and the operations between them are collected. The state lists and op
+ * helper are reused between invocations like they are in the adapter, so the allocation rate
+ * reported by the gc profiler shows what each diff allocates in steady state.
+ * <p>
+ * This only measures the differ core, with ids and hash codes that are already computed. See
+ * {@link ModelDiffBenchmark} for diffs of model lists.
+ */
+@State(Scope.Thread)
+public class DiffBenchmark {
+
+  public enum Scenario {
+    NO_CHANGE,
+    BULK_UPDATE,
+    INSERT,
+    REMOVE,
+    SHUFFLE,
+    REVERSE,
+    MOVE_FRONT_TO_END
+  }
+
+  @Param({"100", "1000", "10000"})
+  int modelCount;
+
+  @Param
+  Scenario scenario;
+
+  @Param({"false", "true"})
+  boolean minimalMoves;
+
+  private long[] oldIds;
+  private int[] oldHashCodes;
+  private long[] newIds;
+  private int[] newHashCodes;
+
+  private final ModelStateList oldStateList = new ModelStateList();
+  private final ModelStateList currentStateList = new ModelStateList();
+  private final UpdateOpHelper updateOpHelper = new UpdateOpHelper();
+  private MinimalMoveCollector minimalMoveCollector;
+
+  @Setup
+  public void setUp() {
+    oldIds = new long[modelCount];
+    oldHashCodes = new int[modelCount];
+    for (int i = 0; i < modelCount; i++) {
+      oldIds[i] = i;
+      oldHashCodes[i] = hashCodeFor(i, 0);
+    }
+
+    List<Long> ids = idsAfter(scenario, modelCount);
+    int version = scenario == Scenario.BULK_UPDATE ? 1 : 0;
+    newIds = new long[ids.size()];
+    newHashCodes = new int[ids.size()];
+    for (int i = 0; i < newIds.length; i++) {
+      newIds[i] = ids.get(i);
+      newHashCodes[i] = hashCodeFor(newIds[i], version);
+    }
+
+    minimalMoveCollector = minimalMoves ? new MinimalMoveCollector() : null;
+  }
+
+  /**
+   * Returns the ids of the new list for the scenario, where the old list has the ids 0 to
+   * modelCount - 1 in order.
+   */
+  static List<Long> idsAfter(Scenario scenario, int modelCount) {
+    List<Long> ids = new ArrayList<>(modelCount);
+    for (int i = 0; i < modelCount; i++) {
+      ids.add((long) i);
+    }
+
+    switch (scenario) {
+      case NO_CHANGE:
+      case BULK_UPDATE:
+        break;
+      case INSERT:
+        // Insert a new model after every tenth one
+        for (int i = ids.size() - 1; i >= 0; i -= 10) {
+          ids.add(i + 1, (long) (modelCount + i));
+        }
+        break;
+      case REMOVE:
+        for (int i = ids.size() - 1; i >= 0; i -= 10) {
+          ids.remove(i);
+        }
+        break;
+      case SHUFFLE:
+        Collections.shuffle(ids, new Random(0));
+        break;
+      case REVERSE:
+        Collections.reverse(ids);
+        break;
+      case MOVE_FRONT_TO_END:
+        ids.add(ids.remove(0));
+        break;
+      default:
+        throw new IllegalStateException("Unknown scenario " + scenario);
+    }
+    return ids;
+  }
+
+  @Benchmark
+  public UpdateOpHelper diff() {
+    fill(oldStateList, oldIds, oldHashCodes);
+    fill(currentStateList, newIds, newHashCodes);
+    updateOpHelper.reset();
+
+    return ModelStateDiffer.computeDiff(oldStateList, currentStateList, updateOpHelper,
+        minimalMoveCollector, null);
+  }
+
+  private static void fill(ModelStateList states, long[] ids, int[] hashCodes) {
+    states.clear();
+    states.insertRange(0, ids.length);
+    for (int i = 0; i < ids.length; i++) {
+      states.set(i, ids[i], hashCodes[i]);
+    }
+  }
+
+  private static int hashCodeFor(long id, int version) {
+    return 31 * (int) (id ^ (id >>> 32)) + version;
+  }
+}
@@ -0,0 +1,159 @@
+package com.airbnb.epoxy;
+
+import android.support.annotation.Nullable;
+
+import com.airbnb.epoxy.DiffBenchmark.Scenario;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures a full diff of model lists the same way {@code DiffHelper} runs one after the models
+ * were rebuilt: the state of each new model is read from its id and {@link
+ * EpoxyModel#hashCodeForDiff()}, and models that kept their id are compared with {@link
+ * EpoxyModel#changedSince(EpoxyModel, int, int)}, by content if they {@link
+ * EpoxyModel#diffsByContent()}.
+ * <p>
+ * {@code DiffHelper} needs a RecyclerView adapter, which can't be used on the JVM, so the notify
+ * calls that follow the diff aren't included. They are the same for both diff paths.
+ */
+@State(Scope.Thread)
+public class ModelDiffBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  int modelCount;
+
+  @Param
+  Scenario scenario;
+
+  @Param({"false", "true"})
+  boolean diffsByContent;
+
+  private final List<EpoxyModel<?>> oldModels = new ArrayList<>();
+  private int[] oldHashCodes;
+  private final List<EpoxyModel<?>> newModels = new ArrayList<>();
+
+  private final ModelStateList oldStateList = new ModelStateList();
+  private final ModelStateList currentStateList = new ModelStateList();
+  private final UpdateOpHelper updateOpHelper = new UpdateOpHelper();
+
+  /** The same comparison as {@code DiffHelper.MODEL_COMPARATOR}. */
+  private static final ModelStateDiffer.ItemComparator MODEL_COMPARATOR =
+      new ModelStateDiffer.ItemComparator() {
+        @Override
+        public boolean hasChanged(@Nullable Object previousItem, int previousHashCode, Object item,
+            int hashCode) {
+          return ((EpoxyModel<?>) item)
+              .changedSince((EpoxyModel<?>) previousItem, previousHashCode, hashCode);
+        }
+      };
+
+  @Setup
+  public void setUp() {
+    oldHashCodes = new int[modelCount];
+    for (int i = 0; i < modelCount; i++) {
+      EpoxyModel<?> model = new BenchmarkModel(i, 0, diffsByContent);
+      oldModels.add(model);
+      oldHashCodes[i] = model.hashCodeForDiff();
+    }
+
+    // The new list is built from new model instances, like it is when an app rebuilds its models
+    int version = scenario == Scenario.BULK_UPDATE ? 1 : 0;
+    for (long id : DiffBenchmark.idsAfter(scenario, modelCount)) {
+      newModels.add(new BenchmarkModel(id, version, diffsByContent));
+    }
+  }
+
+  @Benchmark
+  public UpdateOpHelper diff() {
+    // The old states are what the previous diff left, so their hash codes aren't computed again
+    oldStateList.clear();
+    oldStateList.insertRange(0, oldModels.size());
+    for (int i = 0; i < oldModels.size(); i++) {
+      EpoxyModel<?> model = oldModels.get(i);
+      oldStateList.set(i, model.id(), oldHashCodes[i], model);
+    }
+
+    currentStateList.clear();
+    buildStates(newModels, currentStateList);
+    updateOpHelper.reset();
+
+    return ModelStateDiffer.computeDiff(oldStateList, currentStateList, updateOpHelper, null,
+        null, MODEL_COMPARATOR);
+  }
+
+  /** The same as {@code DiffHelper.buildStates}. */
+  private static void buildStates(List<EpoxyModel<?>> models, ModelStateList states) {
+    int modelCount = models.size();
+    states.insertRange(0, modelCount);
+
+    for (int i = 0; i < modelCount; i++) {
+      EpoxyModel<?> model = models.get(i);
+      model.addedToAdapter = true;
+      states.set(i, model.id(), model.hashCodeForDiff(), model);
+    }
+  }
+
+  /** A model with a few attributes that implements equals and hashCode like a generated model. */
+  private static class BenchmarkModel extends EpoxyModel<Object> {
+    private final String title;
+    private final int version;
+    private final CharSequence[] tags;
+    private final boolean diffsByContent;
+
+    BenchmarkModel(long id, int version, boolean diffsByContent) {
+      id(id);
+      this.title = "Title " + id;
+      this.version = version;
+      this.tags = new CharSequence[] {"tag " + id, "tag " + (id + 1)};
+      this.diffsByContent = diffsByContent;
+    }
+
+    @Override
+    protected int getDefaultLayout() {
+      return 1;
+    }
+
+    @Override
+    protected boolean diffsByContent() {
+      return diffsByContent;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (o == this) {
+        return true;
+      }
+      if (!(o instanceof BenchmarkModel)) {
+        return false;
+      }
+      if (!super.equals(o)) {
+        return false;
+      }
+      BenchmarkModel that = (BenchmarkModel) o;
+      if (version != that.version) {
+        return false;
+      }
+      if (!title.equals(that.title)) {
+        return false;
+      }
+      return Arrays.equals(tags, that.tags);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = super.hashCode();
+      result = 31 * result + title.hashCode();
+      result = 31 * result + version;
+      result = 31 * result + Arrays.hashCode(tags);
+      return result;
+    }
+  }
+}
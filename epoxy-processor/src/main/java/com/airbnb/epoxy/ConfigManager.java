@@ -4,11 +4,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.Elements;
 
@@ -19,6 +19,7 @@ class ConfigManager {
 
   private static final PackageConfigSettings
       DEFAULT_PACKAGE_CONFIG_SETTINGS = PackageConfigSettings.forDefaults();
+  /** Configurations by package name, with null for packages known not to have one. */
   private final Map<String, PackageConfigSettings> configurationMap = new HashMap<>();
   private final Elements elementUtils;
 
@@ -44,7 +45,7 @@ class ConfigManager {
       }
 
       PackageEpoxyConfig annotation = element.getAnnotation(PackageEpoxyConfig.class);
-      configurationMap.put(packageName, PackageConfigSettings.create(annotation));
+      configurationMap.put(packageName, PackageConfigSettings.create(annotation, element));
     }
 
     return errors;
@@ -58,28 +59,74 @@ class ConfigManager {
     return getConfigurationForElement(classElement).requireAbstractModels;
   }
 
-  private PackageConfigSettings getConfigurationForElement(Element element) {
-    String targetPackage = elementUtils.getPackageOf(element).getQualifiedName().toString();
+  boolean generatesAttributeChanges(TypeElement classElement) {
+    return getConfigurationForElement(classElement).generateAttributeChanges;
+  }
 
-    if (configurationMap.containsKey(targetPackage)) {
-      return configurationMap.get(targetPackage);
-    }
+  boolean tracksModifications(TypeElement classElement) {
+    PackageConfigSettings config = getConfigurationForElement(classElement);
+    // Models with copy setters only change attributes on copies, so they can always track
+    // modifications
+    return config.trackModifications || config.generateCopySetters;
+  }
 
-    // If there isn't a configuration for that exact package then we look for configurations for
-    // parent packages which include the target package. If multiple parent packages declare
-    // configurations we take the configuration from the more nested parent.
-    Entry<String, PackageConfigSettings> bestMatch = null;
-    for (Entry<String, PackageConfigSettings> configEntry : configurationMap.entrySet()) {
-      String entryPackage = configEntry.getKey();
-      if (!targetPackage.startsWith(entryPackage + ".")) {
-        continue;
+  boolean generatesCopySetters(TypeElement classElement) {
+    return getConfigurationForElement(classElement).generateCopySetters;
+  }
+
+  boolean cachesHashCode(TypeElement classElement) {
+    return getConfigurationForElement(classElement).cacheHashCode;
+  }
+
+  boolean generatesContentEquals(TypeElement classElement) {
+    return getConfigurationForElement(classElement).generateContentEquals;
+  }
+
+  /**
+   * Returns the package element that declares the configuration used for the given class, or null
+   * if the class uses the default configuration. Code generated from the configuration depends on
+   * this element as well as on the class.
+   */
+  Element getConfigElement(TypeElement classElement) {
+    return getConfigurationForElement(classElement).configElement;
+  }
+
+  /**
+   * Returns the configuration of the element's package, or of its most nested parent package with
+   * a configuration. Configurations are read from the package elements instead of only from this
+   * round's annotations, so that they are found even when an incremental build doesn't compile the
+   * package-info file again.
+   */
+  private PackageConfigSettings getConfigurationForElement(Element element) {
+    String packageName = elementUtils.getPackageOf(element).getQualifiedName().toString();
+
+    while (true) {
+      PackageConfigSettings config = getConfigurationForPackage(packageName);
+      if (config != null) {
+        return config;
       }
 
-      if (bestMatch == null || bestMatch.getKey().length() < entryPackage.length()) {
-        bestMatch = configEntry;
+      int lastDot = packageName.lastIndexOf('.');
+      if (lastDot == -1) {
+        return DEFAULT_PACKAGE_CONFIG_SETTINGS;
       }
+      packageName = packageName.substring(0, lastDot);
+    }
+  }
+
+  /** Returns the configuration declared on the given package, or null if there is none. */
+  private PackageConfigSettings getConfigurationForPackage(String packageName) {
+    if (configurationMap.containsKey(packageName)) {
+      return configurationMap.get(packageName);
     }
 
-    return bestMatch != null ? bestMatch.getValue() : DEFAULT_PACKAGE_CONFIG_SETTINGS;
+    PackageElement packageElement = elementUtils.getPackageElement(packageName);
+    PackageEpoxyConfig annotation =
+        packageElement != null ? packageElement.getAnnotation(PackageEpoxyConfig.class) : null;
+    PackageConfigSettings config =
+        annotation != null ? PackageConfigSettings.create(annotation, packageElement) : null;
+    // Packages without a configuration are cached as well, so they are only looked up once
+    configurationMap.put(packageName, config);
+    return config;
   }
 }
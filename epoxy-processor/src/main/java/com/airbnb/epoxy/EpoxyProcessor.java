@@ -5,13 +5,18 @@ import android.support.annotation.LayoutRes;
 import com.airbnb.epoxy.ClassToGenerateInfo.ConstructorInfo;
 import com.airbnb.epoxy.ClassToGenerateInfo.MethodInfo;
 import com.google.auto.service.AutoService;
+import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.MethodSpec.Builder;
 import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
@@ -19,6 +24,7 @@ import java.lang.annotation.AnnotationTypeMismatchException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -43,12 +49,14 @@ import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
 
+import static com.airbnb.epoxy.ProcessorUtils.BINDS_PAYLOADS_METHOD_NAME;
 import static com.airbnb.epoxy.ProcessorUtils.EPOXY_MODEL_TYPE;
 import static com.airbnb.epoxy.ProcessorUtils.buildEpoxyException;
 import static com.airbnb.epoxy.ProcessorUtils.getEpoxyObjectType;
 import static com.airbnb.epoxy.ProcessorUtils.implementsMethod;
 import static com.airbnb.epoxy.ProcessorUtils.isEpoxyModel;
 import static com.airbnb.epoxy.ProcessorUtils.isEpoxyModelWithHolder;
+import static com.airbnb.epoxy.ProcessorUtils.overridesPayloadBind;
 import static com.squareup.javapoet.TypeName.BOOLEAN;
 import static com.squareup.javapoet.TypeName.BYTE;
 import static com.squareup.javapoet.TypeName.CHAR;
@@ -74,6 +82,17 @@ public class EpoxyProcessor extends AbstractProcessor {
 
   private static final String CREATE_NEW_HOLDER_METHOD_NAME = "createNewHolder";
   private static final String GET_DEFAULT_LAYOUT_METHOD_NAME = "getDefaultLayout";
+  private static final ClassName EPOXY_MODEL_CLASS_NAME =
+      ClassName.get("com.airbnb.epoxy", "EpoxyModel");
+  private static final String ATTRIBUTE_FLAG_PREFIX = "ATTRIBUTE_";
+  /** Attribute changes are reported as bit flags in a long. */
+  private static final int MAX_ATTRIBUTE_FLAGS = 64;
+  private static final String CACHED_HASH_CODE_FIELD = "cachedHashCode";
+  /**
+   * If this option is set to true, a note is printed at the end of processing with how many R
+   * classes were found and parsed to look up layout resources, and how long that took.
+   */
+  static final String OPTION_LOG_RESOURCE_SCAN_STATS = "epoxy.logResourceScanStats";
 
   private Filer filer;
   private Messager messager;
@@ -82,6 +101,7 @@ public class EpoxyProcessor extends AbstractProcessor {
 
   private ResourceProcessor resourceProcessor;
   private ConfigManager configManager;
+  private boolean logResourceScanStats;
   private final List<Exception> loggedExceptions = new ArrayList<>();
 
   @Override
@@ -94,6 +114,13 @@ public class EpoxyProcessor extends AbstractProcessor {
 
     resourceProcessor = new ResourceProcessor(processingEnv, elementUtils, typeUtils);
     configManager = new ConfigManager(elementUtils);
+    logResourceScanStats =
+        Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_LOG_RESOURCE_SCAN_STATS));
+  }
+
+  @Override
+  public Set<String> getSupportedOptions() {
+    return Collections.singleton(OPTION_LOG_RESOURCE_SCAN_STATS);
   }
 
   @Override
@@ -144,13 +171,7 @@ public class EpoxyProcessor extends AbstractProcessor {
     }
 
     try {
-      addAttributesFromOtherModules(modelClassMap);
-    } catch (Exception e) {
-      logError(e);
-    }
-
-    try {
-      updateClassesForInheritance(modelClassMap);
+      addAttributesFromSuperClasses(modelClassMap);
     } catch (Exception e) {
       logError(e);
     }
@@ -166,6 +187,9 @@ public class EpoxyProcessor extends AbstractProcessor {
     validateAttributesImplementHashCode(modelClassMap.values());
 
     if (roundEnv.processingOver()) {
+      if (logResourceScanStats) {
+        messager.printMessage(Diagnostic.Kind.NOTE, resourceProcessor.getScanStats());
+      }
 
       // We wait until the very end to log errors so that all the generated classes are still
       // created.
@@ -277,40 +301,44 @@ public class EpoxyProcessor extends AbstractProcessor {
   }
 
   /**
-   * Looks for attributes on super classes that weren't included in this processor's coverage. Super
-   * classes are already found if they are in the same module since the processor will pick them up
-   * with the rest of the annotations.
+   * Check each model for super classes that also have attributes. For each super class with
+   * attributes we add those attributes to the attributes of the generated class, so that a
+   * generated class contains all the attributes of its super classes combined.
+   * <p>
+   * The attributes are read from the super classes themselves instead of from the other models
+   * processed in this round, so a generated class only depends on its model class and that class's
+   * super types. This covers super classes in other modules, and keeps the output the same when an
+   * incremental build only processes the models that changed.
+   * <p>
+   * One caveat is that if a sub class is in a different package than its super class we can't
+   * include attributes that are package private, otherwise the generated class won't compile.
    */
-  private void addAttributesFromOtherModules(Map<TypeElement, ClassToGenerateInfo> modelClassMap) {
-    // Copy the entries in the original map so we can add new entries to the map while we iterate
-    // through the old entries
-    Set<Entry<TypeElement, ClassToGenerateInfo>> originalEntries =
-        new HashSet<>(modelClassMap.entrySet());
-
-    for (Entry<TypeElement, ClassToGenerateInfo> entry : originalEntries) {
+  private void addAttributesFromSuperClasses(Map<TypeElement, ClassToGenerateInfo> modelClassMap) {
+    for (Entry<TypeElement, ClassToGenerateInfo> entry : modelClassMap.entrySet()) {
       TypeElement currentEpoxyModel = entry.getKey();
       TypeMirror superclassType = currentEpoxyModel.getSuperclass();
       ClassToGenerateInfo classToGenerateInfo = entry.getValue();
 
       while (isEpoxyModel(superclassType)) {
         TypeElement superclassEpoxyModel = (TypeElement) typeUtils.asElement(superclassType);
-
-        if (!modelClassMap.keySet().contains(superclassEpoxyModel)) {
-          for (Element element : superclassEpoxyModel.getEnclosedElements()) {
-            if (element.getAnnotation(EpoxyAttribute.class) != null) {
-              AttributeInfo attributeInfo = buildAttributeInfo(element);
-              if (!belongToTheSamePackage(currentEpoxyModel, superclassEpoxyModel)
-                  && attributeInfo.isPackagePrivate()) {
-                // We can't inherit a package private attribute if we're not in the same package
-                continue;
-              }
-
-              // We add just the attribute info to the class in our module. We do NOT want to
-              // generate a class for the super class EpoxyModel in the other module since one
-              // will be created when that module is processed. If we make one as well there will
-              // be a duplicate (causes proguard errors and is just wrong).
-              classToGenerateInfo.addAttribute(attributeInfo);
+        // Models processed in this round report errors in their own attributes
+        boolean validated = modelClassMap.containsKey(superclassEpoxyModel);
+
+        for (Element element : superclassEpoxyModel.getEnclosedElements()) {
+          if (element.getAnnotation(EpoxyAttribute.class) != null) {
+            AttributeInfo attributeInfo = validated
+                ? new AttributeInfo(element, typeUtils) : buildAttributeInfo(element);
+            if (!belongToTheSamePackage(currentEpoxyModel, superclassEpoxyModel)
+                && attributeInfo.isPackagePrivate()) {
+              // We can't inherit a package private attribute if we're not in the same package
+              continue;
             }
+
+            // We add just the attribute info to the class in our module. We do NOT want to
+            // generate a class for the super class EpoxyModel if it is in another module since
+            // one will be created when that module is processed. If we make one as well there
+            // will be a duplicate (causes proguard errors and is just wrong).
+            classToGenerateInfo.addAttribute(attributeInfo);
           }
         }
 
@@ -319,44 +347,6 @@ public class EpoxyProcessor extends AbstractProcessor {
     }
   }
 
-  /**
-   * Check each model for super classes that also have attributes. For each super class with
-   * attributes we add those attributes to the attributes of the generated class, so that a
-   * generated class contains all the attributes of its super classes combined.
-   * <p>
-   * One caveat is that if a sub class is in a different package than its super class we can't
-   * include attributes that are package private, otherwise the generated class won't compile.
-   */
-  private void updateClassesForInheritance(
-      Map<TypeElement, ClassToGenerateInfo> helperClassMap) {
-    for (Entry<TypeElement, ClassToGenerateInfo> entry : helperClassMap.entrySet()) {
-      TypeElement thisClass = entry.getKey();
-
-      Map<TypeElement, ClassToGenerateInfo> otherClasses = new LinkedHashMap<>(helperClassMap);
-      otherClasses.remove(thisClass);
-
-      for (Entry<TypeElement, ClassToGenerateInfo> otherEntry : otherClasses.entrySet()) {
-        TypeElement otherClass = otherEntry.getKey();
-
-        if (!isSubtype(thisClass, otherClass)) {
-          continue;
-        }
-
-        Set<AttributeInfo> otherAttributes = otherEntry.getValue().getAttributeInfo();
-
-        if (belongToTheSamePackage(thisClass, otherClass)) {
-          entry.getValue().addAttributes(otherAttributes);
-        } else {
-          for (AttributeInfo attribute : otherAttributes) {
-            if (!attribute.isPackagePrivate()) {
-              entry.getValue().addAttribute(attribute);
-            }
-          }
-        }
-      }
-    }
-  }
-
   /**
    * Checks if two classes belong to the same package
    */
@@ -366,33 +356,84 @@ public class EpoxyProcessor extends AbstractProcessor {
     return package1.equals(package2);
   }
 
-  private boolean isSubtype(TypeElement e1, TypeElement e2) {
-    return isSubtype(e1.asType(), e2.asType());
-  }
-
-  private boolean isSubtype(TypeMirror e1, TypeMirror e2) {
-    // We use erasure so that EpoxyModelA is considered a subtype of EpoxyModel<T extends View>
-    return typeUtils.isSubtype(e1, typeUtils.erasure(e2));
-  }
-
   private void generateClassForModel(ClassToGenerateInfo info)
       throws IOException {
     if (!info.shouldGenerateSubClass()) {
       return;
     }
 
-    TypeSpec generatedClass = TypeSpec.classBuilder(info.getGeneratedName())
+    TypeSpec.Builder builder = TypeSpec.classBuilder(info.getGeneratedName())
         .addJavadoc("Generated file. Do not modify!")
         .addModifiers(Modifier.PUBLIC)
         .superclass(info.getOriginalClassName())
         .addTypeVariables(info.getTypeVariables())
-        .addMethods(generateConstructors(info))
+        .addOriginatingElement(info.getOriginalClassElement());
+
+    // The package configuration may be declared in a parent package, so it is an input of the
+    // generated model as well. Isolating processors may only have one originating element per
+    // generated file, which is why the processor is aggregating for incremental builds.
+    Element configElement = configManager.getConfigElement(info.getOriginalClassElement());
+    if (configElement != null) {
+      builder.addOriginatingElement(configElement);
+    }
+
+    if (configManager.generatesCopySetters(info.getOriginalClassElement())) {
+      builder.addSuperinterface(Cloneable.class);
+    }
+
+    if (configManager.cachesHashCode(info.getOriginalClassElement())) {
+      for (AttributeInfo attributeInfo : info.getAttributeInfo()) {
+        if (attributeInfo.getName().equals(CACHED_HASH_CODE_FIELD)) {
+          logError("Attribute name is reserved for the cached hash code. (class: %s, field: %s)",
+              info.getOriginalClassName(), CACHED_HASH_CODE_FIELD);
+        }
+      }
+      builder.addField(FieldSpec.builder(int.class, CACHED_HASH_CODE_FIELD, Modifier.PRIVATE)
+          .build());
+    }
+
+    boolean generateAttributeChanges =
+        configManager.generatesAttributeChanges(info.getOriginalClassElement());
+    if (generateAttributeChanges && info.getAttributeInfo().size() > MAX_ATTRIBUTE_FLAGS) {
+      generateAttributeChanges = false;
+      messager.printMessage(Diagnostic.Kind.WARNING, String.format(
+          "Attribute changes are not generated for %s since it has %d attributes, and at most %d "
+              + "are supported. Diff payloads will fully bind the model.",
+          info.getOriginalClassName(), info.getAttributeInfo().size(), MAX_ATTRIBUTE_FLAGS),
+          info.getOriginalClassElement());
+    }
+    Map<AttributeInfo, String> attributeFlags = null;
+    if (generateAttributeChanges) {
+      attributeFlags = getAttributeFlagNames(info);
+      builder.addFields(generateAttributeFlags(info, attributeFlags));
+    }
+
+    builder.addMethods(generateConstructors(info))
         .addMethods(generateSettersAndGetters(info))
         .addMethods(generateMethodsReturningClassType(info))
         .addMethods(generateDefaultMethodImplementations(info))
         .addMethod(generateReset(info))
         .addMethod(generateEquals(info))
-        .addMethod(generateHashCode(info))
+        .addMethod(generateHashCode(info));
+
+    if (configManager.tracksModifications(info.getOriginalClassElement())) {
+      builder.addMethod(generateTracksModifications());
+    }
+
+    if (overridesPayloadBind(info.getOriginalClassElement(), typeUtils)) {
+      builder.addMethod(generateBindsPayloads());
+    }
+
+    if (configManager.generatesContentEquals(info.getOriginalClassElement())) {
+      builder.addMethod(generateDiffsByContent())
+          .addMethod(generateContentEquals(info));
+    }
+
+    if (generateAttributeChanges) {
+      builder.addMethod(generateGetChangedAttributes(info, attributeFlags));
+    }
+
+    TypeSpec generatedClass = builder
         .addMethod(generateToString(info))
         .build();
 
@@ -436,9 +477,14 @@ public class EpoxyProcessor extends AbstractProcessor {
       StringBuilder statementBuilder = new StringBuilder(String.format("super.%s(",
           methodInfo.name));
       generateParams(statementBuilder, methodInfo.params);
+      builder.addStatement(statementBuilder.toString());
+
+      // These may change the id, layout or visibility included in the hash code
+      if (configManager.cachesHashCode(info.getOriginalClassElement())) {
+        builder.addStatement("$L = 0", CACHED_HASH_CODE_FIELD);
+      }
 
       methods.add(builder
-          .addStatement(statementBuilder.toString())
           .addStatement("return this")
           .build());
     }
@@ -598,10 +644,14 @@ public class EpoxyProcessor extends AbstractProcessor {
 
   private List<MethodSpec> generateSettersAndGetters(ClassToGenerateInfo helperClass) {
     List<MethodSpec> methods = new ArrayList<>();
+    boolean copySetters =
+        configManager.generatesCopySetters(helperClass.getOriginalClassElement());
 
     for (AttributeInfo data : helperClass.getAttributeInfo()) {
       if (data.generateSetter() && !data.hasFinalModifier()) {
-        methods.add(generateSetter(helperClass, data));
+        methods.add(copySetters
+            ? generateCopySetter(helperClass, data)
+            : generateSetter(helperClass, data));
       }
       methods.add(generateGetter(data));
     }
@@ -628,59 +678,132 @@ public class EpoxyProcessor extends AbstractProcessor {
             helperClass.getGeneratedName());
 
     for (AttributeInfo attributeInfo : helperClass.getAttributeInfo()) {
-      TypeName type = attributeInfo.getType();
+      addAttributeEqualsCheck(builder, attributeInfo);
+    }
 
-      if (!attributeInfo.useInHash() && type.isPrimitive()) {
-        continue;
-      }
+    return builder
+        .addStatement("return true")
+        .build();
+  }
 
-      String name = attributeInfo.getName();
+  /**
+   * Adds a statement that returns false if the attribute is different in {@code that}. Attributes
+   * excluded from the hash are only compared by whether they are null.
+   */
+  private static void addAttributeEqualsCheck(Builder builder, AttributeInfo attributeInfo) {
+    TypeName type = attributeInfo.getType();
 
-      if (attributeInfo.useInHash()) {
-        if (type == FLOAT) {
-          builder.beginControlFlow("if (Float.compare(that.$L, $L) != 0)", name, name)
-              .addStatement("return false")
-              .endControlFlow();
-        } else if (type == DOUBLE) {
-          builder.beginControlFlow("if (Double.compare(that.$L, $L) != 0)", name, name)
-              .addStatement("return false")
-              .endControlFlow();
-        } else if (type.isPrimitive()) {
-          builder.beginControlFlow("if ($L != that.$L)", name, name)
-              .addStatement("return false")
-              .endControlFlow();
-        } else if (type instanceof ArrayTypeName) {
-          builder.beginControlFlow("if (!$T.equals($L, that.$L))", TypeName.get(Arrays.class), name,
-              name)
-              .addStatement("return false")
-              .endControlFlow();
-        } else {
-          builder
-              .beginControlFlow("if ($L != null ? !$L.equals(that.$L) : that.$L != null)",
-                  name, name, name, name)
-              .addStatement("return false")
-              .endControlFlow();
-        }
+    if (!attributeInfo.useInHash() && type.isPrimitive()) {
+      return;
+    }
+
+    String name = attributeInfo.getName();
+
+    if (attributeInfo.useInHash()) {
+      if (type == FLOAT) {
+        builder.beginControlFlow("if (Float.compare(that.$L, $L) != 0)", name, name)
+            .addStatement("return false")
+            .endControlFlow();
+      } else if (type == DOUBLE) {
+        builder.beginControlFlow("if (Double.compare(that.$L, $L) != 0)", name, name)
+            .addStatement("return false")
+            .endControlFlow();
+      } else if (type.isPrimitive()) {
+        builder.beginControlFlow("if ($L != that.$L)", name, name)
+            .addStatement("return false")
+            .endControlFlow();
+      } else if (type instanceof ArrayTypeName) {
+        builder.beginControlFlow("if (!$T.equals($L, that.$L))", TypeName.get(Arrays.class), name,
+            name)
+            .addStatement("return false")
+            .endControlFlow();
       } else {
-        builder.beginControlFlow("if ($L != null && that.$L == null"
-                + " || $L == null && that.$L != null)",
-            name, name, name, name)
+        builder
+            .beginControlFlow("if ($L != null ? !$L.equals(that.$L) : that.$L != null)",
+                name, name, name, name)
             .addStatement("return false")
             .endControlFlow();
       }
+    } else {
+      builder.beginControlFlow("if ($L != null && that.$L == null"
+              + " || $L == null && that.$L != null)",
+          name, name, name, name)
+          .addStatement("return false")
+          .endControlFlow();
+    }
+  }
+
+  /**
+   * Generates a contentEquals method that compares the attributes of the previous model in order
+   * of how expensive they are to compare, so that the comparison can stop at a changed primitive
+   * before comparing objects or arrays. The model's base state, such as its layout, is compared
+   * last with the original class's equals method.
+   */
+  private MethodSpec generateContentEquals(ClassToGenerateInfo helperClass) {
+    Builder builder = MethodSpec.methodBuilder("contentEquals")
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PROTECTED)
+        .returns(boolean.class)
+        .addParameter(ParameterizedTypeName.get(EPOXY_MODEL_CLASS_NAME,
+            WildcardTypeName.subtypeOf(Object.class)), "previousModel")
+        .beginControlFlow("if (!(previousModel instanceof $T))", helperClass.getGeneratedName())
+        .addStatement("return false")
+        .endControlFlow()
+        .addStatement("$T that = ($T) previousModel", helperClass.getGeneratedName(),
+            helperClass.getGeneratedName());
+
+    List<AttributeInfo> objectAttributes = new ArrayList<>();
+    List<AttributeInfo> arrayAttributes = new ArrayList<>();
+    for (AttributeInfo attributeInfo : helperClass.getAttributeInfo()) {
+      TypeName type = attributeInfo.getType();
+      if (type.isPrimitive() || !attributeInfo.useInHash()) {
+        addAttributeEqualsCheck(builder, attributeInfo);
+      } else if (type instanceof ArrayTypeName) {
+        arrayAttributes.add(attributeInfo);
+      } else {
+        objectAttributes.add(attributeInfo);
+      }
+    }
+    for (AttributeInfo attributeInfo : objectAttributes) {
+      addAttributeEqualsCheck(builder, attributeInfo);
+    }
+    for (AttributeInfo attributeInfo : arrayAttributes) {
+      addAttributeEqualsCheck(builder, attributeInfo);
     }
 
     return builder
+        .addStatement("return super.equals(previousModel)")
+        .build();
+  }
+
+  private MethodSpec generateDiffsByContent() {
+    return MethodSpec.methodBuilder("diffsByContent")
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PROTECTED)
+        .returns(boolean.class)
         .addStatement("return true")
         .build();
   }
 
+  /**
+   * If the package caches hash codes then the hash code is kept in a field, which is cleared
+   * whenever the model is changed through a generated method. A value of 0 means the hash code
+   * needs to be computed, so a model whose hash code is actually 0 recomputes it every time.
+   */
   private MethodSpec generateHashCode(ClassToGenerateInfo helperClass) {
+    boolean cachesHashCode = configManager.cachesHashCode(helperClass.getOriginalClassElement());
     Builder builder = MethodSpec.methodBuilder("hashCode")
         .addAnnotation(Override.class)
         .addModifiers(Modifier.PUBLIC)
-        .returns(int.class)
-        .addStatement("int result = super.hashCode()");
+        .returns(int.class);
+
+    if (cachesHashCode) {
+      builder.beginControlFlow("if ($L != 0)", CACHED_HASH_CODE_FIELD)
+          .addStatement("return $L", CACHED_HASH_CODE_FIELD)
+          .endControlFlow();
+    }
+
+    builder.addStatement("int result = super.hashCode()");
 
     for (AttributeInfo attributeInfo : helperClass.getAttributeInfo()) {
       if (!attributeInfo.useInHash()) {
@@ -725,11 +848,140 @@ public class EpoxyProcessor extends AbstractProcessor {
       }
     }
 
+    if (cachesHashCode) {
+      builder.addStatement("$L = result", CACHED_HASH_CODE_FIELD);
+    }
+
     return builder
         .addStatement("return result")
         .build();
   }
 
+  /**
+   * Generated setters and reset mark the model as modified, so the differ can reuse its hash code
+   * until it is modified again.
+   */
+  private MethodSpec generateTracksModifications() {
+    return MethodSpec.methodBuilder("tracksModifications")
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PROTECTED)
+        .returns(boolean.class)
+        .addStatement("return true")
+        .build();
+  }
+
+  /**
+   * The model class binds payloads itself, so the adapter can skip saving and restoring the view
+   * state around a rebind with payloads.
+   */
+  private MethodSpec generateBindsPayloads() {
+    return MethodSpec.methodBuilder(BINDS_PAYLOADS_METHOD_NAME)
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PROTECTED)
+        .returns(boolean.class)
+        .addStatement("return true")
+        .build();
+  }
+
+  /**
+   * Names the bit flag constant of each attribute after the attribute's field, adding the flag's
+   * index if two fields would map to the same name.
+   */
+  private Map<AttributeInfo, String> getAttributeFlagNames(ClassToGenerateInfo helperClass) {
+    Map<AttributeInfo, String> flagNames = new LinkedHashMap<>();
+    Set<String> usedNames = new HashSet<>();
+
+    int index = 0;
+    for (AttributeInfo attributeInfo : helperClass.getAttributeInfo()) {
+      String flagName = ATTRIBUTE_FLAG_PREFIX + toUpperSnakeCase(attributeInfo.getName());
+      if (!usedNames.add(flagName)) {
+        flagName = flagName + "_" + index;
+        usedNames.add(flagName);
+      }
+      flagNames.put(attributeInfo, flagName);
+      index++;
+    }
+
+    return flagNames;
+  }
+
+  private static String toUpperSnakeCase(String fieldName) {
+    StringBuilder sb = new StringBuilder(fieldName.length() + 4);
+    for (int i = 0; i < fieldName.length(); i++) {
+      char c = fieldName.charAt(i);
+      if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(fieldName.charAt(i - 1))) {
+        sb.append('_');
+      }
+      sb.append(Character.toUpperCase(c));
+    }
+    return sb.toString();
+  }
+
+  private Iterable<FieldSpec> generateAttributeFlags(ClassToGenerateInfo helperClass,
+      Map<AttributeInfo, String> flagNames) {
+    List<FieldSpec> fields = new ArrayList<>(flagNames.size());
+
+    int index = 0;
+    for (AttributeInfo attributeInfo : helperClass.getAttributeInfo()) {
+      fields.add(FieldSpec.builder(long.class, flagNames.get(attributeInfo))
+          .addModifiers(Modifier.PUBLIC, STATIC, Modifier.FINAL)
+          .initializer("1L << $L", index)
+          .build());
+      index++;
+    }
+
+    return fields;
+  }
+
+  /**
+   * Compares each attribute to the model previously bound to the view. Attributes are compared the
+   * same way as in {@link #generateEquals(ClassToGenerateInfo)}, except that attributes excluded
+   * from the hash are still compared, by reference if they are objects, since a view bound to a
+   * new instance of something like a click listener needs to be updated.
+   */
+  private MethodSpec generateGetChangedAttributes(ClassToGenerateInfo helperClass,
+      Map<AttributeInfo, String> flagNames) {
+    Builder builder = MethodSpec.methodBuilder("getChangedAttributes")
+        .addAnnotation(Override.class)
+        .addModifiers(Modifier.PROTECTED)
+        .returns(long.class)
+        .addParameter(ParameterizedTypeName.get(EPOXY_MODEL_CLASS_NAME,
+            WildcardTypeName.subtypeOf(Object.class)), "previouslyBoundModel")
+        .beginControlFlow("if (!(previouslyBoundModel instanceof $T))",
+            helperClass.getGeneratedName())
+        .addStatement("return super.getChangedAttributes(previouslyBoundModel)")
+        .endControlFlow()
+        .addStatement("$T that = ($T) previouslyBoundModel", helperClass.getGeneratedName(),
+            helperClass.getGeneratedName())
+        .addStatement("long changedAttributes = 0");
+
+    for (AttributeInfo attributeInfo : helperClass.getAttributeInfo()) {
+      TypeName type = attributeInfo.getType();
+      String name = attributeInfo.getName();
+
+      if (type == FLOAT) {
+        builder.beginControlFlow("if (Float.compare(that.$L, $L) != 0)", name, name);
+      } else if (type == DOUBLE) {
+        builder.beginControlFlow("if (Double.compare(that.$L, $L) != 0)", name, name);
+      } else if (type.isPrimitive() || !attributeInfo.useInHash()) {
+        builder.beginControlFlow("if ($L != that.$L)", name, name);
+      } else if (type instanceof ArrayTypeName) {
+        builder.beginControlFlow("if (!$T.equals($L, that.$L))", TypeName.get(Arrays.class), name,
+            name);
+      } else {
+        builder.beginControlFlow("if ($L != null ? !$L.equals(that.$L) : that.$L != null)",
+            name, name, name, name);
+      }
+
+      builder.addStatement("changedAttributes |= $L", flagNames.get(attributeInfo))
+          .endControlFlow();
+    }
+
+    return builder
+        .addStatement("return changedAttributes")
+        .build();
+  }
+
   private MethodSpec generateToString(ClassToGenerateInfo helperClass) {
     Builder builder = MethodSpec.methodBuilder("toString")
         .addAnnotation(Override.class)
@@ -779,11 +1031,56 @@ public class EpoxyProcessor extends AbstractProcessor {
       builder.addStatement("super.$L($L)", attributeName, attributeName);
     }
 
+    if (configManager.tracksModifications(helperClass.getOriginalClassElement())) {
+      builder.addStatement("markModified()");
+    }
+
+    if (configManager.cachesHashCode(helperClass.getOriginalClassElement())) {
+      builder.addStatement("$L = 0", CACHED_HASH_CODE_FIELD);
+    }
+
     return builder
         .addStatement("return this")
         .build();
   }
 
+  /**
+   * Generates a {@code with} method that sets the attribute on a copy of the model, for models in
+   * packages that generate copy setters. The copy is marked as modified since it was cloned with
+   * the hash code state of the original.
+   */
+  private MethodSpec generateCopySetter(ClassToGenerateInfo helperClass, AttributeInfo data) {
+    String attributeName = data.getName();
+    TypeName generatedType = helperClass.getParameterizedGeneratedName();
+    Builder builder = MethodSpec.methodBuilder("with" + capitalize(attributeName))
+        .addModifiers(Modifier.PUBLIC)
+        .returns(generatedType)
+        .addParameter(ParameterSpec.builder(data.getType(), attributeName)
+            .addAnnotations(data.getSetterAnnotations()).build());
+
+    if (generatedType instanceof ParameterizedTypeName) {
+      builder.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+          .addMember("value", "$S", "unchecked")
+          .build());
+    }
+
+    builder.addStatement("$T copy = ($T) copyModel()", generatedType, generatedType)
+        .addStatement("copy.$L = $L", attributeName, attributeName)
+        .addStatement("copy.markModified()");
+
+    if (configManager.cachesHashCode(helperClass.getOriginalClassElement())) {
+      builder.addStatement("copy.$L = 0", CACHED_HASH_CODE_FIELD);
+    }
+
+    return builder
+        .addStatement("return copy")
+        .build();
+  }
+
+  private static String capitalize(String name) {
+    return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+  }
+
   private MethodSpec generateReset(ClassToGenerateInfo helperClass) {
     Builder builder = MethodSpec.methodBuilder("reset")
         .addAnnotation(Override.class)
@@ -797,8 +1094,13 @@ public class EpoxyProcessor extends AbstractProcessor {
       }
     }
 
+    builder.addStatement("super.reset()");
+
+    if (configManager.cachesHashCode(helperClass.getOriginalClassElement())) {
+      builder.addStatement("$L = 0", CACHED_HASH_CODE_FIELD);
+    }
+
     return builder
-        .addStatement("super.reset()")
         .addStatement("return this")
         .build();
   }
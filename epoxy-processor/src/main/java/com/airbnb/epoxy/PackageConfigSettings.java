@@ -1,5 +1,7 @@
 package com.airbnb.epoxy;
 
+import javax.lang.model.element.Element;
+
 /**
  * Stores configuration settings for a package.
  */
@@ -7,23 +9,51 @@ class PackageConfigSettings {
 
   final boolean requireHashCode;
   final boolean requireAbstractModels;
+  final boolean generateAttributeChanges;
+  final boolean trackModifications;
+  final boolean generateCopySetters;
+  final boolean cacheHashCode;
+  final boolean generateContentEquals;
+  /** The element the configuration is declared on, or null for the default configuration. */
+  final Element configElement;
 
-  private PackageConfigSettings(boolean requireHashCode, boolean requireAbstractModels) {
+  private PackageConfigSettings(boolean requireHashCode, boolean requireAbstractModels,
+      boolean generateAttributeChanges, boolean trackModifications, boolean generateCopySetters,
+      boolean cacheHashCode, boolean generateContentEquals, Element configElement) {
     this.requireHashCode = requireHashCode;
     this.requireAbstractModels = requireAbstractModels;
+    this.generateAttributeChanges = generateAttributeChanges;
+    this.trackModifications = trackModifications;
+    this.generateCopySetters = generateCopySetters;
+    this.cacheHashCode = cacheHashCode;
+    this.generateContentEquals = generateContentEquals;
+    this.configElement = configElement;
   }
 
   static PackageConfigSettings forDefaults() {
     return new PackageConfigSettings(
         PackageEpoxyConfig.REQUIRE_HASHCODE_DEFAULT,
-        PackageEpoxyConfig.REQUIRE_ABSTRACT_MODELS
+        PackageEpoxyConfig.REQUIRE_ABSTRACT_MODELS,
+        PackageEpoxyConfig.GENERATE_ATTRIBUTE_CHANGES_DEFAULT,
+        PackageEpoxyConfig.TRACK_MODIFICATIONS_DEFAULT,
+        PackageEpoxyConfig.GENERATE_COPY_SETTERS_DEFAULT,
+        PackageEpoxyConfig.CACHE_HASH_CODE_DEFAULT,
+        PackageEpoxyConfig.GENERATE_CONTENT_EQUALS_DEFAULT,
+        null
     );
   }
 
-  static PackageConfigSettings create(PackageEpoxyConfig configAnnotation) {
+  static PackageConfigSettings create(PackageEpoxyConfig configAnnotation,
+      Element configElement) {
     return new PackageConfigSettings(
         configAnnotation.requireHashCode(),
-        configAnnotation.requireAbstractModels()
+        configAnnotation.requireAbstractModels(),
+        configAnnotation.generateAttributeChanges(),
+        configAnnotation.trackModifications(),
+        configAnnotation.generateCopySetters(),
+        configAnnotation.cacheHashCode(),
+        configAnnotation.generateContentEquals(),
+        configElement
     );
   }
 }
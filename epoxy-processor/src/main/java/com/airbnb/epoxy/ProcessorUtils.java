@@ -22,6 +22,9 @@ class ProcessorUtils {
 
   static final String EPOXY_MODEL_TYPE = "com.airbnb.epoxy.EpoxyModel<?>";
   static final String EPOXY_MODEL_HOLDER_TYPE = "com.airbnb.epoxy.EpoxyModelWithHolder<?>";
+  private static final String EPOXY_MODEL_CLASS = "com.airbnb.epoxy.EpoxyModel";
+  private static final String EPOXY_MODEL_HOLDER_CLASS = "com.airbnb.epoxy.EpoxyModelWithHolder";
+  static final String BINDS_PAYLOADS_METHOD_NAME = "bindsPayloads";
 
   static void throwError(String msg, Object... args)
       throws EpoxyProcessorException {
@@ -102,6 +105,44 @@ class ProcessorUtils {
     return !modifiers.contains(Modifier.ABSTRACT);
   }
 
+  /**
+   * Returns true if the model class, or one of its super classes below the Epoxy base classes,
+   * overrides the bind method that takes a list of payloads. Returns false if a class overrides
+   * "bindsPayloads" itself before such a bind method is found, since that decides it instead.
+   */
+  static boolean overridesPayloadBind(TypeElement clazz, Types typeUtils) {
+    while (clazz != null && isEpoxyModel(clazz) && !isEpoxyBaseModel(clazz)) {
+      for (Element subElement : clazz.getEnclosedElements()) {
+        if (subElement.getKind() != ElementKind.METHOD) {
+          continue;
+        }
+
+        ExecutableElement methodElement = (ExecutableElement) subElement;
+        String name = methodElement.getSimpleName().toString();
+        List<? extends VariableElement> params = methodElement.getParameters();
+        if (name.equals(BINDS_PAYLOADS_METHOD_NAME) && params.isEmpty()) {
+          return false;
+        }
+
+        if (name.equals("bind") && params.size() == 2
+            && !methodElement.getModifiers().contains(Modifier.ABSTRACT)
+            && typeUtils.erasure(params.get(1).asType()).toString()
+            .equals(List.class.getName())) {
+          return true;
+        }
+      }
+
+      clazz = (TypeElement) typeUtils.asElement(clazz.getSuperclass());
+    }
+
+    return false;
+  }
+
+  private static boolean isEpoxyBaseModel(TypeElement clazz) {
+    String name = clazz.getQualifiedName().toString();
+    return name.equals(EPOXY_MODEL_CLASS) || name.equals(EPOXY_MODEL_HOLDER_CLASS);
+  }
+
   static TypeMirror getMethodReturnType(TypeElement clazz, MethodSpec method, Types typeUtils) {
     ExecutableElement methodOnClass = getMethodOnClass(clazz, method, typeUtils);
 
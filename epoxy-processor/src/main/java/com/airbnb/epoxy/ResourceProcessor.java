@@ -8,10 +8,14 @@ import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.TreeScanner;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayDeque;
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -32,6 +36,15 @@ import javax.lang.model.util.Types;
  * R value at process time can be different from the final R value in the app.
  * <p>
  * This is taken from Butterknife. https://github.com/JakeWharton/butterknife/pull/613
+ * <p>
+ * The R classes referenced by the annotations are found by scanning the javac trees of the
+ * annotated elements. Trees aren't available if the compiler's processing environment is wrapped,
+ * as Gradle does for incremental annotation processing, so in that case the R class of each
+ * annotated element's package, or of its nearest parent package with one, is used instead.
+ * <p>
+ * Resource values are kept in an index for the whole compilation. R classes are only parsed when a
+ * value is looked up that isn't in the index yet, and each R class is parsed at most once, so
+ * rounds and models that use layouts from the same R classes don't scan them again.
  */
 class ResourceProcessor {
   private static final List<String> SUPPORTED_TYPES = Collections.singletonList("layout");
@@ -39,7 +52,19 @@ class ResourceProcessor {
   private final Types typeUtils;
 
   private Trees trees;
-  private final Map<Integer, AndroidResource> resources = new LinkedHashMap<>();
+  /** Resources by value, from the R classes parsed so far. */
+  private final Map<Integer, AndroidResource> resources = new HashMap<>();
+  /** Every R class that was found, whether or not it has been parsed yet. */
+  private final Set<String> foundRClasses = new HashSet<>();
+  /** R classes that were found but not parsed yet, in the order they were found. */
+  private final Deque<String> unparsedRClasses = new ArrayDeque<>();
+
+  private int scannedElementCount;
+  private int parsedRClassCount;
+  private int lookupCount;
+  private int missedLookupCount;
+  private long findNanos;
+  private long parseNanos;
 
   ResourceProcessor(ProcessingEnvironment processingEnv, Elements elementUtils, Types typeUtils) {
     this.elementUtils = elementUtils;
@@ -51,24 +76,57 @@ class ResourceProcessor {
     }
   }
 
+  /**
+   * Returns the resource with the given value. R classes that haven't been parsed yet are parsed
+   * until the value is found. If no R class has the value then the raw value is used.
+   */
   AndroidResource getResourceForValue(int value) {
-    if (resources.get(value) == null) {
-      resources.put(value, new AndroidResource(value));
+    lookupCount++;
+    AndroidResource resource = resources.get(value);
+    if (resource != null) {
+      return resource;
     }
-    return resources.get(value);
+
+    missedLookupCount++;
+    long startNanos = System.nanoTime();
+    while (resource == null && !unparsedRClasses.isEmpty()) {
+      parseRClass(unparsedRClasses.removeFirst(), resources);
+      parsedRClassCount++;
+      resource = resources.get(value);
+    }
+    parseNanos += System.nanoTime() - startNanos;
+
+    // An R class found in a later round may still have the value, so raw values aren't indexed
+    return resource != null ? resource : new AndroidResource(value);
   }
 
+  /** Finds the R classes referenced by this round's annotations, to be parsed when needed. */
   void processorResources(RoundEnvironment env) {
-    resources.clear();
-
-    if (trees == null) {
-      return;
+    long startNanos = System.nanoTime();
+    Set<String> rClasses = trees != null ? findReferencedRClasses(env) : findPackageRClasses(env);
+    for (String rClass : rClasses) {
+      if (foundRClasses.add(rClass)) {
+        unparsedRClasses.add(rClass);
+      }
     }
+    findNanos += System.nanoTime() - startNanos;
+  }
 
+  /** Describes how much work finding and parsing R classes took in this compilation. */
+  String getScanStats() {
+    return String.format(Locale.US, "Epoxy resource scan: %d annotated elements scanned, "
+            + "%d of %d R classes parsed, %d resources indexed, %d lookups (%d missed), "
+            + "%.1fms finding R classes, %.1fms parsing R classes",
+        scannedElementCount, parsedRClassCount, foundRClasses.size(), resources.size(),
+        lookupCount, missedLookupCount, findNanos / 1e6, parseNanos / 1e6);
+  }
+
+  private Set<String> findReferencedRClasses(RoundEnvironment env) {
     RClassScanner scanner = new RClassScanner();
 
     for (Class<? extends Annotation> annotation : EpoxyProcessor.getSupportedAnnotations()) {
       for (Element element : env.getElementsAnnotatedWith(annotation)) {
+        scannedElementCount++;
         JCTree tree = (JCTree) trees.getTree(element, getMirror(element, annotation));
         if (tree != null) { // tree can be null if the references are compiled types and not source
           tree.accept(scanner);
@@ -76,9 +134,35 @@ class ResourceProcessor {
       }
     }
 
-    for (String rClass : scanner.getRClasses()) {
-      parseRClass(rClass, resources);
+    return scanner.getRClasses();
+  }
+
+  private Set<String> findPackageRClasses(RoundEnvironment env) {
+    Set<String> rClasses = new LinkedHashSet<>();
+    Set<String> checkedPackages = new LinkedHashSet<>();
+
+    for (Class<? extends Annotation> annotation : EpoxyProcessor.getSupportedAnnotations()) {
+      for (Element element : env.getElementsAnnotatedWith(annotation)) {
+        scannedElementCount++;
+        String packageName = elementUtils.getPackageOf(element).getQualifiedName().toString();
+
+        while (checkedPackages.add(packageName)) {
+          String rClass = packageName.isEmpty() ? "R" : packageName + ".R";
+          if (elementUtils.getTypeElement(rClass) != null) {
+            rClasses.add(rClass);
+            break;
+          }
+
+          int lastDot = packageName.lastIndexOf('.');
+          if (lastDot == -1) {
+            break;
+          }
+          packageName = packageName.substring(0, lastDot);
+        }
+      }
     }
+
+    return rClasses;
   }
 
   private static AnnotationMirror getMirror(Element element,
@@ -100,7 +184,7 @@ class ResourceProcessor {
       element = typeUtils.asElement(mte.getTypeMirror());
     }
 
-    JCTree tree = (JCTree) trees.getTree(element);
+    JCTree tree = trees != null ? (JCTree) trees.getTree(element) : null;
     if (tree != null) { // tree can be null if the references are compiled types and not source
       IdScanner idScanner =
           new IdScanner(symbols, elementUtils.getPackageOf(element).getQualifiedName().toString());
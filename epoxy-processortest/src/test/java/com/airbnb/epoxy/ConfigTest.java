@@ -4,12 +4,17 @@ import com.google.testing.compile.JavaFileObjects;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.lang.model.element.Element;
 import javax.tools.JavaFileObject;
 
 import static com.google.common.truth.Truth.assert_;
 import static com.google.testing.compile.JavaFileObjects.forResource;
 import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
 import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
 
 public class ConfigTest {
 
@@ -31,6 +36,48 @@ public class ConfigTest {
               + "\n"
               + "import com.airbnb.epoxy.PackageEpoxyConfig;");
 
+  private static final JavaFileObject CONFIG_CLASS_GENERATE_ATTRIBUTE_CHANGES =
+      createConfigEnabling("generateAttributeChanges");
+
+  private static final JavaFileObject CONFIG_CLASS_TRACK_MODIFICATIONS =
+      createConfigEnabling("trackModifications");
+
+  private static final JavaFileObject CONFIG_CLASS_GENERATE_COPY_SETTERS =
+      createConfigEnabling("generateCopySetters");
+
+  private static final JavaFileObject CONFIG_CLASS_CACHE_HASH_CODE =
+      createConfigEnabling("cacheHashCode");
+
+  private static final JavaFileObject CONFIG_CLASS_GENERATE_CONTENT_EQUALS =
+      createConfigEnabling("generateContentEquals");
+
+  /** Creates a configuration for the configtest package that enables the given boolean option. */
+  private static JavaFileObject createConfigEnabling(String option) {
+    return JavaFileObjects
+        .forSourceString("com.airbnb.epoxy.configtest.package-info", "@PackageEpoxyConfig(\n"
+            + "    " + option + " = true\n"
+            + ")\n"
+            + "package com.airbnb.epoxy.configtest;\n"
+            + "\n"
+            + "import com.airbnb.epoxy.PackageEpoxyConfig;");
+  }
+
+  /**
+   * Asserts that the model in the resource with the given name is generated with the given
+   * configuration as the resource with the same name followed by an underscore.
+   */
+  private static void assertGeneration(JavaFileObject config, String modelName) {
+    JavaFileObject model = forResource(modelName + ".java");
+    JavaFileObject generatedModel = forResource(modelName + "_.java");
+
+    assert_().about(javaSources())
+        .that(asList(config, model))
+        .processedWith(new EpoxyProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(generatedModel);
+  }
+
   @Test
   public void testSubPackageOverridesParent() {
     JavaFileObject subPackageConfig =
@@ -80,6 +127,50 @@ public class ConfigTest {
         .withErrorContaining("Attribute does not implement hashCode");
   }
 
+  @Test
+  public void testConfigIsOriginatingElementOfGeneratedModels() {
+    JavaFileObject model = JavaFileObjects
+        .forSourceString("com.airbnb.epoxy.configtest.sub.ModelInSubPackage", ""
+            + "package com.airbnb.epoxy.configtest.sub;\n"
+            + "\n"
+            + "import com.airbnb.epoxy.EpoxyAttribute;\n"
+            + "import com.airbnb.epoxy.EpoxyModel;\n"
+            + "\n"
+            + "public class ModelInSubPackage extends EpoxyModel<Object> {\n"
+            + "  @EpoxyAttribute int value;\n"
+            + "\n"
+            + "  @Override\n"
+            + "  protected int getDefaultLayout() {\n"
+            + "    return 0;\n"
+            + "  }\n"
+            + "}");
+
+    JavaFileObject modelWithoutConfig = forResource("BasicModelWithAttribute.java");
+
+    WrappedEnvironmentProcessor processor = new WrappedEnvironmentProcessor();
+    assert_().about(javaSources())
+        .that(asList(CONFIG_CLASS_TRACK_MODIFICATIONS, model, modelWithoutConfig))
+        .processedWith(processor)
+        .compilesWithoutError();
+
+    // Editing the configuration of a parent package needs to regenerate the model
+    String generatedClassName = "com.airbnb.epoxy.configtest.sub.ModelInSubPackage_";
+    assertEquals(
+        asList("com.airbnb.epoxy.configtest.sub.ModelInSubPackage", "com.airbnb.epoxy.configtest"),
+        getOriginatingElementNames(processor, generatedClassName));
+    assertEquals(asList("com.airbnb.epoxy.BasicModelWithAttribute"),
+        getOriginatingElementNames(processor, "com.airbnb.epoxy.BasicModelWithAttribute_"));
+  }
+
+  private static List<String> getOriginatingElementNames(WrappedEnvironmentProcessor processor,
+      String generatedClassName) {
+    List<String> names = new ArrayList<>();
+    for (Element element : processor.originatingElements.get(generatedClassName)) {
+      names.add(element.toString());
+    }
+    return names;
+  }
+
   @Test
   public void testConfigRequireHashCode() {
     JavaFileObject model =
@@ -239,4 +330,61 @@ public class ConfigTest {
         .withErrorContaining(
             "Epoxy model class must be abstract (RequireAbstractModelFailsEpoxyModelClass)");
   }
+
+  @Test
+  public void testConfigGenerateAttributeChanges() {
+    assertGeneration(CONFIG_CLASS_GENERATE_ATTRIBUTE_CHANGES,
+        "ModelConfigGenerateAttributeChanges");
+  }
+
+  @Test
+  public void testConfigGenerateAttributeChangesWarnsIfModelHasTooManyAttributes() {
+    StringBuilder source = new StringBuilder()
+        .append("package com.airbnb.epoxy.configtest;\n")
+        .append("\n")
+        .append("import com.airbnb.epoxy.EpoxyAttribute;\n")
+        .append("import com.airbnb.epoxy.EpoxyModel;\n")
+        .append("\n")
+        .append("public class ModelWithTooManyAttributes extends EpoxyModel<Object> {\n");
+    // Changes are reported as bit flags in a long, so one more attribute than fits
+    for (int i = 0; i <= 64; i++) {
+      source.append("  @EpoxyAttribute int value").append(i).append(";\n");
+    }
+    source.append("\n")
+        .append("  @Override\n")
+        .append("  protected int getDefaultLayout() {\n")
+        .append("    return 0;\n")
+        .append("  }\n")
+        .append("}");
+
+    JavaFileObject model = JavaFileObjects.forSourceString(
+        "com.airbnb.epoxy.configtest.ModelWithTooManyAttributes", source.toString());
+
+    assert_().about(javaSources())
+        .that(asList(CONFIG_CLASS_GENERATE_ATTRIBUTE_CHANGES, model))
+        .processedWith(new EpoxyProcessor())
+        .compilesWithoutError()
+        .withWarningContaining("Attribute changes are not generated for "
+            + "com.airbnb.epoxy.configtest.ModelWithTooManyAttributes since it has 65 attributes");
+  }
+
+  @Test
+  public void testConfigTrackModifications() {
+    assertGeneration(CONFIG_CLASS_TRACK_MODIFICATIONS, "ModelConfigTrackModifications");
+  }
+
+  @Test
+  public void testConfigGenerateCopySetters() {
+    assertGeneration(CONFIG_CLASS_GENERATE_COPY_SETTERS, "ModelConfigGenerateCopySetters");
+  }
+
+  @Test
+  public void testConfigCacheHashCode() {
+    assertGeneration(CONFIG_CLASS_CACHE_HASH_CODE, "ModelConfigCacheHashCode");
+  }
+
+  @Test
+  public void testConfigGenerateContentEquals() {
+    assertGeneration(CONFIG_CLASS_GENERATE_CONTENT_EQUALS, "ModelConfigGenerateContentEquals");
+  }
 }
@@ -108,6 +108,23 @@ public class EpoxyProcessorTest {
         .generatesSources(generatedModel, generatedSubClassModel);
   }
 
+  @Test
+  public void testModelWithPayloadBinding() {
+    JavaFileObject model = JavaFileObjects
+        .forResource("ModelWithPayloadBinding.java");
+
+    JavaFileObject generatedModel = JavaFileObjects.forResource("ModelWithPayloadBinding_.java");
+    JavaFileObject generatedSubClassModel =
+        JavaFileObjects.forResource("ModelWithPayloadBinding$SubModelWithPayloadBinding_.java");
+
+    assert_().about(javaSource())
+        .that(model)
+        .processedWith(new EpoxyProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(generatedModel, generatedSubClassModel);
+  }
+
   @Test
   public void testModelWithType() {
     JavaFileObject model = JavaFileObjects
@@ -52,4 +52,50 @@ public class EpoxyResourceProcessorTest {
         .and()
         .generatesSources(generatedModel);
   }
+
+  @Test
+  public void testGenerateDefaultLayoutMethodWithoutTrees() {
+    // Without trees the R class of the model's package is parsed, which gives the same result
+    JavaFileObject model = JavaFileObjects
+        .forResource("ModelForRProcessingTest.java");
+
+    JavaFileObject generatedModel = JavaFileObjects
+        .forResource("ModelForRProcessingTest_.java");
+
+    assert_().about(javaSources())
+        .that(Arrays.asList(model, R))
+        .processedWith(new WrappedEnvironmentProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(generatedModel);
+  }
+
+  @Test
+  public void testGenerateDefaultLayoutMethodWithoutTreesUsesParentPackageRClass() {
+    JavaFileObject model = JavaFileObjects
+        .forResource("ModelForRProcessingInSubpackageTest.java");
+
+    JavaFileObject generatedModel = JavaFileObjects
+        .forResource("ModelForRProcessingInSubpackageTest_.java");
+
+    assert_().about(javaSources())
+        .that(Arrays.asList(model, R))
+        .processedWith(new WrappedEnvironmentProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(generatedModel);
+  }
+
+  @Test
+  public void testLogResourceScanStats() {
+    JavaFileObject model = JavaFileObjects
+        .forResource("ModelForRProcessingTest.java");
+
+    assert_().about(javaSources())
+        .that(Arrays.asList(model, R))
+        .withCompilerOptions("-A" + EpoxyProcessor.OPTION_LOG_RESOURCE_SCAN_STATS + "=true")
+        .processedWith(new EpoxyProcessor())
+        .compilesWithoutError()
+        .withNoteContaining("1 of 1 R classes parsed");
+  }
 }
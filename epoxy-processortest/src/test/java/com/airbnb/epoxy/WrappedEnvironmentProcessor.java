@@ -0,0 +1,82 @@
+package com.airbnb.epoxy;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Runs an {@link EpoxyProcessor} with its processing environment wrapped, the way Gradle wraps it
+ * for incremental annotation processing. Javac trees aren't available to the wrapped processor,
+ * and the originating elements of each source file it generates are recorded.
+ */
+class WrappedEnvironmentProcessor extends AbstractProcessor {
+  private final EpoxyProcessor processor = new EpoxyProcessor();
+  /** The originating elements of each generated source file, by the file's class name. */
+  final Map<String, List<Element>> originatingElements = new HashMap<>();
+
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    processor.init(wrap(ProcessingEnvironment.class, processingEnv));
+  }
+
+  @Override
+  public Set<String> getSupportedOptions() {
+    return processor.getSupportedOptions();
+  }
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    return processor.getSupportedAnnotationTypes();
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return processor.getSupportedSourceVersion();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    return processor.process(annotations, roundEnv);
+  }
+
+  private <T> T wrap(Class<T> type, final T delegate) {
+    InvocationHandler handler = new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("getFiler")) {
+          return wrap(Filer.class, (Filer) invokeDelegate(method, args));
+        }
+        if (method.getName().equals("createSourceFile")) {
+          originatingElements.put(args[0].toString(), Arrays.asList((Element[]) args[1]));
+        }
+        return invokeDelegate(method, args);
+      }
+
+      private Object invokeDelegate(Method method, Object[] args) throws Throwable {
+        try {
+          return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+          throw e.getCause();
+        }
+      }
+    };
+
+    return type.cast(
+        Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type }, handler));
+  }
+}
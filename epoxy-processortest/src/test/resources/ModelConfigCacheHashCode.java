@@ -0,0 +1,15 @@
+package com.airbnb.epoxy.configtest;
+
+import com.airbnb.epoxy.EpoxyAttribute;
+import com.airbnb.epoxy.EpoxyModel;
+
+public class ModelConfigCacheHashCode extends EpoxyModel<Object> {
+  @EpoxyAttribute int value;
+  @EpoxyAttribute String title;
+  @EpoxyAttribute(hash = false) Object clickListener;
+
+  @Override
+  protected int getDefaultLayout() {
+    return 0;
+  }
+}
@@ -0,0 +1,152 @@
+package com.airbnb.epoxy.configtest;
+
+import android.support.annotation.LayoutRes;
+import java.lang.CharSequence;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+
+/**
+ * Generated file. Do not modify! */
+public class ModelConfigCacheHashCode_ extends ModelConfigCacheHashCode {
+  private int cachedHashCode;
+
+  public ModelConfigCacheHashCode_() {
+    super();
+  }
+
+  public ModelConfigCacheHashCode_ title(String title) {
+    this.title = title;
+    cachedHashCode = 0;
+    return this;
+  }
+
+  public String title() {
+    return title;
+  }
+
+  public ModelConfigCacheHashCode_ clickListener(Object clickListener) {
+    this.clickListener = clickListener;
+    cachedHashCode = 0;
+    return this;
+  }
+
+  public Object clickListener() {
+    return clickListener;
+  }
+
+  public ModelConfigCacheHashCode_ value(int value) {
+    this.value = value;
+    cachedHashCode = 0;
+    return this;
+  }
+
+  public int value() {
+    return value;
+  }
+
+  @Override
+  public ModelConfigCacheHashCode_ id(long id) {
+    super.id(id);
+    cachedHashCode = 0;
+    return this;
+  }
+
+  @Override
+  public ModelConfigCacheHashCode_ id(CharSequence key) {
+    super.id(key);
+    cachedHashCode = 0;
+    return this;
+  }
+
+  @Override
+  public ModelConfigCacheHashCode_ id(CharSequence key, long id) {
+    super.id(key, id);
+    cachedHashCode = 0;
+    return this;
+  }
+
+  @Override
+  public ModelConfigCacheHashCode_ layout(@LayoutRes int arg0) {
+    super.layout(arg0);
+    cachedHashCode = 0;
+    return this;
+  }
+
+  @Override
+  public ModelConfigCacheHashCode_ show() {
+    super.show();
+    cachedHashCode = 0;
+    return this;
+  }
+
+  @Override
+  public ModelConfigCacheHashCode_ show(boolean show) {
+    super.show(show);
+    cachedHashCode = 0;
+    return this;
+  }
+
+  @Override
+  public ModelConfigCacheHashCode_ hide() {
+    super.hide();
+    cachedHashCode = 0;
+    return this;
+  }
+
+  @Override
+  public ModelConfigCacheHashCode_ reset() {
+    this.title = null;
+    this.clickListener = null;
+    this.value = 0;
+    super.reset();
+    cachedHashCode = 0;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof ModelConfigCacheHashCode_)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    ModelConfigCacheHashCode_ that = (ModelConfigCacheHashCode_) o;
+    if (title != null ? !title.equals(that.title) : that.title != null) {
+      return false;
+    }
+    if (clickListener != null && that.clickListener == null || clickListener == null && that.clickListener != null) {
+      return false;
+    }
+    if (value != that.value) {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    if (cachedHashCode != 0) {
+      return cachedHashCode;
+    }
+    int result = super.hashCode();
+    result = 31 * result + (title != null ? title.hashCode() : 0);
+    result = 31 * result + (clickListener != null ? 1 : 0);
+    result = 31 * result + value;
+    cachedHashCode = result;
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "ModelConfigCacheHashCode_{" +
+        "title=" + title +
+        ", clickListener=" + clickListener +
+        ", value=" + value +
+        "}" + super.toString();
+  }
+}
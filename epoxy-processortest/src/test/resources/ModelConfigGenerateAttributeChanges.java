@@ -0,0 +1,17 @@
+package com.airbnb.epoxy.configtest;
+
+import com.airbnb.epoxy.EpoxyAttribute;
+import com.airbnb.epoxy.EpoxyModel;
+
+public class ModelConfigGenerateAttributeChanges extends EpoxyModel<Object> {
+  @EpoxyAttribute int likeCount;
+  @EpoxyAttribute float rating;
+  @EpoxyAttribute String title;
+  @EpoxyAttribute String[] tags;
+  @EpoxyAttribute(hash = false) Object clickListener;
+
+  @Override
+  protected int getDefaultLayout() {
+    return 0;
+  }
+}
@@ -0,0 +1,202 @@
+package com.airbnb.epoxy.configtest;
+
+import android.support.annotation.LayoutRes;
+import com.airbnb.epoxy.EpoxyModel;
+import java.lang.CharSequence;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.util.Arrays;
+
+/**
+ * Generated file. Do not modify! */
+public class ModelConfigGenerateAttributeChanges_ extends ModelConfigGenerateAttributeChanges {
+  public static final long ATTRIBUTE_TITLE = 1L << 0;
+
+  public static final long ATTRIBUTE_TAGS = 1L << 1;
+
+  public static final long ATTRIBUTE_CLICK_LISTENER = 1L << 2;
+
+  public static final long ATTRIBUTE_LIKE_COUNT = 1L << 3;
+
+  public static final long ATTRIBUTE_RATING = 1L << 4;
+
+  public ModelConfigGenerateAttributeChanges_() {
+    super();
+  }
+
+  public ModelConfigGenerateAttributeChanges_ title(String title) {
+    this.title = title;
+    return this;
+  }
+
+  public String title() {
+    return title;
+  }
+
+  public ModelConfigGenerateAttributeChanges_ tags(String[] tags) {
+    this.tags = tags;
+    return this;
+  }
+
+  public String[] tags() {
+    return tags;
+  }
+
+  public ModelConfigGenerateAttributeChanges_ clickListener(Object clickListener) {
+    this.clickListener = clickListener;
+    return this;
+  }
+
+  public Object clickListener() {
+    return clickListener;
+  }
+
+  public ModelConfigGenerateAttributeChanges_ likeCount(int likeCount) {
+    this.likeCount = likeCount;
+    return this;
+  }
+
+  public int likeCount() {
+    return likeCount;
+  }
+
+  public ModelConfigGenerateAttributeChanges_ rating(float rating) {
+    this.rating = rating;
+    return this;
+  }
+
+  public float rating() {
+    return rating;
+  }
+
+  @Override
+  public ModelConfigGenerateAttributeChanges_ id(long id) {
+    super.id(id);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateAttributeChanges_ id(CharSequence key) {
+    super.id(key);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateAttributeChanges_ id(CharSequence key, long id) {
+    super.id(key, id);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateAttributeChanges_ layout(@LayoutRes int arg0) {
+    super.layout(arg0);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateAttributeChanges_ show() {
+    super.show();
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateAttributeChanges_ show(boolean show) {
+    super.show(show);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateAttributeChanges_ hide() {
+    super.hide();
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateAttributeChanges_ reset() {
+    this.title = null;
+    this.tags = null;
+    this.clickListener = null;
+    this.likeCount = 0;
+    this.rating = 0.0f;
+    super.reset();
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof ModelConfigGenerateAttributeChanges_)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    ModelConfigGenerateAttributeChanges_ that = (ModelConfigGenerateAttributeChanges_) o;
+    if (title != null ? !title.equals(that.title) : that.title != null) {
+      return false;
+    }
+    if (!Arrays.equals(tags, that.tags)) {
+      return false;
+    }
+    if (clickListener != null && that.clickListener == null || clickListener == null && that.clickListener != null) {
+      return false;
+    }
+    if (likeCount != that.likeCount) {
+      return false;
+    }
+    if (Float.compare(that.rating, rating) != 0) {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode();
+    result = 31 * result + (title != null ? title.hashCode() : 0);
+    result = 31 * result + Arrays.hashCode(tags);
+    result = 31 * result + (clickListener != null ? 1 : 0);
+    result = 31 * result + likeCount;
+    result = 31 * result + (rating != +0.0f ? Float.floatToIntBits(rating) : 0);
+    return result;
+  }
+
+  @Override
+  protected long getChangedAttributes(EpoxyModel<?> previouslyBoundModel) {
+    if (!(previouslyBoundModel instanceof ModelConfigGenerateAttributeChanges_)) {
+      return super.getChangedAttributes(previouslyBoundModel);
+    }
+    ModelConfigGenerateAttributeChanges_ that = (ModelConfigGenerateAttributeChanges_) previouslyBoundModel;
+    long changedAttributes = 0;
+    if (title != null ? !title.equals(that.title) : that.title != null) {
+      changedAttributes |= ATTRIBUTE_TITLE;
+    }
+    if (!Arrays.equals(tags, that.tags)) {
+      changedAttributes |= ATTRIBUTE_TAGS;
+    }
+    if (clickListener != that.clickListener) {
+      changedAttributes |= ATTRIBUTE_CLICK_LISTENER;
+    }
+    if (likeCount != that.likeCount) {
+      changedAttributes |= ATTRIBUTE_LIKE_COUNT;
+    }
+    if (Float.compare(that.rating, rating) != 0) {
+      changedAttributes |= ATTRIBUTE_RATING;
+    }
+    return changedAttributes;
+  }
+
+  @Override
+  public String toString() {
+    return "ModelConfigGenerateAttributeChanges_{" +
+        "title=" + title +
+        ", tags=" + tags +
+        ", clickListener=" + clickListener +
+        ", likeCount=" + likeCount +
+        ", rating=" + rating +
+        "}" + super.toString();
+  }
+}
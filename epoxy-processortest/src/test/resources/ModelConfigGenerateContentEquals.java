@@ -0,0 +1,16 @@
+package com.airbnb.epoxy.configtest;
+
+import com.airbnb.epoxy.EpoxyAttribute;
+import com.airbnb.epoxy.EpoxyModel;
+
+public class ModelConfigGenerateContentEquals extends EpoxyModel<Object> {
+  @EpoxyAttribute String title;
+  @EpoxyAttribute int[] ids;
+  @EpoxyAttribute int value;
+  @EpoxyAttribute(hash = false) Object clickListener;
+
+  @Override
+  protected int getDefaultLayout() {
+    return 0;
+  }
+}
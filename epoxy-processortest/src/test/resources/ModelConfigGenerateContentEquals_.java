@@ -0,0 +1,178 @@
+package com.airbnb.epoxy.configtest;
+
+import android.support.annotation.LayoutRes;
+import com.airbnb.epoxy.EpoxyModel;
+import java.lang.CharSequence;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.util.Arrays;
+
+/**
+ * Generated file. Do not modify! */
+public class ModelConfigGenerateContentEquals_ extends ModelConfigGenerateContentEquals {
+  public ModelConfigGenerateContentEquals_() {
+    super();
+  }
+
+  public ModelConfigGenerateContentEquals_ title(String title) {
+    this.title = title;
+    return this;
+  }
+
+  public String title() {
+    return title;
+  }
+
+  public ModelConfigGenerateContentEquals_ clickListener(Object clickListener) {
+    this.clickListener = clickListener;
+    return this;
+  }
+
+  public Object clickListener() {
+    return clickListener;
+  }
+
+  public ModelConfigGenerateContentEquals_ ids(int[] ids) {
+    this.ids = ids;
+    return this;
+  }
+
+  public int[] ids() {
+    return ids;
+  }
+
+  public ModelConfigGenerateContentEquals_ value(int value) {
+    this.value = value;
+    return this;
+  }
+
+  public int value() {
+    return value;
+  }
+
+  @Override
+  public ModelConfigGenerateContentEquals_ id(long id) {
+    super.id(id);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateContentEquals_ id(CharSequence key) {
+    super.id(key);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateContentEquals_ id(CharSequence key, long id) {
+    super.id(key, id);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateContentEquals_ layout(@LayoutRes int arg0) {
+    super.layout(arg0);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateContentEquals_ show() {
+    super.show();
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateContentEquals_ show(boolean show) {
+    super.show(show);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateContentEquals_ hide() {
+    super.hide();
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateContentEquals_ reset() {
+    this.title = null;
+    this.clickListener = null;
+    this.ids = null;
+    this.value = 0;
+    super.reset();
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof ModelConfigGenerateContentEquals_)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    ModelConfigGenerateContentEquals_ that = (ModelConfigGenerateContentEquals_) o;
+    if (title != null ? !title.equals(that.title) : that.title != null) {
+      return false;
+    }
+    if (clickListener != null && that.clickListener == null || clickListener == null && that.clickListener != null) {
+      return false;
+    }
+    if (!Arrays.equals(ids, that.ids)) {
+      return false;
+    }
+    if (value != that.value) {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode();
+    result = 31 * result + (title != null ? title.hashCode() : 0);
+    result = 31 * result + (clickListener != null ? 1 : 0);
+    result = 31 * result + Arrays.hashCode(ids);
+    result = 31 * result + value;
+    return result;
+  }
+
+  @Override
+  protected boolean diffsByContent() {
+    return true;
+  }
+
+  @Override
+  protected boolean contentEquals(EpoxyModel<?> previousModel) {
+    if (!(previousModel instanceof ModelConfigGenerateContentEquals_)) {
+      return false;
+    }
+    ModelConfigGenerateContentEquals_ that = (ModelConfigGenerateContentEquals_) previousModel;
+    if (clickListener != null && that.clickListener == null || clickListener == null && that.clickListener != null) {
+      return false;
+    }
+    if (value != that.value) {
+      return false;
+    }
+    if (title != null ? !title.equals(that.title) : that.title != null) {
+      return false;
+    }
+    if (!Arrays.equals(ids, that.ids)) {
+      return false;
+    }
+    return super.equals(previousModel);
+  }
+
+  @Override
+  public String toString() {
+    return "ModelConfigGenerateContentEquals_{" +
+        "title=" + title +
+        ", clickListener=" + clickListener +
+        ", ids=" + ids +
+        ", value=" + value +
+        "}" + super.toString();
+  }
+}
@@ -0,0 +1,16 @@
+package com.airbnb.epoxy.configtest;
+
+import com.airbnb.epoxy.EpoxyAttribute;
+import com.airbnb.epoxy.EpoxyModel;
+
+public class ModelConfigGenerateCopySetters extends EpoxyModel<Object> {
+  @EpoxyAttribute int value;
+  @EpoxyAttribute String title;
+  @EpoxyAttribute(hash = false) Object clickListener;
+  @EpoxyAttribute String[] tags;
+
+  @Override
+  protected int getDefaultLayout() {
+    return 0;
+  }
+}
@@ -0,0 +1,165 @@
+package com.airbnb.epoxy.configtest;
+
+import android.support.annotation.LayoutRes;
+import java.lang.CharSequence;
+import java.lang.Cloneable;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+import java.util.Arrays;
+
+/**
+ * Generated file. Do not modify! */
+public class ModelConfigGenerateCopySetters_ extends ModelConfigGenerateCopySetters implements Cloneable {
+  public ModelConfigGenerateCopySetters_() {
+    super();
+  }
+
+  public ModelConfigGenerateCopySetters_ withTitle(String title) {
+    ModelConfigGenerateCopySetters_ copy = (ModelConfigGenerateCopySetters_) copyModel();
+    copy.title = title;
+    copy.markModified();
+    return copy;
+  }
+
+  public String title() {
+    return title;
+  }
+
+  public ModelConfigGenerateCopySetters_ withClickListener(Object clickListener) {
+    ModelConfigGenerateCopySetters_ copy = (ModelConfigGenerateCopySetters_) copyModel();
+    copy.clickListener = clickListener;
+    copy.markModified();
+    return copy;
+  }
+
+  public Object clickListener() {
+    return clickListener;
+  }
+
+  public ModelConfigGenerateCopySetters_ withTags(String[] tags) {
+    ModelConfigGenerateCopySetters_ copy = (ModelConfigGenerateCopySetters_) copyModel();
+    copy.tags = tags;
+    copy.markModified();
+    return copy;
+  }
+
+  public String[] tags() {
+    return tags;
+  }
+
+  public ModelConfigGenerateCopySetters_ withValue(int value) {
+    ModelConfigGenerateCopySetters_ copy = (ModelConfigGenerateCopySetters_) copyModel();
+    copy.value = value;
+    copy.markModified();
+    return copy;
+  }
+
+  public int value() {
+    return value;
+  }
+
+  @Override
+  public ModelConfigGenerateCopySetters_ id(long id) {
+    super.id(id);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateCopySetters_ id(CharSequence key) {
+    super.id(key);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateCopySetters_ id(CharSequence key, long id) {
+    super.id(key, id);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateCopySetters_ layout(@LayoutRes int arg0) {
+    super.layout(arg0);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateCopySetters_ show() {
+    super.show();
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateCopySetters_ show(boolean show) {
+    super.show(show);
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateCopySetters_ hide() {
+    super.hide();
+    return this;
+  }
+
+  @Override
+  public ModelConfigGenerateCopySetters_ reset() {
+    this.title = null;
+    this.clickListener = null;
+    this.tags = null;
+    this.value = 0;
+    super.reset();
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof ModelConfigGenerateCopySetters_)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    ModelConfigGenerateCopySetters_ that = (ModelConfigGenerateCopySetters_) o;
+    if (title != null ? !title.equals(that.title) : that.title != null) {
+      return false;
+    }
+    if (clickListener != null && that.clickListener == null || clickListener == null && that.clickListener != null) {
+      return false;
+    }
+    if (!Arrays.equals(tags, that.tags)) {
+      return false;
+    }
+    if (value != that.value) {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode();
+    result = 31 * result + (title != null ? title.hashCode() : 0);
+    result = 31 * result + (clickListener != null ? 1 : 0);
+    result = 31 * result + Arrays.hashCode(tags);
+    result = 31 * result + value;
+    return result;
+  }
+
+  @Override
+  protected boolean tracksModifications() {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "ModelConfigGenerateCopySetters_{" +
+        "title=" + title +
+        ", clickListener=" + clickListener +
+        ", tags=" + tags +
+        ", value=" + value +
+        "}" + super.toString();
+  }
+}
@@ -0,0 +1,143 @@
+package com.airbnb.epoxy.configtest;
+
+import android.support.annotation.LayoutRes;
+import java.lang.CharSequence;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+
+/**
+ * Generated file. Do not modify! */
+public class ModelConfigTrackModifications_ extends ModelConfigTrackModifications {
+  public ModelConfigTrackModifications_() {
+    super();
+  }
+
+  public ModelConfigTrackModifications_ title(String title) {
+    this.title = title;
+    markModified();
+    return this;
+  }
+
+  public String title() {
+    return title;
+  }
+
+  public ModelConfigTrackModifications_ clickListener(Object clickListener) {
+    this.clickListener = clickListener;
+    markModified();
+    return this;
+  }
+
+  public Object clickListener() {
+    return clickListener;
+  }
+
+  public ModelConfigTrackModifications_ value(int value) {
+    this.value = value;
+    markModified();
+    return this;
+  }
+
+  public int value() {
+    return value;
+  }
+
+  @Override
+  public ModelConfigTrackModifications_ id(long id) {
+    super.id(id);
+    return this;
+  }
+
+  @Override
+  public ModelConfigTrackModifications_ id(CharSequence key) {
+    super.id(key);
+    return this;
+  }
+
+  @Override
+  public ModelConfigTrackModifications_ id(CharSequence key, long id) {
+    super.id(key, id);
+    return this;
+  }
+
+  @Override
+  public ModelConfigTrackModifications_ layout(@LayoutRes int arg0) {
+    super.layout(arg0);
+    return this;
+  }
+
+  @Override
+  public ModelConfigTrackModifications_ show() {
+    super.show();
+    return this;
+  }
+
+  @Override
+  public ModelConfigTrackModifications_ show(boolean show) {
+    super.show(show);
+    return this;
+  }
+
+  @Override
+  public ModelConfigTrackModifications_ hide() {
+    super.hide();
+    return this;
+  }
+
+  @Override
+  public ModelConfigTrackModifications_ reset() {
+    this.title = null;
+    this.clickListener = null;
+    this.value = 0;
+    super.reset();
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof ModelConfigTrackModifications_)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    ModelConfigTrackModifications_ that = (ModelConfigTrackModifications_) o;
+    if (title != null ? !title.equals(that.title) : that.title != null) {
+      return false;
+    }
+    if (clickListener != null && that.clickListener == null || clickListener == null && that.clickListener != null) {
+      return false;
+    }
+    if (value != that.value) {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode();
+    result = 31 * result + (title != null ? title.hashCode() : 0);
+    result = 31 * result + (clickListener != null ? 1 : 0);
+    result = 31 * result + value;
+    return result;
+  }
+
+  @Override
+  protected boolean tracksModifications() {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "ModelConfigTrackModifications_{" +
+        "title=" + title +
+        ", clickListener=" + clickListener +
+        ", value=" + value +
+        "}" + super.toString();
+  }
+}
@@ -0,0 +1,11 @@
+package com.airbnb.epoxy.subpackage;
+
+import com.airbnb.epoxy.EpoxyAttribute;
+import com.airbnb.epoxy.EpoxyModel;
+import com.airbnb.epoxy.EpoxyModelClass;
+import com.airbnb.epoxy.R;
+
+@EpoxyModelClass(layout = R.layout.res)
+public abstract class ModelForRProcessingInSubpackageTest extends EpoxyModel<Object> {
+  @EpoxyAttribute int value;
+}
@@ -0,0 +1,125 @@
+package com.airbnb.epoxy;
+
+import android.support.annotation.LayoutRes;
+import java.lang.CharSequence;
+import java.lang.Object;
+import java.lang.Override;
+import java.lang.String;
+
+/**
+ * Generated file. Do not modify! */
+public class ModelWithPayloadBinding$SubModelWithPayloadBinding_ extends ModelWithPayloadBinding.SubModelWithPayloadBinding {
+  public ModelWithPayloadBinding$SubModelWithPayloadBinding_() {
+    super();
+  }
+
+  public ModelWithPayloadBinding$SubModelWithPayloadBinding_ subValue(int subValue) {
+    this.subValue = subValue;
+    return this;
+  }
+
+  public int subValue() {
+    return subValue;
+  }
+
+  public ModelWithPayloadBinding$SubModelWithPayloadBinding_ value(int value) {
+    this.value = value;
+    return this;
+  }
+
+  public int value() {
+    return value;
+  }
+
+  @Override
+  public ModelWithPayloadBinding$SubModelWithPayloadBinding_ id(long id) {
+    super.id(id);
+    return this;
+  }
+
+  @Override
+  public ModelWithPayloadBinding$SubModelWithPayloadBinding_ id(CharSequence key) {
+    super.id(key);
+    return this;
+  }
+
+  @Override
+  public ModelWithPayloadBinding$SubModelWithPayloadBinding_ id(CharSequence key, long id) {
+    super.id(key, id);
+    return this;
+  }
+
+  @Override
+  public ModelWithPayloadBinding$SubModelWithPayloadBinding_ layout(@LayoutRes int arg0) {
+    super.layout(arg0);
+    return this;
+  }
+
+  @Override
+  public ModelWithPayloadBinding$SubModelWithPayloadBinding_ show() {
+    super.show();
+    return this;
+  }
+
+  @Override
+  public ModelWithPayloadBinding$SubModelWithPayloadBinding_ show(boolean show) {
+    super.show(show);
+    return this;
+  }
+
+  @Override
+  public ModelWithPayloadBinding$SubModelWithPayloadBinding_ hide() {
+    super.hide();
+    return this;
+  }
+
+  @Override
+  public ModelWithPayloadBinding$SubModelWithPayloadBinding_ reset() {
+    this.subValue = 0;
+    this.value = 0;
+    super.reset();
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof ModelWithPayloadBinding$SubModelWithPayloadBinding_)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    ModelWithPayloadBinding$SubModelWithPayloadBinding_ that = (ModelWithPayloadBinding$SubModelWithPayloadBinding_) o;
+    if (subValue != that.subValue) {
+      return false;
+    }
+    if (value != that.value) {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = super.hashCode();
+    result = 31 * result + subValue;
+    result = 31 * result + value;
+    return result;
+  }
+
+  @Override
+  protected boolean bindsPayloads() {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "ModelWithPayloadBinding$SubModelWithPayloadBinding_{" +
+        "subValue=" + subValue +
+        ", value=" + value +
+        "}" + super.toString();
+  }
+}
@@ -0,0 +1,20 @@
+package com.airbnb.epoxy;
+
+import java.util.List;
+
+public class ModelWithPayloadBinding extends EpoxyModel<Object> {
+  @EpoxyAttribute int value;
+
+  @Override
+  protected int getDefaultLayout() {
+    return 0;
+  }
+
+  @Override
+  public void bind(Object object, List<Object> payloads) {
+  }
+
+  public static class SubModelWithPayloadBinding extends ModelWithPayloadBinding {
+    @EpoxyAttribute int subValue;
+  }
+}